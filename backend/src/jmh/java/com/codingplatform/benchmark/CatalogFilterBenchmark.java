@@ -0,0 +1,55 @@
+package com.codingplatform.benchmark;
+
+import com.codingplatform.service.ProblemCatalog;
+import com.codingplatform.service.ProblemService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the problem list, filtered by ProblemService over the
+ * in-memory catalog: the linear scan behind /api/problems (difficulty,
+ * title search) and the bitmap-index query behind the faceted search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class CatalogFilterBenchmark {
+
+    @Param({"500", "5000"})
+    public int problems;
+
+    private ProblemService problemService;
+    private String secondPageCursor;
+
+    @Setup
+    public void setup() {
+        ProblemCatalog catalog = Stubs.catalog(problems);
+        problemService = new ProblemService(null, null, null, null, catalog, Stubs.emptyStats(), null);
+        secondPageCursor = problemService.getProblemsPage(null, "medium", null, null, 50).getNextCursor();
+    }
+
+    @Benchmark
+    public Object byDifficulty() {
+        return problemService.getProblemsPage(null, "medium", null, null, 50);
+    }
+
+    @Benchmark
+    public Object byDifficultyNextPage() {
+        return problemService.getProblemsPage(null, "medium", null, secondPageCursor, 50);
+    }
+
+    @Benchmark
+    public Object titleSearch() {
+        return problemService.getProblemsPage(null, null, "on graphs", null, 50);
+    }
+
+    @Benchmark
+    public Object facets() {
+        return problemService.getFacets(List.of("graphs", "trees"), List.of("easy", "medium"),
+                List.of("bfs"), null, null, 50);
+    }
+}
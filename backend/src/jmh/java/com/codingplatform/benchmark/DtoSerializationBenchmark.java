@@ -0,0 +1,100 @@
+package com.codingplatform.benchmark;
+
+import com.codingplatform.dto.PaginatedResponse;
+import com.codingplatform.dto.ProblemListDTO;
+import com.codingplatform.dto.SubmissionHistoryDTO;
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.service.ProblemCatalog;
+import com.codingplatform.service.ProblemStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing one 50-row page of the two busiest list
+ * responses: the problem list and a user's submission history.
+ *
+ * The mapping benchmarks stop at the DTOs; the json benchmarks include the
+ * mapping and write the page with an ObjectMapper configured like Spring
+ * Boot's (java.time support, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private ProblemStatsService statsService;
+    private ProblemCatalog.Snapshot snapshot;
+    private List<ProblemCatalog.Entry> problemPage;
+    private List<Object[]> historyRows;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        statsService = Stubs.emptyStats();
+        snapshot = Stubs.catalog(500).getSnapshot();
+        problemPage = snapshot.getEntries().subList(0, PAGE_SIZE);
+
+        // Projection tuples as the history query returns them
+        historyRows = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime submittedAt = LocalDateTime.of(2024, 6, 1, 12, 0);
+        Language[] languages = Language.values();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            historyRows.add(new Object[] {
+                    1_000_000L + i, snapshot.getEntries().get(i * 7).getId(), languages[i % languages.length],
+                    i % 3 == 0 ? SubmissionStatus.ACCEPTED : SubmissionStatus.WRONG_ANSWER,
+                    i % 3 == 0 ? "Accepted" : "Wrong Answer", 10, 12, submittedAt.minusMinutes(i)});
+        }
+    }
+
+    @Benchmark
+    public Object problemListMapping() {
+        return mapProblems();
+    }
+
+    @Benchmark
+    public byte[] problemListJson() throws Exception {
+        return objectMapper.writeValueAsBytes(new PaginatedResponse<>(mapProblems(), PAGE_SIZE, false, "cursor"));
+    }
+
+    @Benchmark
+    public Object historyMapping() {
+        return mapHistory();
+    }
+
+    @Benchmark
+    public byte[] historyJson() throws Exception {
+        return objectMapper.writeValueAsBytes(new PaginatedResponse<>(mapHistory(), PAGE_SIZE, false, "cursor"));
+    }
+
+    private List<ProblemListDTO> mapProblems() {
+        List<ProblemListDTO> page = new ArrayList<>(PAGE_SIZE);
+        for (ProblemCatalog.Entry entry : problemPage) {
+            page.add(new ProblemListDTO(entry, statsService.getCounts(entry.getId())));
+        }
+        return page;
+    }
+
+    private List<SubmissionHistoryDTO> mapHistory() {
+        List<SubmissionHistoryDTO> page = new ArrayList<>(PAGE_SIZE);
+        for (Object[] row : historyRows) {
+            SubmissionHistoryDTO dto = new SubmissionHistoryDTO((Long) row[0], (String) row[1],
+                    (Language) row[2], (SubmissionStatus) row[3], (String) row[4],
+                    (Integer) row[5], (Integer) row[6], (LocalDateTime) row[7]);
+            dto.setProblemTitle(snapshot.get(dto.getProblemId()).getTitle());
+            page.add(dto);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,78 @@
+package com.codingplatform.benchmark;
+
+import com.codingplatform.service.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a testcase file in S3Service.getFileContent, with the S3 call
+ * replaced by an in-memory object so only the read path is measured.
+ *
+ * The object is a typical large input: lines of space-separated integers.
+ * readAllBytes decodes the same bytes in one step, as a floor for what the
+ * line-by-line join costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class S3ReadBenchmark {
+
+    @Param({"64", "4096"})
+    public int sizeKb;
+
+    private byte[] content;
+    private S3Service s3Service;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(sizeKb * 1024 + 64);
+        while (text.length() < sizeKb * 1024) {
+            for (int i = 0; i < 20; i++) {
+                text.append(random.nextInt(1_000_000_000)).append(i < 19 ? ' ' : '\n');
+            }
+        }
+        content = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        S3Client client = new S3Client() {
+            @Override
+            public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+                return new ResponseInputStream<>(GetObjectResponse.builder().contentLength((long) content.length).build(),
+                        AbortableInputStream.create(new ByteArrayInputStream(content)));
+            }
+
+            @Override
+            public String serviceName() {
+                return "s3";
+            }
+
+            @Override
+            public void close() {}
+        };
+        s3Service = new S3Service(client, "benchmark", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String getFileContent() {
+        return s3Service.getFileContent("problems/p00001/input/1.txt");
+    }
+
+    @Benchmark
+    public String readAllBytes() throws Exception {
+        try (ByteArrayInputStream in = new ByteArrayInputStream(content)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
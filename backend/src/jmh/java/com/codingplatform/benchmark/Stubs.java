@@ -0,0 +1,84 @@
+package com.codingplatform.benchmark;
+
+import com.codingplatform.entity.Problem;
+import com.codingplatform.entity.Problem.Difficulty;
+import com.codingplatform.repository.ProblemRepository;
+import com.codingplatform.repository.ProblemStatRepository;
+import com.codingplatform.repository.ProblemTagRepository;
+import com.codingplatform.service.ProblemCatalog;
+import com.codingplatform.service.ProblemStatsService;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for repositories, so services can be benchmarked
+ * without a database.
+ */
+final class Stubs {
+
+    static final List<String> CATEGORIES = List.of(
+            "arrays", "strings", "graphs", "trees", "dynamic-programming", "math", "greedy", "sorting");
+    static final List<String> TAGS = List.of(
+            "two-pointers", "binary-search", "bfs", "dfs", "hashing", "stack", "heap", "prefix-sum",
+            "sliding-window", "bit-manipulation", "recursion", "union-find");
+
+    private Stubs() {}
+
+    /**
+     * A repository whose listed methods return the given answers; any
+     * other call fails.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getName().equals("toString")) {
+                return type.getSimpleName() + " stub";
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * A catalog of generated problems with one to three tags each.
+     */
+    static ProblemCatalog catalog(int problems) {
+        Random random = new Random(42);
+        List<Problem> all = new ArrayList<>(problems);
+        List<Object[]> tagPairs = new ArrayList<>();
+        Difficulty[] difficulties = Difficulty.values();
+        for (int i = 0; i < problems; i++) {
+            String id = String.format("p%05d", i);
+            String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+            Problem problem = new Problem(id, "Problem " + i + " on " + category,
+                    category, difficulties[random.nextInt(difficulties.length)], "");
+            problem.setTimeLimit(1000 + 1000 * random.nextInt(3));
+            problem.setMemoryLimit(256);
+            all.add(problem);
+            int firstTag = random.nextInt(TAGS.size());
+            for (int t = 1 + random.nextInt(3); t > 0; t--) {
+                tagPairs.add(new Object[] {id, TAGS.get((firstTag + t) % TAGS.size())});
+            }
+        }
+        return new ProblemCatalog(
+                repository(ProblemRepository.class, Map.of("findAll", args -> all)),
+                repository(ProblemTagRepository.class, Map.of("findAllProblemTagPairs", args -> tagPairs)));
+    }
+
+    /**
+     * Stats with every counter at zero.
+     */
+    static ProblemStatsService emptyStats() {
+        return new ProblemStatsService(
+                repository(ProblemStatRepository.class, Map.of("findByLanguage", args -> List.of())),
+                null, null, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.JudgeConfig;
+import com.codingplatform.dto.TestcaseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the judge request in JudgeService, through the
+ * same RestTemplate message converters as production. The HTTP exchange is
+ * replaced by an in-memory request that returns a canned verdict, so the
+ * score is the client-side cost per submission: request body, JSON
+ * encoding of the code and every testcase, and response decoding.
+ *
+ * Lives in the service package to reach the package-private judge call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class JudgeRequestBenchmark {
+
+    private static final byte[] VERDICT = "{\"verdict\":\"Accepted\",\"passed\":20,\"total\":20}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"20", "100"})
+    public int testcases;
+
+    @Param({"1", "64"})
+    public int inputKb;
+
+    private JudgeService judgeService;
+    private String code;
+    private List<TestcaseDTO> testcaseList;
+
+    @Setup
+    public void setup() {
+        RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(VERDICT, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.setResponse(response);
+            return request;
+        });
+        judgeService = new JudgeService(restTemplate, new JudgeConfig(), null, null, null, null, null, null, null, null, null);
+
+        code = "import sys\n\ndef solve(nums):\n    return sum(nums)\n\n".repeat(20)
+                + "print(solve(list(map(int, sys.stdin.read().split()))))\n";
+
+        Random random = new Random(42);
+        testcaseList = new ArrayList<>(testcases);
+        for (int i = 1; i <= testcases; i++) {
+            StringBuilder input = new StringBuilder(inputKb * 1024 + 16);
+            while (input.length() < inputKb * 1024) {
+                input.append(random.nextInt(1_000_000)).append(input.length() % 80 < 8 ? '\n' : ' ');
+            }
+            testcaseList.add(new TestcaseDTO(i, input.toString(), String.valueOf(random.nextLong())));
+        }
+    }
+
+    @Benchmark
+    public Object callJudge() {
+        return judgeService.callJudgeService("python", code, testcaseList);
+    }
+}
@@ -0,0 +1,40 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Submission Analytics Configuration.
+ * Rollup retention and the optional startup backfill.
+ */
+@Configuration
+public class AnalyticsConfig {
+
+    @Value("${analytics.hourly-retention-days:90}")
+    private int hourlyRetentionDays;
+
+    @Value("${analytics.backfill.enabled:false}")
+    private boolean backfillEnabled;
+
+    @Value("${analytics.backfill.days:30}")
+    private int backfillDays;
+
+    @Value("${analytics.backfill.parallelism:2}")
+    private int backfillParallelism;
+
+    public int getHourlyRetentionDays() {
+        return hourlyRetentionDays;
+    }
+
+    public boolean isBackfillEnabled() {
+        return backfillEnabled;
+    }
+
+    public int getBackfillDays() {
+        return backfillDays;
+    }
+
+    public int getBackfillParallelism() {
+        return backfillParallelism;
+    }
+}
@@ -0,0 +1,67 @@
+package com.codingplatform.config;
+
+import com.codingplatform.storage.ArchiveStore;
+import com.codingplatform.storage.LocalArchiveStore;
+import com.codingplatform.storage.S3ArchiveStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+
+/**
+ * Submission Partitioning and Archive Configuration.
+ * Archived partitions are written to "local" (filesystem directory) or
+ * "s3" (the configured bucket, under archive/).
+ */
+@Configuration
+public class ArchiveConfig {
+
+    @Value("${archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${archive.retain-months:12}")
+    private int retainMonths;
+
+    @Value("${archive.backend:local}")
+    private String backend;
+
+    @Value("${archive.local-root:./data/archive}")
+    private String localRoot;
+
+    @Value("${archive.work-dir:${java.io.tmpdir}}")
+    private String workDir;
+
+    @Value("${archive.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    @Bean
+    public ArchiveStore archiveStore(S3Client s3Client, @Qualifier("s3BucketName") String bucketName) {
+        switch (backend) {
+            case "local":
+                return new LocalArchiveStore(Path.of(localRoot));
+            case "s3":
+                return new S3ArchiveStore(s3Client, bucketName);
+            default:
+                throw new IllegalStateException("Unknown archive.backend: " + backend);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetainMonths() {
+        return retainMonths;
+    }
+
+    public String getWorkDir() {
+        return workDir;
+    }
+
+    public int getPartitionsAhead() {
+        return partitionsAhead;
+    }
+}
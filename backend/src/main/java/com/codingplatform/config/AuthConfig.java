@@ -0,0 +1,69 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Authentication Configuration.
+ * BCrypt work factor, the bounded password-hashing pool, login/signup
+ * throttles and the token revocation filter.
+ */
+@Configuration
+public class AuthConfig {
+
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.hashing.threads:2}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:32}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.hashing.timeout-ms:3000}")
+    private long hashingTimeoutMs;
+
+    @Value("${auth.throttle.per-ip-per-minute:30}")
+    private int perIpPerMinute;
+
+    @Value("${auth.throttle.per-email-per-minute:10}")
+    private int perEmailPerMinute;
+
+    @Value("${auth.revocation.expected-tokens:100000}")
+    private long revocationExpectedTokens;
+
+    @Value("${auth.revocation.false-positive-rate:0.001}")
+    private double revocationFalsePositiveRate;
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public int getHashingThreads() {
+        return hashingThreads;
+    }
+
+    public int getHashingQueueCapacity() {
+        return hashingQueueCapacity;
+    }
+
+    public long getHashingTimeoutMs() {
+        return hashingTimeoutMs;
+    }
+
+    public int getPerIpPerMinute() {
+        return perIpPerMinute;
+    }
+
+    public int getPerEmailPerMinute() {
+        return perEmailPerMinute;
+    }
+
+    public long getRevocationExpectedTokens() {
+        return revocationExpectedTokens;
+    }
+
+    public double getRevocationFalsePositiveRate() {
+        return revocationFalsePositiveRate;
+    }
+}
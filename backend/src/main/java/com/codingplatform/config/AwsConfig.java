@@ -3,14 +3,20 @@ package com.codingplatform.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
 
 /**
  * AWS S3 Configuration.
  * Uses IAM Role-based authentication (DefaultCredentialsProvider).
  * NO AWS keys in code - credentials come from EC2 instance role.
+ * aws.s3.endpoint points the client at an S3-compatible server instead
+ * (path-style, unsigned), e.g. the load-test stub.
  */
 @Configuration
 public class AwsConfig {
@@ -21,12 +27,21 @@ public class AwsConfig {
     @Value("${aws.s3.bucket:coding-platform-testcases}")
     private String s3Bucket;
 
+    @Value("${aws.s3.endpoint:}")
+    private String s3Endpoint;
+
     @Bean
     public S3Client s3Client() {
-        return S3Client.builder()
-                .region(Region.of(awsRegion))
-                .credentialsProvider(DefaultCredentialsProvider.create())
-                .build();
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(awsRegion));
+        if (s3Endpoint.isBlank()) {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        } else {
+            builder.endpointOverride(URI.create(s3Endpoint))
+                    .forcePathStyle(true)
+                    .credentialsProvider(AnonymousCredentialsProvider.create());
+        }
+        return builder.build();
     }
 
     @Bean
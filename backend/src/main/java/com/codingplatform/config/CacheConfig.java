@@ -0,0 +1,63 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Testcase Cache Configuration.
+ * Sample examples and full testcase sets are cached per problem.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${cache.testcases.samples-max-entries:2000}")
+    private long samplesMaxEntries;
+
+    @Value("${cache.testcases.max-chars:64000000}")
+    private long testcasesMaxChars;
+
+    @Value("${cache.testcases.refresh-after-seconds:300}")
+    private long refreshAfterSeconds;
+
+    @Value("${cache.testcases.expire-after-seconds:3600}")
+    private long expireAfterSeconds;
+
+    @Value("${cache.testcases.loader-threads:4}")
+    private int loaderThreads;
+
+    @Value("${cache.testcases.loader-queue:1000}")
+    private int loaderQueue;
+
+    /**
+     * Executor for background refreshes and hidden testcase prefetches.
+     * Loads are blocking S3 reads, so they stay off the common pool.
+     */
+    @Bean(name = "testcaseLoaderExecutor")
+    public ThreadPoolTaskExecutor testcaseLoaderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loaderThreads);
+        executor.setMaxPoolSize(loaderThreads);
+        executor.setQueueCapacity(loaderQueue);
+        executor.setThreadNamePrefix("testcase-loader-");
+        executor.initialize();
+        return executor;
+    }
+
+    public long getSamplesMaxEntries() {
+        return samplesMaxEntries;
+    }
+
+    public long getTestcasesMaxChars() {
+        return testcasesMaxChars;
+    }
+
+    public long getRefreshAfterSeconds() {
+        return refreshAfterSeconds;
+    }
+
+    public long getExpireAfterSeconds() {
+        return expireAfterSeconds;
+    }
+}
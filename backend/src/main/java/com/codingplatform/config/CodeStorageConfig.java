@@ -0,0 +1,77 @@
+package com.codingplatform.config;
+
+import com.codingplatform.repository.CodeBlobRepository;
+import com.codingplatform.storage.CodeBlobStore;
+import com.codingplatform.storage.DatabaseCodeBlobStore;
+import com.codingplatform.storage.LocalObjectCodeBlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Submission Code Storage Configuration.
+ * Selects the blob store backend: "db" (code_blobs table) or "local"
+ * (filesystem directory with S3-style object keys).
+ */
+@Configuration
+public class CodeStorageConfig {
+
+    @Value("${code-storage.backend:db}")
+    private String backend;
+
+    @Value("${code-storage.local-root:./data/code-blobs}")
+    private String localRoot;
+
+    @Value("${code-storage.compression-level:3}")
+    private int compressionLevel;
+
+    @Value("${code-storage.delta-enabled:true}")
+    private boolean deltaEnabled;
+
+    @Value("${code-storage.max-delta-chain:8}")
+    private int maxDeltaChain;
+
+    @Value("${code-storage.migration.enabled:false}")
+    private boolean migrationEnabled;
+
+    @Value("${code-storage.migration.batch-size:500}")
+    private int migrationBatchSize;
+
+    @Bean
+    public CodeBlobStore codeBlobStore(CodeBlobRepository codeBlobRepository) {
+        switch (backend) {
+            case "db":
+                return new DatabaseCodeBlobStore(codeBlobRepository);
+            case "local":
+                return new LocalObjectCodeBlobStore(Path.of(localRoot));
+            default:
+                throw new IllegalStateException("Unknown code-storage.backend: " + backend);
+        }
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public boolean isDeltaEnabled() {
+        return deltaEnabled;
+    }
+
+    public int getMaxDeltaChain() {
+        return maxDeltaChain;
+    }
+
+    public boolean isMigrationEnabled() {
+        return migrationEnabled;
+    }
+
+    public int getMigrationBatchSize() {
+        return migrationBatchSize;
+    }
+}
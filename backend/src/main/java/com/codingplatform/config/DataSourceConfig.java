@@ -0,0 +1,155 @@
+package com.codingplatform.config;
+
+import com.codingplatform.datasource.ReadYourWritesTracker;
+import com.codingplatform.datasource.ReplicaLagMonitor;
+import com.codingplatform.datasource.ReplicaRoutingDataSource;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DataSource Configuration.
+ *
+ * The primary database is reached through one Hikari pool per workload
+ * (catalog reads, the submission path, background jobs), so a spike in one
+ * cannot starve the others; see {@link WorkloadRoutingDataSource}. With
+ * datasource.replicas.enabled, read-only transactions go to the replicas in
+ * datasource.replicas.urls instead, falling back to the primary pools.
+ *
+ * Each pool reports the usual hikaricp.connections.* metrics tagged with
+ * its pool name, plus app.datasource.pool.saturation (active / max).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource catalogDataSource(DataSourceProperties properties, DataSourcePoolConfig pools,
+                                              Environment environment, MeterRegistry meterRegistry) {
+        return pool(Workload.CATALOG, properties, pools, environment, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource submissionDataSource(DataSourceProperties properties, DataSourcePoolConfig pools,
+                                                 Environment environment, MeterRegistry meterRegistry) {
+        return pool(Workload.SUBMISSION, properties, pools, environment, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource backgroundDataSource(DataSourceProperties properties, DataSourcePoolConfig pools,
+                                                 Environment environment, MeterRegistry meterRegistry) {
+        return pool(Workload.BACKGROUND, properties, pools, environment, meterRegistry);
+    }
+
+    /**
+     * One pool per replica URL, owned (and closed) by the lag monitor.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaConfig config,
+                                               DataSourceProperties properties,
+                                               MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : config.getUrls()) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(config.getUsername());
+            replica.setPassword(config.getPassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(config.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, replica);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.enabled is set but datasource.replicas.urls is empty");
+        }
+        return new ReplicaLagMonitor(replicas, config.getMaxLagSeconds(),
+                config.getLagQuery(), config.getLagColumn(), meterRegistry);
+    }
+
+    /**
+     * The DataSource JPA and JdbcTemplate use. The lazy proxy defers the
+     * routing decision to the first statement of a transaction.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource catalogDataSource,
+                                 HikariDataSource submissionDataSource,
+                                 HikariDataSource backgroundDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        WorkloadRoutingDataSource primary = new WorkloadRoutingDataSource();
+        primary.setTargetDataSources(Map.of(
+                Workload.CATALOG, catalogDataSource,
+                Workload.SUBMISSION, submissionDataSource,
+                Workload.BACKGROUND, backgroundDataSource));
+        primary.setDefaultTargetDataSource(submissionDataSource);
+        primary.afterPropertiesSet();
+
+        ReplicaLagMonitor lagMonitor = replicaLagMonitor.getIfAvailable();
+        if (lagMonitor == null) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, readYourWritesTracker);
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * A pool on the primary with the shared spring.datasource.hikari
+     * settings and the workload's own name and size.
+     */
+    private HikariDataSource pool(Workload workload, DataSourceProperties properties, DataSourcePoolConfig pools,
+                                  Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        String name = workload.name().toLowerCase();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(pools.getMaximumPoolSize(workload));
+
+        Gauge.builder("app.datasource.pool.saturation", dataSource, DataSourceConfig::saturation)
+                .tag("pool", name)
+                .description("Active connections / maximum pool size")
+                .register(meterRegistry);
+        return dataSource;
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0.0;
+        }
+        return (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,31 @@
+package com.codingplatform.config;
+
+import com.codingplatform.datasource.Workload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection Pool (Bulkhead) Configuration.
+ * Maximum size of the primary's pool for each workload; the other Hikari
+ * settings come from spring.datasource.hikari and are shared.
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    @Value("${datasource.pools.catalog.maximum-pool-size:6}")
+    private int catalogMaxSize;
+
+    @Value("${datasource.pools.submission.maximum-pool-size:6}")
+    private int submissionMaxSize;
+
+    @Value("${datasource.pools.background.maximum-pool-size:5}")
+    private int backgroundMaxSize;
+
+    public int getMaximumPoolSize(Workload workload) {
+        return switch (workload) {
+            case CATALOG -> catalogMaxSize;
+            case SUBMISSION -> submissionMaxSize;
+            case BACKGROUND -> backgroundMaxSize;
+        };
+    }
+}
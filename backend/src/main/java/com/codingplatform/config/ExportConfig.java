@@ -0,0 +1,20 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Submission Export Configuration.
+ * Each running export holds a database connection for its whole download,
+ * so the number of concurrent exports is capped well below the pool size.
+ */
+@Configuration
+public class ExportConfig {
+
+    @Value("${export.max-concurrent:3}")
+    private int maxConcurrent;
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
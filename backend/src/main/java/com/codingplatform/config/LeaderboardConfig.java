@@ -0,0 +1,34 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Leaderboard Configuration.
+ * Snapshot file location and how much history a restart may replay.
+ * Submissions older than the judging window are assumed to be judged.
+ */
+@Configuration
+public class LeaderboardConfig {
+
+    @Value("${leaderboard.snapshot-path:./data/leaderboard.snapshot}")
+    private String snapshotPath;
+
+    @Value("${leaderboard.max-replay:10000}")
+    private int maxReplay;
+
+    @Value("${leaderboard.judging-window-minutes:60}")
+    private long judgingWindowMinutes;
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public int getMaxReplay() {
+        return maxReplay;
+    }
+
+    public long getJudgingWindowMinutes() {
+        return judgingWindowMinutes;
+    }
+}
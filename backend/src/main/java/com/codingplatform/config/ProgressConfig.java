@@ -0,0 +1,26 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * User Progress Cache Configuration.
+ * Bounds the per-user solved/attempted sets kept in memory.
+ */
+@Configuration
+public class ProgressConfig {
+
+    @Value("${progress.max-users:50000}")
+    private long maxUsers;
+
+    @Value("${progress.expire-after-access-minutes:30}")
+    private long expireAfterAccessMinutes;
+
+    public long getMaxUsers() {
+        return maxUsers;
+    }
+
+    public long getExpireAfterAccessMinutes() {
+        return expireAfterAccessMinutes;
+    }
+}
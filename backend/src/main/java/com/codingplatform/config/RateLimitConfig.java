@@ -0,0 +1,93 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * API Rate Limit Configuration.
+ * Route groups with their own request budget per user (or per client IP
+ * when unauthenticated). A request is counted against the first group
+ * whose path patterns match it.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${rate-limit.auth.paths:/api/auth/**}")
+    private List<String> authPaths;
+
+    @Value("${rate-limit.auth.limit:20}")
+    private int authLimit;
+
+    @Value("${rate-limit.auth.window-seconds:60}")
+    private long authWindowSeconds;
+
+    @Value("${rate-limit.submit.paths:/api/submit}")
+    private List<String> submitPaths;
+
+    @Value("${rate-limit.submit.limit:10}")
+    private int submitLimit;
+
+    @Value("${rate-limit.submit.window-seconds:60}")
+    private long submitWindowSeconds;
+
+    @Value("${rate-limit.api.paths:/api/**}")
+    private List<String> apiPaths;
+
+    @Value("${rate-limit.api.limit:300}")
+    private int apiLimit;
+
+    @Value("${rate-limit.api.window-seconds:60}")
+    private long apiWindowSeconds;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * Route groups in matching order.
+     */
+    public List<Policy> getPolicies() {
+        return List.of(
+                new Policy("auth", authPaths, authLimit, Duration.ofSeconds(authWindowSeconds)),
+                new Policy("submit", submitPaths, submitLimit, Duration.ofSeconds(submitWindowSeconds)),
+                new Policy("api", apiPaths, apiLimit, Duration.ofSeconds(apiWindowSeconds)));
+    }
+
+    /**
+     * Budget of one route group.
+     */
+    public static class Policy {
+        private final String name;
+        private final List<String> paths;
+        private final int limit;
+        private final Duration window;
+
+        public Policy(String name, List<String> paths, int limit, Duration window) {
+            this.name = name;
+            this.paths = paths;
+            this.limit = limit;
+            this.window = window;
+        }
+
+        public String getName() { return name; }
+
+        public List<String> getPaths() { return paths; }
+
+        public int getLimit() { return limit; }
+
+        public Duration getWindow() { return window; }
+    }
+}
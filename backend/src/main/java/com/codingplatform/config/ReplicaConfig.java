@@ -0,0 +1,76 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read Replica Configuration.
+ * Replica JDBC URLs, when a replica counts as too far behind, and how long
+ * a user's reads stay on the primary after they submit.
+ */
+@Configuration
+public class ReplicaConfig {
+
+    @Value("${datasource.replicas.enabled:false}")
+    private boolean enabled;
+
+    @Value("${datasource.replicas.urls:}")
+    private String[] urls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${datasource.replicas.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${datasource.replicas.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${datasource.replicas.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    @Value("${datasource.replicas.lag-column:Seconds_Behind_Source}")
+    private String lagColumn;
+
+    @Value("${datasource.replicas.sticky-seconds:10}")
+    private long stickySeconds;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String[] getUrls() {
+        return urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public String getLagColumn() {
+        return lagColumn;
+    }
+
+    public long getStickySeconds() {
+        return stickySeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.codingplatform.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (catalog refresh, reconciliation, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.codingplatform.config;
 
 import com.codingplatform.security.JwtAuthenticationFilter;
+import com.codingplatform.security.RateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -24,14 +25,20 @@ import java.util.List;
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final AuthConfig authConfig;
     
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          RateLimitFilter rateLimitFilter,
+                          AuthConfig authConfig) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.authConfig = authConfig;
     }
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(authConfig.getBcryptStrength());
     }
     
     @Bean
@@ -44,13 +51,19 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // Scraped by Prometheus without a user token; keep it off the public load balancer
+                .requestMatchers("/actuator/prometheus").permitAll()
                 .requestMatchers("/api/problems/**").permitAll()
                 .requestMatchers("/api/categories").permitAll()
                 .requestMatchers("/api/stats").permitAll()
                 .requestMatchers("/api/languages").permitAll()
+                .requestMatchers("/api/leaderboard").permitAll()
+                .requestMatchers("/api/submissions/recent").permitAll()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
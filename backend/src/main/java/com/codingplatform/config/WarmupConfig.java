@@ -0,0 +1,78 @@
+package com.codingplatform.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Startup Warmup Configuration.
+ * Warmup runs before the readiness probe reports ACCEPTING_TRAFFIC.
+ */
+@Configuration
+public class WarmupConfig {
+
+    /**
+     * Header carrying {@link #getRequestToken()} on warmup requests.
+     */
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    private final String requestToken = UUID.randomUUID().toString();
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.timeout-seconds:120}")
+    private int timeoutSeconds;
+
+    @Value("${warmup.sample-problems:100}")
+    private int sampleProblems;
+
+    @Value("${warmup.connections:10}")
+    private int connections;
+
+    @Value("${warmup.iterations:300}")
+    private int iterations;
+
+    @Value("${warmup.detail-problems:10}")
+    private int detailProblems;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public int getSampleProblems() {
+        return sampleProblems;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getDetailProblems() {
+        return detailProblems;
+    }
+
+    /**
+     * Random per-process value sent by warmup's loopback requests, so the
+     * rate limiter can tell them apart from real clients.
+     */
+    public String getRequestToken() {
+        return requestToken;
+    }
+
+    /**
+     * Whether a {@link #TOKEN_HEADER} value marks a warmup request.
+     */
+    public boolean isRequestToken(String token) {
+        return requestToken.equals(token);
+    }
+}
@@ -0,0 +1,70 @@
+package com.codingplatform.controller;
+
+import com.codingplatform.dto.VerdictStatsDTO;
+import com.codingplatform.service.SubmissionAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+    
+    private final SubmissionAnalyticsService analyticsService;
+    
+    public AnalyticsController(SubmissionAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    /**
+     * GET /api/analytics/verdicts?granularity=day&from=...&to=...&problemId=...&language=...
+     * Defaults to the last 7 days (day buckets) or the last 24 hours (hour buckets).
+     */
+    @GetMapping("/verdicts")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<VerdictStatsDTO>> getVerdictSeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String problemId,
+            @RequestParam(required = false) String language) {
+        
+        boolean hourly = "hour".equals(granularity);
+        LocalDateTime end = to != null ? to
+                : LocalDateTime.now().truncatedTo(hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS)
+                        .plus(1, hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+        LocalDateTime start = from != null ? from : hourly ? end.minusHours(24) : end.minusDays(7);
+        
+        logger.info("GET /api/analytics/verdicts - {} from {} to {}", granularity, start, end);
+        return ResponseEntity.ok(analyticsService.getSeries(granularity, start, end, problemId, language));
+    }
+    
+    /**
+     * GET /api/analytics/breakdown?by=problem|language&from=...&to=...&problemId=...
+     * Defaults to the last 7 days.
+     */
+    @GetMapping("/breakdown")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<VerdictStatsDTO>> getVerdictBreakdown(
+            @RequestParam(defaultValue = "problem") String by,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String problemId) {
+        
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(1);
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        
+        logger.info("GET /api/analytics/breakdown - by {} from {} to {}", by, start, end);
+        return ResponseEntity.ok(analyticsService.getBreakdown(by, start, end, problemId));
+    }
+}
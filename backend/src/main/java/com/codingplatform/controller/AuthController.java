@@ -4,9 +4,15 @@ import com.codingplatform.dto.AuthResponse;
 import com.codingplatform.dto.LoginRequest;
 import com.codingplatform.dto.SignupRequest;
 import com.codingplatform.service.AuthService;
+import com.codingplatform.service.AuthThrottle;
+import com.codingplatform.service.JwtService;
+import com.codingplatform.service.PasswordHashingService;
+import com.codingplatform.service.TokenRevocationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,16 +25,29 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     
     private final AuthService authService;
+    private final AuthThrottle authThrottle;
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
     
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthThrottle authThrottle,
+                          JwtService jwtService, TokenRevocationService revocationService) {
         this.authService = authService;
+        this.authThrottle = authThrottle;
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
     }
     
     @PostMapping("/signup")
-    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request) {
+    public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest request,
+                                               HttpServletRequest httpRequest) {
         try {
+            authThrottle.acquire(httpRequest.getRemoteAddr(), request.getEmail());
             AuthResponse response = authService.signup(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (AuthThrottle.ThrottledException e) {
+            return throttled(e);
+        } catch (PasswordHashingService.HashingBusyException e) {
+            return busy(e);
         } catch (IllegalArgumentException e) {
             logger.warn("Signup failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -36,14 +55,47 @@ public class AuthController {
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         try {
+            authThrottle.acquire(httpRequest.getRemoteAddr(), request.getEmail());
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (AuthThrottle.ThrottledException e) {
+            return throttled(e);
+        } catch (PasswordHashingService.HashingBusyException e) {
+            return busy(e);
         } catch (IllegalArgumentException e) {
             logger.warn("Login failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
+    
+    /**
+     * Revoke the bearer token of this request. Always 204, so a client can
+     * call it with an expired or already revoked token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwtService.verify(authHeader.substring(7)).ifPresent(verified ->
+                    revocationService.revoke(verified.getTokenId(), verified.getUserId(), verified.getExpiresAtMillis()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    private static ResponseEntity<AuthResponse> throttled(AuthThrottle.ThrottledException e) {
+        logger.warn("Auth throttled: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+    
+    private static ResponseEntity<AuthResponse> busy(PasswordHashingService.HashingBusyException e) {
+        logger.warn("Auth rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 }
 
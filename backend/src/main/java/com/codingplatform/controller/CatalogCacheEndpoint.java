@@ -0,0 +1,42 @@
+package com.codingplatform.controller;
+
+import com.codingplatform.service.CatalogCacheService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the catalog second-level cache.
+ *
+ * Endpoints (when exposed, see management.endpoints.web.exposure.include):
+ * - GET  /actuator/catalogcache - Hit ratio per cache region
+ * - POST /actuator/catalogcache - Evict one problem ({"problemId": "..."}) or everything
+ */
+@Component
+@Endpoint(id = "catalogcache")
+public class CatalogCacheEndpoint {
+
+    private final CatalogCacheService catalogCacheService;
+
+    public CatalogCacheEndpoint(CatalogCacheService catalogCacheService) {
+        this.catalogCacheService = catalogCacheService;
+    }
+
+    @ReadOperation
+    public Map<String, CatalogCacheService.RegionStats> statistics() {
+        return catalogCacheService.getStatistics();
+    }
+
+    @WriteOperation
+    public void evict(@Nullable String problemId) {
+        if (problemId == null) {
+            catalogCacheService.evictAll();
+        } else {
+            catalogCacheService.evictProblem(problemId);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.codingplatform.controller;
+
+import com.codingplatform.dto.LeaderboardEntryDTO;
+import com.codingplatform.dto.PaginatedResponse;
+import com.codingplatform.security.UserContext;
+import com.codingplatform.service.LeaderboardService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final LeaderboardService leaderboardService;
+    
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+    
+    /**
+     * GET /api/leaderboard?page=0&size=50
+     */
+    @GetMapping
+    public ResponseEntity<PaginatedResponse<LeaderboardEntryDTO>> getLeaderboard(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        int clampedSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(leaderboardService.getPage(Math.max(0, page), clampedSize));
+    }
+    
+    /**
+     * GET /api/leaderboard/me - 204 when the user has not solved anything yet.
+     */
+    @GetMapping("/me")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<LeaderboardEntryDTO> getMyStanding() {
+        Long userId = UserContext.getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        return leaderboardService.getStanding(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
@@ -1,6 +1,13 @@
 package com.codingplatform.controller;
 
+import com.codingplatform.config.WarmupConfig;
+import com.codingplatform.dto.PaginatedResponse;
+import com.codingplatform.dto.ProblemFacetsDTO;
 import com.codingplatform.dto.ProblemListDTO;
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.security.UserContext;
+import com.codingplatform.service.PerformanceDistributionService;
+import com.codingplatform.service.ProblemCatalog;
 import com.codingplatform.service.ProblemService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,8 +21,10 @@ import java.util.Map;
  * REST Controller for problem operations.
  * 
  * Endpoints:
- * - GET  /api/problems         - Get all problems (with optional filters)
+ * - GET  /api/problems         - Get problems, cursor-paginated (with optional filters)
+ * - GET  /api/problems/facets - Faceted search with per-facet counts
  * - GET  /api/problems/{id}    - Get problem details
+ * - GET  /api/problems/{id}/performance - Rank a runtime / memory among accepted submissions
  * - GET  /api/categories       - Get all categories
  * - GET  /api/tags             - Get all tags
  */
@@ -26,57 +35,114 @@ public class ProblemController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProblemController.class);
 
-    private final ProblemService problemService;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
 
-    public ProblemController(ProblemService problemService) {
+    private final ProblemService problemService;
+    private final ProblemCatalog problemCatalog;
+    private final PerformanceDistributionService performanceDistributionService;
+    private final WarmupConfig warmupConfig;
+
+    public ProblemController(ProblemService problemService,
+                             ProblemCatalog problemCatalog,
+                             PerformanceDistributionService performanceDistributionService,
+                             WarmupConfig warmupConfig) {
         this.problemService = problemService;
+        this.problemCatalog = problemCatalog;
+        this.performanceDistributionService = performanceDistributionService;
+        this.warmupConfig = warmupConfig;
     }
 
     /**
-     * Get all problems with optional filters.
+     * Get one page of problems with optional filters.
+     * Pages follow the stable order (difficulty, id); pass the returned
+     * {@code nextCursor} back as {@code cursor} to get the next page.
      * 
      * @param category   Filter by category (optional)
      * @param difficulty Filter by difficulty (optional)
      * @param search     Search by title (optional)
+     * @param cursor     Continuation token from the previous page (optional)
+     * @param limit      Page size, capped at {@value #MAX_PAGE_SIZE}
      */
     @GetMapping("/problems")
-    public ResponseEntity<List<ProblemListDTO>> getProblems(
+    public ResponseEntity<PaginatedResponse<ProblemListDTO>> getProblems(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String difficulty,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         
-        logger.info("GET /api/problems - category={}, difficulty={}, search={}", 
-                category, difficulty, search);
-
-        List<ProblemListDTO> problems;
-
-        if (search != null && !search.isEmpty()) {
-            problems = problemService.searchProblems(search);
-        } else if (category != null && difficulty != null) {
-            problems = problemService.getProblemsByCategoryAndDifficulty(category, difficulty);
-        } else if (category != null) {
-            problems = problemService.getProblemsByCategory(category);
-        } else if (difficulty != null) {
-            problems = problemService.getProblemsByDifficulty(difficulty);
-        } else {
-            problems = problemService.getAllProblems();
-        }
+        logger.info("GET /api/problems - category={}, difficulty={}, search={}, limit={}", 
+                category, difficulty, search, limit);
 
-        return ResponseEntity.ok(problems);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(problemService.getProblemsPage(
+                category, difficulty, search, cursor, pageSize));
+    }
+
+    /**
+     * Faceted problem search with per-facet counts.
+     * Repeat a parameter to select several values; tags must all match.
+     * {@code unsolved=true} drops problems the signed-in user has solved.
+     */
+    @GetMapping("/problems/facets")
+    public ResponseEntity<ProblemFacetsDTO> getFacets(
+            @RequestParam(required = false, defaultValue = "") List<String> category,
+            @RequestParam(required = false, defaultValue = "") List<String> difficulty,
+            @RequestParam(required = false, defaultValue = "") List<String> tag,
+            @RequestParam(defaultValue = "false") boolean unsolved,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+
+        logger.info("GET /api/problems/facets - category={}, difficulty={}, tag={}, unsolved={}",
+                category, difficulty, tag, unsolved);
+
+        Long userId = unsolved ? UserContext.getCurrentUserId() : null;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(problemService.getFacets(
+                category, difficulty, tag, userId, cursor, pageSize));
     }
 
     /**
-     * Get problem details by ID.
+     * Get problem details by ID. Warmup reads skip the testcase prefetch.
      */
     @GetMapping("/problems/{id}")
-    public ResponseEntity<?> getProblemById(@PathVariable String id) {
+    public ResponseEntity<?> getProblemById(
+            @PathVariable String id,
+            @RequestHeader(value = WarmupConfig.TOKEN_HEADER, required = false) String warmupToken) {
         logger.info("GET /api/problems/{}", id);
 
-        return problemService.getProblemById(id)
+        return problemService.getProblemById(id, !warmupConfig.isRequestToken(warmupToken))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Rank a CPU time and/or peak RSS against the accepted submissions of a
+     * problem in one language ("faster than X%").
+     */
+    @GetMapping("/problems/{id}/performance")
+    public ResponseEntity<PerformanceDistributionService.Ranking> getPerformance(
+            @PathVariable String id,
+            @RequestParam String language,
+            @RequestParam(required = false) Integer timeMs,
+            @RequestParam(required = false) Integer memoryKb) {
+        logger.info("GET /api/problems/{}/performance - language={}, timeMs={}, memoryKb={}",
+                id, language, timeMs, memoryKb);
+
+        String languageStr = language.toLowerCase();
+        Language parsed;
+        try {
+            parsed = Language.valueOf(languageStr.equals("js") ? "javascript" : languageStr);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (problemCatalog.getSnapshot().get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(performanceDistributionService.rank(id, parsed, timeMs, memoryKb));
+    }
+
     /**
      * Get all categories.
      */
@@ -0,0 +1,43 @@
+package com.codingplatform.controller;
+
+import com.codingplatform.dto.RecentSubmissionsDTO;
+import com.codingplatform.service.RecentSubmissionFeed;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/submissions")
+@CrossOrigin(origins = "*")
+public class RecentSubmissionController {
+    
+    private static final int MAX_LIMIT = 200;
+    private static final int MAX_WAIT_SECONDS = 30;
+    
+    private final RecentSubmissionFeed recentSubmissionFeed;
+    
+    public RecentSubmissionController(RecentSubmissionFeed recentSubmissionFeed) {
+        this.recentSubmissionFeed = recentSubmissionFeed;
+    }
+    
+    /**
+     * GET /api/submissions/recent?after=0&limit=50&wait=0
+     * Events with sequence > after; with wait > 0 the request is held open
+     * up to that many seconds until there is at least one.
+     */
+    @GetMapping("/recent")
+    public DeferredResult<RecentSubmissionsDTO> getRecent(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int wait) {
+        
+        int clampedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int clampedWait = Math.max(0, Math.min(wait, MAX_WAIT_SECONDS));
+        
+        if (clampedWait == 0) {
+            DeferredResult<RecentSubmissionsDTO> result = new DeferredResult<>();
+            result.setResult(recentSubmissionFeed.read(Math.max(0, after), clampedLimit));
+            return result;
+        }
+        return recentSubmissionFeed.poll(Math.max(0, after), clampedLimit, clampedWait * 1000L);
+    }
+}
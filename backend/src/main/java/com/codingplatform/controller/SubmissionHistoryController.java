@@ -3,13 +3,25 @@ package com.codingplatform.controller;
 import com.codingplatform.dto.PaginatedResponse;
 import com.codingplatform.dto.SubmissionHistoryDTO;
 import com.codingplatform.security.UserContext;
+import com.codingplatform.service.SubmissionExportService;
 import com.codingplatform.service.SubmissionHistoryService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/submissions")
@@ -18,27 +30,33 @@ public class SubmissionHistoryController {
     
     private static final Logger logger = LoggerFactory.getLogger(SubmissionHistoryController.class);
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final SubmissionHistoryService submissionHistoryService;
+    private final SubmissionExportService submissionExportService;
     
-    public SubmissionHistoryController(SubmissionHistoryService submissionHistoryService) {
+    public SubmissionHistoryController(SubmissionHistoryService submissionHistoryService,
+                                       SubmissionExportService submissionExportService) {
         this.submissionHistoryService = submissionHistoryService;
+        this.submissionExportService = submissionExportService;
     }
     
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<PaginatedResponse<SubmissionHistoryDTO>> getMySubmissions(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         Long userId = UserContext.getCurrentUserId();
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        logger.info("GET /api/submissions/me - user={}, page={}, size={}", userId, page, size);
+        logger.info("GET /api/submissions/me - user={}, cursor={}, size={}", userId, cursor, size);
         
         PaginatedResponse<SubmissionHistoryDTO> response = 
-                submissionHistoryService.getUserSubmissions(userId, page, size);
+                submissionHistoryService.getUserSubmissions(userId, cursor, clampSize(size), includeTotal);
         
         return ResponseEntity.ok(response);
     }
@@ -47,23 +65,85 @@ public class SubmissionHistoryController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<PaginatedResponse<SubmissionHistoryDTO>> getMySubmissionsForProblem(
             @PathVariable String problemId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         Long userId = UserContext.getCurrentUserId();
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        logger.info("GET /api/submissions/me/problem/{} - user={}, page={}, size={}", 
-                problemId, userId, page, size);
+        logger.info("GET /api/submissions/me/problem/{} - user={}, cursor={}, size={}", 
+                problemId, userId, cursor, size);
         
         PaginatedResponse<SubmissionHistoryDTO> response = 
-                submissionHistoryService.getUserSubmissionsForProblem(userId, problemId, page, size);
+                submissionHistoryService.getUserSubmissionsForProblem(
+                        userId, problemId, cursor, clampSize(size), includeTotal);
         
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * GET /api/submissions/me/export?format=ndjson|csv&gzip=false&includeCode=false&problemId=...
+     * Streams the full history (including archived months) as a download.
+     * The export slot is also released when the async request completes, so
+     * it is not held if the body never runs (client gone, timeout, error).
+     */
+    @GetMapping("/me/export")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> exportMySubmissions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean includeCode,
+            @RequestParam(required = false) String problemId,
+            HttpServletRequest request) {
+        
+        Long userId = UserContext.getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        SubmissionExportService.Format exportFormat;
+        try {
+            exportFormat = SubmissionExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        
+        logger.info("GET /api/submissions/me/export - user={}, format={}, gzip={}", userId, exportFormat, gzip);
+        
+        SubmissionExportService.Export export;
+        try {
+            export = submissionExportService.begin(userId, problemId, exportFormat, gzip, includeCode);
+        } catch (SubmissionExportService.ExportBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor("submissionExport",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        export.release();
+                    }
+                });
+        
+        String filename = "submissions" + (exportFormat == SubmissionExportService.Format.CSV ? ".csv" : ".ndjson");
+        MediaType contentType = exportFormat == SubmissionExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType("application/x-ndjson");
+        if (gzip) {
+            filename += ".gz";
+            contentType = MediaType.parseMediaType("application/gzip");
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(export::writeTo);
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<SubmissionHistoryDTO> getSubmission(@PathVariable Long id) {
@@ -80,5 +160,8 @@ public class SubmissionHistoryController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+    
+    private static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
-
@@ -0,0 +1,37 @@
+package com.codingplatform.controller;
+
+import com.codingplatform.dto.UserProgressDTO;
+import com.codingplatform.security.UserContext;
+import com.codingplatform.service.UserProgressService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/me")
+@CrossOrigin(origins = "*")
+public class UserProgressController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserProgressController.class);
+    
+    private final UserProgressService userProgressService;
+    
+    public UserProgressController(UserProgressService userProgressService) {
+        this.userProgressService = userProgressService;
+    }
+    
+    @GetMapping("/progress")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<UserProgressDTO> getMyProgress() {
+        Long userId = UserContext.getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        logger.info("GET /api/me/progress - user={}", userId);
+        return ResponseEntity.ok(userProgressService.getProgressView(userId));
+    }
+}
@@ -0,0 +1,21 @@
+package com.codingplatform.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Charge the database work of a bean method (or of every method of a bean)
+ * to a workload's connection pool instead of routing it by transaction
+ * type. Applied by {@link BulkheadAspect}, so like @Transactional it only
+ * takes effect on calls through the Spring proxy.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Workload value();
+}
@@ -0,0 +1,40 @@
+package com.codingplatform.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the {@link WorkloadContext} around {@link Bulkhead} methods.
+ * Ordered outside the transaction interceptor, so the workload is in
+ * place before the transaction fetches its connection, but inside
+ * Spring's ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1), which
+ * binding the annotation argument needs.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class BulkheadAspect {
+
+    @Around("@annotation(bulkhead)")
+    public Object aroundMethod(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        return proceedAs(joinPoint, bulkhead.value());
+    }
+
+    @Around("@within(bulkhead) && !@annotation(com.codingplatform.datasource.Bulkhead)")
+    public Object aroundType(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        return proceedAs(joinPoint, bulkhead.value());
+    }
+
+    private Object proceedAs(ProceedingJoinPoint joinPoint, Workload workload) throws Throwable {
+        Workload previous = WorkloadContext.enter(workload);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
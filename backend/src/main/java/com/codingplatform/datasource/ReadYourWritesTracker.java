@@ -0,0 +1,51 @@
+package com.codingplatform.datasource;
+
+import com.codingplatform.config.ReplicaConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Users who wrote recently, whose reads must not go to a replica that may
+ * not have their write yet. The window starts when the write commits.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(ReplicaConfig config) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(config.getStickySeconds()))
+                .build();
+    }
+
+    /**
+     * Pin the user's reads to the primary once the current transaction
+     * commits (immediately when there is none).
+     */
+    public void markWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isSticky(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.codingplatform.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls each read replica for its replication lag and hands out the
+ * replicas that are within the allowed lag, round robin.
+ *
+ * A replica is usable only while its last check succeeded and reported a
+ * lag of at most maxLagSeconds; a failed query, a stopped replication
+ * thread (NULL lag) or a missing status row all take it out of rotation
+ * until the next good check. Until the first check every replica is out,
+ * so reads start on the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Map<String, Replica> states;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> usable = List.of();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagSeconds,
+                             String lagQuery, String lagColumn, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.states = new LinkedHashMap<>();
+        for (String name : replicas.keySet()) {
+            Replica replica = new Replica();
+            states.put(name, replica);
+            Gauge.builder("app.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", name)
+                    .description("Replication lag in seconds, -1 when unknown")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("app.datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Name of the next usable replica, or null when none is usable.
+     */
+    public String pick() {
+        List<String> current = usable;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    /**
+     * Re-check every replica and rebuild the rotation.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:2000}")
+    public void check() {
+        List<String> nowUsable = new ArrayList<>();
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            String name = entry.getKey();
+            Replica replica = states.get(name);
+            long lag = readLag(name, entry.getValue());
+            boolean ok = lag >= 0 && lag <= maxLagSeconds;
+            if (ok != replica.usable) {
+                logger.info("Replica {} {} (lag {}s, max {}s)",
+                        name, ok ? "in rotation" : "out of rotation", lag, maxLagSeconds);
+            }
+            replica.lagSeconds = lag;
+            replica.usable = ok;
+            if (ok) {
+                nowUsable.add(name);
+            }
+        }
+        usable = List.copyOf(nowUsable);
+    }
+
+    /**
+     * Close the replica pools.
+     */
+    public void close() {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lag in seconds, or -1 if it could not be determined.
+     */
+    private long readLag(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long lag = rs.getLong(lagColumn);
+            return rs.wasNull() ? -1 : lag;
+        } catch (Exception e) {
+            logger.debug("Lag check of replica {} failed: {}", name, e.getMessage());
+            return -1;
+        }
+    }
+
+    private static final class Replica {
+        volatile long lagSeconds = -1;
+        volatile boolean usable;
+    }
+}
@@ -0,0 +1,45 @@
+package com.codingplatform.datasource;
+
+import com.codingplatform.security.UserContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to a read replica and everything else to
+ * the primary.
+ *
+ * The choice is made when a connection is fetched, so this must sit
+ * behind a LazyConnectionDataSourceProxy: the transaction's read-only flag
+ * is only known once the transaction has started. Reads fall back to the
+ * primary when no replica is within the allowed lag, or when the current
+ * user wrote recently (see {@link ReadYourWritesTracker}).
+ *
+ * {@link Workload#BACKGROUND} work and {@link WorkloadContext#callOnPrimary}
+ * sections always read from the primary. They rebuild state that is later
+ * only patched by new events, so a lagging snapshot would lose the writes
+ * it missed until the next rebuild.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || WorkloadContext.current() == Workload.BACKGROUND
+                || WorkloadContext.isPrimaryRequired()
+                || readYourWrites.isSticky(UserContext.getCurrentUserId())) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.pick();
+        return replica != null ? replica : PRIMARY;
+    }
+}
@@ -0,0 +1,17 @@
+package com.codingplatform.datasource;
+
+/**
+ * Workloads with their own connection pool (bulkhead), so a spike in one
+ * cannot take connections from the others.
+ */
+public enum Workload {
+
+    /** Interactive read-only work: catalog, problem pages, history. */
+    CATALOG,
+
+    /** Interactive read-write work: submissions, signup and login. */
+    SUBMISSION,
+
+    /** Scheduled jobs, backfills, migrations and exports. */
+    BACKGROUND
+}
@@ -0,0 +1,82 @@
+package com.codingplatform.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * The workload explicitly assigned to the current thread, if any.
+ * Threads without one are routed by transaction type. Also marks code
+ * whose reads must not go to a read replica.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private WorkloadContext() {}
+
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run an action as the given workload, then restore the previous one.
+     * A null workload routes the action by transaction type.
+     */
+    public static <T> T callAs(Workload workload, Supplier<T> action) {
+        Workload previous = enter(workload);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(Workload workload, Runnable action) {
+        callAs(workload, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Whether the current thread is inside {@link #callOnPrimary}.
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    /**
+     * Run an action whose reads must see every committed write, e.g. a
+     * cache rebuild that later only applies new events on top. Like the
+     * workload, this only affects connections fetched inside the action.
+     */
+    public static <T> T callOnPrimary(Supplier<T> action) {
+        if (isPrimaryRequired()) {
+            return action.get();
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        if (workload == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(workload);
+        }
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.codingplatform.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes each connection request to one of the primary's per-workload
+ * pools: the thread's {@link WorkloadContext} if set, otherwise
+ * {@link Workload#CATALOG} for read-only transactions and
+ * {@link Workload#SUBMISSION} for everything else.
+ *
+ * Like {@link ReplicaRoutingDataSource} this must sit behind a
+ * LazyConnectionDataSourceProxy, so the choice is made once the
+ * transaction's read-only flag is known.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Workload workload = WorkloadContext.current();
+        if (workload != null) {
+            return workload;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Workload.CATALOG
+                : Workload.SUBMISSION;
+    }
+}
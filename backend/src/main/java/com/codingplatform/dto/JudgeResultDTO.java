@@ -2,6 +2,8 @@ package com.codingplatform.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 /**
  * DTO for judge service response.
  */
@@ -16,6 +18,17 @@ public class JudgeResultDTO {
 
     private String error;
 
+    /** Max CPU time (user + system) over the testcases that ran. */
+    @JsonProperty("time_ms")
+    private Integer timeMs;
+
+    /** Max peak RSS over the testcases that ran. */
+    @JsonProperty("memory_kb")
+    private Integer memoryKb;
+
+    @JsonProperty("testcase_results")
+    private List<TestcaseMeasurementDTO> testcaseResults;
+
     public JudgeResultDTO() {}
 
     // Getters and Setters
@@ -33,5 +46,35 @@ public class JudgeResultDTO {
 
     public String getError() { return error; }
     public void setError(String error) { this.error = error; }
-}
 
+    public Integer getTimeMs() { return timeMs; }
+    public void setTimeMs(Integer timeMs) { this.timeMs = timeMs; }
+
+    public Integer getMemoryKb() { return memoryKb; }
+    public void setMemoryKb(Integer memoryKb) { this.memoryKb = memoryKb; }
+
+    public List<TestcaseMeasurementDTO> getTestcaseResults() { return testcaseResults; }
+    public void setTestcaseResults(List<TestcaseMeasurementDTO> testcaseResults) { this.testcaseResults = testcaseResults; }
+
+    /**
+     * CPU time and peak RSS of one testcase run.
+     */
+    public static class TestcaseMeasurementDTO {
+        private int testId;
+
+        @JsonProperty("time_ms")
+        private Integer timeMs;
+
+        @JsonProperty("memory_kb")
+        private Integer memoryKb;
+
+        public int getTestId() { return testId; }
+        public void setTestId(int testId) { this.testId = testId; }
+
+        public Integer getTimeMs() { return timeMs; }
+        public void setTimeMs(Integer timeMs) { this.timeMs = timeMs; }
+
+        public Integer getMemoryKb() { return memoryKb; }
+        public void setMemoryKb(Integer memoryKb) { this.memoryKb = memoryKb; }
+    }
+}
@@ -0,0 +1,39 @@
+package com.codingplatform.dto;
+
+/**
+ * DTO for one leaderboard row. Ranks are 1-based.
+ */
+public class LeaderboardEntryDTO {
+
+    private long rank;
+    private Long userId;
+    private String name;
+    private int solved;
+    private long penalty;
+
+    public LeaderboardEntryDTO() {}
+
+    public LeaderboardEntryDTO(long rank, Long userId, String name, int solved, long penalty) {
+        this.rank = rank;
+        this.userId = userId;
+        this.name = name;
+        this.solved = solved;
+        this.penalty = penalty;
+    }
+
+    // Getters and Setters
+    public long getRank() { return rank; }
+    public void setRank(long rank) { this.rank = rank; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getSolved() { return solved; }
+    public void setSolved(int solved) { this.solved = solved; }
+
+    public long getPenalty() { return penalty; }
+    public void setPenalty(long penalty) { this.penalty = penalty; }
+}
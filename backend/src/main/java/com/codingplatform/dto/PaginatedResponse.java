@@ -1,5 +1,7 @@
 package com.codingplatform.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class PaginatedResponse<T> {
@@ -7,10 +9,14 @@ public class PaginatedResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
     
     public PaginatedResponse() {}
     
@@ -24,6 +30,18 @@ public class PaginatedResponse<T> {
         this.hasPrevious = page > 0;
     }
     
+    /**
+     * Keyset (cursor) page: no offsets and no total count.
+     * {@code nextCursor} is null on the last page.
+     */
+    public PaginatedResponse(List<T> content, int size, boolean hasPrevious, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = nextCursor != null;
+        this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+    }
+    
     // Getters and Setters
     public List<T> getContent() { return content; }
     public void setContent(List<T> content) { this.content = content; }
@@ -34,16 +52,19 @@ public class PaginatedResponse<T> {
     public int getSize() { return size; }
     public void setSize(int size) { this.size = size; }
     
-    public long getTotalElements() { return totalElements; }
-    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
     
-    public int getTotalPages() { return totalPages; }
-    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public Integer getTotalPages() { return totalPages; }
+    public void setTotalPages(Integer totalPages) { this.totalPages = totalPages; }
     
     public boolean isHasNext() { return hasNext; }
     public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
     
     public boolean isHasPrevious() { return hasPrevious; }
     public void setHasPrevious(boolean hasPrevious) { this.hasPrevious = hasPrevious; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
 
@@ -0,0 +1,42 @@
+package com.codingplatform.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a faceted problem search: one page of matches, the total
+ * match count and per-value counts for each facet.
+ */
+public class ProblemFacetsDTO {
+
+    private long total;
+    private List<ProblemListDTO> content;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    private Map<String, Map<String, Integer>> facets;
+
+    public ProblemFacetsDTO() {}
+
+    public ProblemFacetsDTO(long total, List<ProblemListDTO> content, String nextCursor,
+                            Map<String, Map<String, Integer>> facets) {
+        this.total = total;
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<ProblemListDTO> getContent() { return content; }
+    public void setContent(List<ProblemListDTO> content) { this.content = content; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+}
@@ -1,6 +1,8 @@
 package com.codingplatform.dto;
 
 import com.codingplatform.entity.Problem;
+import com.codingplatform.service.ProblemCatalog;
+import com.codingplatform.service.ProblemStatsService;
 
 /**
  * DTO for problem list view (lightweight).
@@ -13,6 +15,10 @@ public class ProblemListDTO {
     private String difficulty;
     private Integer timeLimit;
     private Integer memoryLimit;
+    private long totalSubmissions;
+    private long acceptedSubmissions;
+    private double acceptanceRate;
+    private long solvers;
 
     public ProblemListDTO() {}
 
@@ -25,6 +31,19 @@ public class ProblemListDTO {
         this.memoryLimit = problem.getMemoryLimit();
     }
 
+    public ProblemListDTO(ProblemCatalog.Entry entry, ProblemStatsService.ProblemCounts counts) {
+        this.id = entry.getId();
+        this.title = entry.getTitle();
+        this.category = entry.getCategory();
+        this.difficulty = entry.getDifficulty().name();
+        this.timeLimit = entry.getTimeLimit();
+        this.memoryLimit = entry.getMemoryLimit();
+        this.totalSubmissions = counts.getSubmissions();
+        this.acceptedSubmissions = counts.getAccepted();
+        this.acceptanceRate = counts.getAcceptanceRate();
+        this.solvers = counts.getSolvers();
+    }
+
     // Getters and Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -43,5 +62,16 @@ public class ProblemListDTO {
 
     public Integer getMemoryLimit() { return memoryLimit; }
     public void setMemoryLimit(Integer memoryLimit) { this.memoryLimit = memoryLimit; }
-}
 
+    public long getTotalSubmissions() { return totalSubmissions; }
+    public void setTotalSubmissions(long totalSubmissions) { this.totalSubmissions = totalSubmissions; }
+
+    public long getAcceptedSubmissions() { return acceptedSubmissions; }
+    public void setAcceptedSubmissions(long acceptedSubmissions) { this.acceptedSubmissions = acceptedSubmissions; }
+
+    public double getAcceptanceRate() { return acceptanceRate; }
+    public void setAcceptanceRate(double acceptanceRate) { this.acceptanceRate = acceptanceRate; }
+
+    public long getSolvers() { return solvers; }
+    public void setSolvers(long solvers) { this.solvers = solvers; }
+}
@@ -0,0 +1,51 @@
+package com.codingplatform.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one verdict in the live recent-submissions feed.
+ */
+public class RecentSubmissionDTO {
+
+    private long sequence;
+    private Long submissionId;
+    private String problemId;
+    private String problemTitle;
+    private String language;
+    private String status;
+    private LocalDateTime submittedAt;
+
+    public RecentSubmissionDTO() {}
+
+    public RecentSubmissionDTO(Long submissionId, String problemId, String problemTitle,
+                               String language, String status, LocalDateTime submittedAt) {
+        this.submissionId = submissionId;
+        this.problemId = problemId;
+        this.problemTitle = problemTitle;
+        this.language = language;
+        this.status = status;
+        this.submittedAt = submittedAt;
+    }
+
+    // Getters and Setters
+    public long getSequence() { return sequence; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public Long getSubmissionId() { return submissionId; }
+    public void setSubmissionId(Long submissionId) { this.submissionId = submissionId; }
+
+    public String getProblemId() { return problemId; }
+    public void setProblemId(String problemId) { this.problemId = problemId; }
+
+    public String getProblemTitle() { return problemTitle; }
+    public void setProblemTitle(String problemTitle) { this.problemTitle = problemTitle; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+}
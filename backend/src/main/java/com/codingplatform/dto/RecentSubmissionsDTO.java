@@ -0,0 +1,33 @@
+package com.codingplatform.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a read of the recent-submissions feed.
+ * Pass {@code cursor} back as {@code after} to get the next events;
+ * {@code gap} is set when events between the two reads were dropped.
+ */
+public class RecentSubmissionsDTO {
+
+    private List<RecentSubmissionDTO> events;
+    private long cursor;
+    private boolean gap;
+
+    public RecentSubmissionsDTO() {}
+
+    public RecentSubmissionsDTO(List<RecentSubmissionDTO> events, long cursor, boolean gap) {
+        this.events = events;
+        this.cursor = cursor;
+        this.gap = gap;
+    }
+
+    // Getters and Setters
+    public List<RecentSubmissionDTO> getEvents() { return events; }
+    public void setEvents(List<RecentSubmissionDTO> events) { this.events = events; }
+
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+
+    public boolean isGap() { return gap; }
+    public void setGap(boolean gap) { this.gap = gap; }
+}
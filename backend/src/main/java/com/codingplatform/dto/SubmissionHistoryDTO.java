@@ -1,5 +1,8 @@
 package com.codingplatform.dto;
 
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+
 import java.time.LocalDateTime;
 
 public class SubmissionHistoryDTO {
@@ -16,6 +19,23 @@ public class SubmissionHistoryDTO {
     
     public SubmissionHistoryDTO() {}
     
+    /**
+     * Projection constructor used by the history queries. The problem
+     * title is filled in afterwards from the catalog.
+     */
+    public SubmissionHistoryDTO(Long id, String problemId, Language language, SubmissionStatus status,
+                                String verdict, Integer passedTests, Integer totalTests,
+                                LocalDateTime submittedAt) {
+        this.id = id;
+        this.problemId = problemId;
+        this.language = language.name();
+        this.status = status.name();
+        this.verdict = verdict;
+        this.passedTests = passedTests != null ? passedTests : 0;
+        this.totalTests = totalTests != null ? totalTests : 0;
+        this.submittedAt = submittedAt;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
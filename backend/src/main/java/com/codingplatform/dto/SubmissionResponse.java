@@ -1,6 +1,7 @@
 package com.codingplatform.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO for submission response (verdict).
@@ -15,6 +16,11 @@ public class SubmissionResponse {
     private int total;
     private FailedTestDTO failedTest;
     private String error;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+    private List<JudgeResultDTO.TestcaseMeasurementDTO> testcaseResults;
+    private Double runtimeBeats;
+    private Double memoryBeats;
     private LocalDateTime timestamp;
 
     public SubmissionResponse() {
@@ -60,6 +66,9 @@ public class SubmissionResponse {
         response.total = judgeResult.getTotal();
         response.failedTest = judgeResult.getFailedTest();
         response.error = judgeResult.getError();
+        response.executionTimeMs = judgeResult.getTimeMs();
+        response.memoryUsedKb = judgeResult.getMemoryKb();
+        response.testcaseResults = judgeResult.getTestcaseResults();
         return response;
     }
 
@@ -88,6 +97,23 @@ public class SubmissionResponse {
     public String getError() { return error; }
     public void setError(String error) { this.error = error; }
 
+    public Integer getExecutionTimeMs() { return executionTimeMs; }
+    public void setExecutionTimeMs(Integer executionTimeMs) { this.executionTimeMs = executionTimeMs; }
+
+    public Integer getMemoryUsedKb() { return memoryUsedKb; }
+    public void setMemoryUsedKb(Integer memoryUsedKb) { this.memoryUsedKb = memoryUsedKb; }
+
+    public List<JudgeResultDTO.TestcaseMeasurementDTO> getTestcaseResults() { return testcaseResults; }
+    public void setTestcaseResults(List<JudgeResultDTO.TestcaseMeasurementDTO> testcaseResults) { this.testcaseResults = testcaseResults; }
+
+    /** Percentage of accepted submissions (same problem and language) with a higher CPU time. */
+    public Double getRuntimeBeats() { return runtimeBeats; }
+    public void setRuntimeBeats(Double runtimeBeats) { this.runtimeBeats = runtimeBeats; }
+
+    /** Percentage of accepted submissions (same problem and language) with a higher peak RSS. */
+    public Double getMemoryBeats() { return memoryBeats; }
+    public void setMemoryBeats(Double memoryBeats) { this.memoryBeats = memoryBeats; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 
@@ -0,0 +1,66 @@
+package com.codingplatform.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a user's progress over the problem catalog.
+ * {@code attempted} lists problems with judged submissions but no accept;
+ * every other problem not in {@code solved} is untouched.
+ */
+public class UserProgressDTO {
+
+    private int totalProblems;
+    private int solvedCount;
+    private int attemptedCount;
+    private Map<String, DifficultyProgress> byDifficulty;
+    private List<String> solved;
+    private List<String> attempted;
+
+    public UserProgressDTO() {}
+
+    // Getters and Setters
+    public int getTotalProblems() { return totalProblems; }
+    public void setTotalProblems(int totalProblems) { this.totalProblems = totalProblems; }
+
+    public int getSolvedCount() { return solvedCount; }
+    public void setSolvedCount(int solvedCount) { this.solvedCount = solvedCount; }
+
+    public int getAttemptedCount() { return attemptedCount; }
+    public void setAttemptedCount(int attemptedCount) { this.attemptedCount = attemptedCount; }
+
+    public Map<String, DifficultyProgress> getByDifficulty() { return byDifficulty; }
+    public void setByDifficulty(Map<String, DifficultyProgress> byDifficulty) { this.byDifficulty = byDifficulty; }
+
+    public List<String> getSolved() { return solved; }
+    public void setSolved(List<String> solved) { this.solved = solved; }
+
+    public List<String> getAttempted() { return attempted; }
+    public void setAttempted(List<String> attempted) { this.attempted = attempted; }
+
+    /**
+     * Counts for one difficulty.
+     */
+    public static class DifficultyProgress {
+        private int total;
+        private int solved;
+        private int attempted;
+
+        public DifficultyProgress() {}
+
+        public DifficultyProgress(int total, int solved, int attempted) {
+            this.total = total;
+            this.solved = solved;
+            this.attempted = attempted;
+        }
+
+        public int getTotal() { return total; }
+        public void setTotal(int total) { this.total = total; }
+
+        public int getSolved() { return solved; }
+        public void setSolved(int solved) { this.solved = solved; }
+
+        public int getAttempted() { return attempted; }
+        public void setAttempted(int attempted) { this.attempted = attempted; }
+    }
+}
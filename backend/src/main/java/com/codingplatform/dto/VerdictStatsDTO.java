@@ -0,0 +1,49 @@
+package com.codingplatform.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO for a verdict distribution: judged submissions per status for one
+ * time bucket, problem or language. Rates are percentages of the total.
+ */
+public class VerdictStatsDTO {
+
+    private String key;
+    private long total;
+    private Map<String, Long> counts = new LinkedHashMap<>();
+
+    public VerdictStatsDTO() {}
+
+    public VerdictStatsDTO(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Add submissions with the given status.
+     */
+    public void add(String status, long count) {
+        counts.merge(status, count, Long::sum);
+        total += count;
+    }
+
+    public double getAcceptanceRate() { return rate("ACCEPTED"); }
+
+    public double getTleRate() { return rate("TLE"); }
+
+    public double getCeRate() { return rate("CE"); }
+
+    private double rate(String status) {
+        return total == 0 ? 0.0 : Math.round(counts.getOrDefault(status, 0L) * 1000.0 / total) / 10.0;
+    }
+
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Long> getCounts() { return counts; }
+    public void setCounts(Map<String, Long> counts) { this.counts = counts; }
+}
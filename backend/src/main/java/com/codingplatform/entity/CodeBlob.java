@@ -0,0 +1,49 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * CodeBlob entity - maps to 'code_blobs' table in RDS.
+ * Content-addressed submission source: the key is the SHA-256 of the
+ * original code, the data is the encoded (compressed) blob.
+ */
+@Entity
+@Table(name = "code_blobs")
+public class CodeBlob {
+
+    @Id
+    @Column(name = "hash", columnDefinition = "CHAR(64)")
+    private String hash;
+
+    @Column(name = "data", columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] data;
+
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+
+    @Column(name = "stored_size", nullable = false)
+    private Integer storedSize;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public CodeBlob() {}
+
+    // Getters and Setters
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public Integer getOriginalSize() { return originalSize; }
+    public void setOriginalSize(Integer originalSize) { this.originalSize = originalSize; }
+
+    public Integer getStoredSize() { return storedSize; }
+    public void setStoredSize(Integer storedSize) { this.storedSize = storedSize; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,15 +1,21 @@
 package com.codingplatform.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Problem entity - maps to 'problems' table in RDS.
+ * Second-level cached read-only: problems are only written by the
+ * migration script, see CatalogCacheService for eviction.
  */
 @Entity
 @Table(name = "problems")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "catalog-problem")
 public class Problem {
 
     @Id
@@ -51,9 +57,11 @@ public class Problem {
     private LocalDateTime updatedAt;
 
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "catalog-problem-tags")
     private List<ProblemTag> tags = new ArrayList<>();
 
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "catalog-problem-testcases")
     private List<Testcase> testcases = new ArrayList<>();
 
     public enum Difficulty {
@@ -0,0 +1,90 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * ProblemStat entity - maps to 'problem_stats' table in RDS.
+ * Incrementally maintained submission counters per problem and language.
+ * The row with language {@value #ALL_LANGUAGES} aggregates every language.
+ */
+@Entity
+@Table(name = "problem_stats")
+public class ProblemStat {
+
+    public static final String ALL_LANGUAGES = "all";
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "submissions", nullable = false)
+    private Long submissions = 0L;
+
+    @Column(name = "accepted", nullable = false)
+    private Long accepted = 0L;
+
+    @Column(name = "solvers", nullable = false)
+    private Long solvers = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ProblemStat() {}
+
+    // Getters and Setters
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public Long getSubmissions() { return submissions; }
+    public void setSubmissions(Long submissions) { this.submissions = submissions; }
+
+    public Long getAccepted() { return accepted; }
+    public void setAccepted(Long accepted) { this.accepted = accepted; }
+
+    public Long getSolvers() { return solvers; }
+    public void setSolvers(Long solvers) { this.solvers = solvers; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    /**
+     * Composite key: (problem_id, language).
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "problem_id", length = 120)
+        private String problemId;
+
+        @Column(name = "language", length = 20)
+        private String language;
+
+        public Key() {}
+
+        public Key(String problemId, String language) {
+            this.problemId = problemId;
+            this.language = language;
+        }
+
+        public String getProblemId() { return problemId; }
+        public void setProblemId(String problemId) { this.problemId = problemId; }
+
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(problemId, key.problemId) && Objects.equals(language, key.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(problemId, language);
+        }
+    }
+}
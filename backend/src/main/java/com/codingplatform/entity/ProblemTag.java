@@ -1,12 +1,16 @@
 package com.codingplatform.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * ProblemTag entity - maps to 'problem_tags' table in RDS.
  */
 @Entity
 @Table(name = "problem_tags")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "catalog-problem-tag")
 public class ProblemTag {
 
     @Id
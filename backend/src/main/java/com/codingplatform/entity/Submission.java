@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 /**
  * Submission entity - maps to 'submissions' table in RDS.
- * Stores user code submissions and verdicts.
+ * Stores user code submissions and verdicts. The source itself lives in
+ * the code blob store, referenced by its SHA-256 hash.
  */
 @Entity
 @Table(name = "submissions")
@@ -27,8 +28,8 @@ public class Submission {
     @Column(name = "language", nullable = false)
     private Language language;
 
-    @Column(name = "code", columnDefinition = "TEXT", nullable = false)
-    private String code;
+    @Column(name = "code_hash", columnDefinition = "CHAR(64)")
+    private String codeHash;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
@@ -69,11 +70,11 @@ public class Submission {
         this.status = SubmissionStatus.QUEUED;
     }
 
-    public Submission(User user, Problem problem, Language language, String code) {
+    public Submission(User user, Problem problem, Language language, String codeHash) {
         this.user = user;
         this.problem = problem;
         this.language = language;
-        this.code = code;
+        this.codeHash = codeHash;
         this.submittedAt = LocalDateTime.now();
         this.status = SubmissionStatus.QUEUED;
     }
@@ -111,12 +112,12 @@ public class Submission {
         this.language = language;
     }
 
-    public String getCode() {
-        return code;
+    public String getCodeHash() {
+        return codeHash;
     }
 
-    public void setCode(String code) {
-        this.code = code;
+    public void setCodeHash(String codeHash) {
+        this.codeHash = codeHash;
     }
 
     public SubmissionStatus getStatus() {
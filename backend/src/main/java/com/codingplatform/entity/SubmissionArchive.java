@@ -0,0 +1,64 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * SubmissionArchive entity - maps to 'submission_archives' table in RDS.
+ * One row per monthly submissions partition moved to cold storage.
+ */
+@Entity
+@Table(name = "submission_archives")
+public class SubmissionArchive {
+
+    @Id
+    @Column(name = "partition_name", length = 16)
+    private String partitionName;
+
+    @Column(name = "object_key", nullable = false)
+    private String objectKey;
+
+    @Column(name = "range_end", nullable = false)
+    private LocalDateTime rangeEnd;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public SubmissionArchive() {}
+
+    public SubmissionArchive(String partitionName, String objectKey, LocalDateTime rangeEnd,
+                             long rowCount, long sizeBytes) {
+        this.partitionName = partitionName;
+        this.objectKey = objectKey;
+        this.rangeEnd = rangeEnd;
+        this.rowCount = rowCount;
+        this.sizeBytes = sizeBytes;
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getPartitionName() { return partitionName; }
+    public void setPartitionName(String partitionName) { this.partitionName = partitionName; }
+
+    public String getObjectKey() { return objectKey; }
+    public void setObjectKey(String objectKey) { this.objectKey = objectKey; }
+
+    public LocalDateTime getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(LocalDateTime rangeEnd) { this.rangeEnd = rangeEnd; }
+
+    public Long getRowCount() { return rowCount; }
+    public void setRowCount(Long rowCount) { this.rowCount = rowCount; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,106 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * SubmissionArchiveSegment entity - maps to 'submission_archive_segments' table in RDS.
+ * Byte range of one user's rows inside an archived partition file.
+ * Anonymous submissions are archived under user id 0.
+ */
+@Entity
+@Table(name = "submission_archive_segments")
+public class SubmissionArchiveSegment {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "byte_offset", nullable = false)
+    private Long byteOffset;
+
+    @Column(name = "byte_length", nullable = false)
+    private Integer byteLength;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @Column(name = "min_id", nullable = false)
+    private Long minId;
+
+    @Column(name = "max_id", nullable = false)
+    private Long maxId;
+
+    @Column(name = "min_submitted_at", nullable = false)
+    private LocalDateTime minSubmittedAt;
+
+    @Column(name = "max_submitted_at", nullable = false)
+    private LocalDateTime maxSubmittedAt;
+
+    // Constructors
+    public SubmissionArchiveSegment() {}
+
+    // Getters and Setters
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public Long getByteOffset() { return byteOffset; }
+    public void setByteOffset(Long byteOffset) { this.byteOffset = byteOffset; }
+
+    public Integer getByteLength() { return byteLength; }
+    public void setByteLength(Integer byteLength) { this.byteLength = byteLength; }
+
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+
+    public Long getMinId() { return minId; }
+    public void setMinId(Long minId) { this.minId = minId; }
+
+    public Long getMaxId() { return maxId; }
+    public void setMaxId(Long maxId) { this.maxId = maxId; }
+
+    public LocalDateTime getMinSubmittedAt() { return minSubmittedAt; }
+    public void setMinSubmittedAt(LocalDateTime minSubmittedAt) { this.minSubmittedAt = minSubmittedAt; }
+
+    public LocalDateTime getMaxSubmittedAt() { return maxSubmittedAt; }
+    public void setMaxSubmittedAt(LocalDateTime maxSubmittedAt) { this.maxSubmittedAt = maxSubmittedAt; }
+
+    /**
+     * Composite key: (user_id, partition_name).
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id")
+        private Long userId;
+
+        @Column(name = "partition_name", length = 16)
+        private String partitionName;
+
+        public Key() {}
+
+        public Key(Long userId, String partitionName) {
+            this.userId = userId;
+            this.partitionName = partitionName;
+        }
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public String getPartitionName() { return partitionName; }
+        public void setPartitionName(String partitionName) { this.partitionName = partitionName; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(partitionName, key.partitionName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, partitionName);
+        }
+    }
+}
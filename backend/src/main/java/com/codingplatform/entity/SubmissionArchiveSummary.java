@@ -0,0 +1,107 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * SubmissionArchiveSummary entity - maps to 'submission_archive_summaries' table in RDS.
+ * Judged submissions of one user for one problem and language in archived
+ * partitions. The row with language {@value #ALL_LANGUAGES} covers every
+ * language; its first accept and penalty are the leaderboard's. Anonymous
+ * submissions are summarized under user id 0. Written by the archive job
+ * only.
+ */
+@Entity
+@Table(name = "submission_archive_summaries")
+public class SubmissionArchiveSummary {
+
+    public static final String ALL_LANGUAGES = "all";
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "judged", nullable = false)
+    private Long judged;
+
+    @Column(name = "accepted", nullable = false)
+    private Long accepted;
+
+    @Column(name = "first_accepted_id")
+    private Long firstAcceptedId;
+
+    @Column(name = "failed_before_accept", nullable = false)
+    private Long failedBeforeAccept;
+
+    // Constructors
+    public SubmissionArchiveSummary() {}
+
+    // Getters and Setters
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public Long getJudged() { return judged; }
+    public void setJudged(Long judged) { this.judged = judged; }
+
+    public Long getAccepted() { return accepted; }
+    public void setAccepted(Long accepted) { this.accepted = accepted; }
+
+    public Long getFirstAcceptedId() { return firstAcceptedId; }
+    public void setFirstAcceptedId(Long firstAcceptedId) { this.firstAcceptedId = firstAcceptedId; }
+
+    public Long getFailedBeforeAccept() { return failedBeforeAccept; }
+    public void setFailedBeforeAccept(Long failedBeforeAccept) { this.failedBeforeAccept = failedBeforeAccept; }
+
+    /**
+     * Whether an archived submission was accepted.
+     */
+    public boolean isSolved() {
+        return firstAcceptedId != null;
+    }
+
+    /**
+     * Composite key: (user_id, problem_id, language).
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id")
+        private Long userId;
+
+        @Column(name = "problem_id", length = 120)
+        private String problemId;
+
+        @Column(name = "language", length = 20)
+        private String language;
+
+        public Key() {}
+
+        public Key(Long userId, String problemId, String language) {
+            this.userId = userId;
+            this.problemId = problemId;
+            this.language = language;
+        }
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public String getProblemId() { return problemId; }
+        public void setProblemId(String problemId) { this.problemId = problemId; }
+
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userId, key.userId) && Objects.equals(problemId, key.problemId)
+                    && Objects.equals(language, key.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, problemId, language);
+        }
+    }
+}
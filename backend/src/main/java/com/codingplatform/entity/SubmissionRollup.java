@@ -0,0 +1,99 @@
+package com.codingplatform.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * SubmissionRollup entity - maps to 'submission_rollups' table in RDS.
+ * Number of judged submissions in one hour or day bucket for a
+ * (problem, language, status) combination.
+ */
+@Entity
+@Table(name = "submission_rollups")
+public class SubmissionRollup {
+
+    public static final String HOUR = "hour";
+    public static final String DAY = "day";
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "submissions", nullable = false)
+    private Long submissions = 0L;
+
+    // Constructors
+    public SubmissionRollup() {}
+
+    // Getters and Setters
+    public Key getId() { return id; }
+    public void setId(Key id) { this.id = id; }
+
+    public Long getSubmissions() { return submissions; }
+    public void setSubmissions(Long submissions) { this.submissions = submissions; }
+
+    /**
+     * Composite key: (granularity, bucket_start, problem_id, language, status).
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "granularity", length = 8)
+        private String granularity;
+
+        @Column(name = "bucket_start", columnDefinition = "DATETIME")
+        private LocalDateTime bucketStart;
+
+        @Column(name = "problem_id", length = 120)
+        private String problemId;
+
+        @Column(name = "language", length = 20)
+        private String language;
+
+        @Column(name = "status", length = 20)
+        private String status;
+
+        public Key() {}
+
+        public Key(String granularity, LocalDateTime bucketStart, String problemId,
+                   String language, String status) {
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+            this.problemId = problemId;
+            this.language = language;
+            this.status = status;
+        }
+
+        public String getGranularity() { return granularity; }
+        public void setGranularity(String granularity) { this.granularity = granularity; }
+
+        public LocalDateTime getBucketStart() { return bucketStart; }
+        public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+        public String getProblemId() { return problemId; }
+        public void setProblemId(String problemId) { this.problemId = problemId; }
+
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(granularity, key.granularity)
+                    && Objects.equals(bucketStart, key.bucketStart)
+                    && Objects.equals(problemId, key.problemId)
+                    && Objects.equals(language, key.language)
+                    && Objects.equals(status, key.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, bucketStart, problemId, language, status);
+        }
+    }
+}
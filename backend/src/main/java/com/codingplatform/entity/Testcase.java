@@ -1,6 +1,8 @@
 package com.codingplatform.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 /**
@@ -9,6 +11,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "testcases")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "catalog-testcase")
 public class Testcase {
 
     @Id
@@ -0,0 +1,55 @@
+package com.codingplatform.event;
+
+import com.codingplatform.entity.Submission;
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a judge verdict has been persisted for a submission.
+ *
+ * Fired inside the submitting transaction: listeners that write to the
+ * database join it, listeners that update in-memory state should wait for
+ * the commit.
+ */
+public class SubmissionJudgedEvent {
+
+    private final Long submissionId;
+    private final Long userId;
+    private final String problemId;
+    private final Language language;
+    private final SubmissionStatus status;
+    private final LocalDateTime submittedAt;
+    private final Integer executionTimeMs;
+    private final Integer memoryUsedKb;
+
+    public SubmissionJudgedEvent(Submission submission) {
+        this.submissionId = submission.getId();
+        this.userId = submission.getUser() != null ? submission.getUser().getId() : null;
+        this.problemId = submission.getProblem().getId();
+        this.language = submission.getLanguage();
+        this.status = submission.getStatus();
+        this.submittedAt = submission.getSubmittedAt();
+        this.executionTimeMs = submission.getExecutionTimeMs();
+        this.memoryUsedKb = submission.getMemoryUsedKb();
+    }
+
+    public Long getSubmissionId() { return submissionId; }
+
+    public Long getUserId() { return userId; }
+
+    public String getProblemId() { return problemId; }
+
+    public Language getLanguage() { return language; }
+
+    public SubmissionStatus getStatus() { return status; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+    public Integer getExecutionTimeMs() { return executionTimeMs; }
+
+    public Integer getMemoryUsedKb() { return memoryUsedKb; }
+
+    public boolean isAccepted() { return status == SubmissionStatus.ACCEPTED; }
+}
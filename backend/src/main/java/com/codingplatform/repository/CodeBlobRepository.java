@@ -0,0 +1,28 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.CodeBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for CodeBlob entity.
+ */
+@Repository
+public interface CodeBlobRepository extends JpaRepository<CodeBlob, String> {
+
+    /**
+     * Insert a blob unless one with the same hash already exists.
+     * Blobs are immutable, so a concurrent duplicate insert is a no-op.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO code_blobs (hash, data, original_size, stored_size) " +
+            "VALUES (:hash, :data, :originalSize, :storedSize)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash,
+                       @Param("data") byte[] data,
+                       @Param("originalSize") int originalSize,
+                       @Param("storedSize") int storedSize);
+}
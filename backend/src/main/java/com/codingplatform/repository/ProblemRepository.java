@@ -52,6 +52,18 @@ public interface ProblemRepository extends JpaRepository<Problem, String> {
     @Query("SELECT p FROM Problem p JOIN p.tags t WHERE t.tag = :tag")
     List<Problem> findByTag(@Param("tag") String tag);
 
+    /**
+     * Cheap fingerprint of the catalog tables: one row of (problem count,
+     * latest problem update, tag count, max tag id, testcase count, max
+     * testcase id). The migration script bumps updated_at on every problem
+     * it upserts and re-inserts tags, so any run changes it.
+     */
+    @Query(value = "SELECT (SELECT COUNT(*) FROM problems), (SELECT MAX(updated_at) FROM problems), " +
+            "(SELECT COUNT(*) FROM problem_tags), (SELECT MAX(id) FROM problem_tags), " +
+            "(SELECT COUNT(*) FROM testcases), (SELECT MAX(id) FROM testcases)",
+            nativeQuery = true)
+    List<Object[]> findCatalogFingerprint();
+
     /**
      * Search problems by title.
      */
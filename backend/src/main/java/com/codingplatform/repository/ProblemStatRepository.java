@@ -0,0 +1,103 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.ProblemStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for ProblemStat entity.
+ */
+@Repository
+public interface ProblemStatRepository extends JpaRepository<ProblemStat, ProblemStat.Key> {
+
+    /**
+     * Find all counter rows for one language (or the 'all' aggregate).
+     */
+    @Query("SELECT ps FROM ProblemStat ps WHERE ps.id.language = :language")
+    List<ProblemStat> findByLanguage(@Param("language") String language);
+
+    /**
+     * Atomically add one judged submission to a counter row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO problem_stats (problem_id, language, submissions, accepted, solvers) " +
+            "VALUES (:problemId, :language, 1, :accepted, :solvers) " +
+            "ON DUPLICATE KEY UPDATE submissions = submissions + 1, " +
+            "accepted = accepted + VALUES(accepted), solvers = solvers + VALUES(solvers)",
+            nativeQuery = true)
+    int increment(@Param("problemId") String problemId,
+                  @Param("language") String language,
+                  @Param("accepted") int accepted,
+                  @Param("solvers") int solvers);
+
+    /**
+     * Ids of all problems, in the order the reconcile job walks them.
+     */
+    @Query(value = "SELECT id FROM problems ORDER BY id", nativeQuery = true)
+    List<String> findAllProblemIds();
+
+    /**
+     * Zero every counter row of a problem, before recomputing it; rows
+     * for languages with no submissions left stay at zero.
+     */
+    @Modifying
+    @Query(value = "UPDATE problem_stats SET submissions = 0, accepted = 0, solvers = 0 " +
+            "WHERE problem_id = :problemId",
+            nativeQuery = true)
+    int resetProblem(@Param("problemId") String problemId);
+
+    /*
+     * The reconcile queries below count judged submissions the way the
+     * live increment does: everything but internal errors, including rows
+     * without a verdict.
+     */
+
+    /**
+     * Recompute a problem's per-language counters from the submissions
+     * table plus the summaries of archived partitions.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO problem_stats (problem_id, language, submissions, accepted, solvers) " +
+            "SELECT t.problem_id, t.language, SUM(t.judged_count), SUM(t.accepted_count), " +
+            "COUNT(DISTINCT CASE WHEN t.accepted_count > 0 AND t.user_id <> 0 THEN t.user_id END) FROM (" +
+            "SELECT COALESCE(user_id, 0) AS user_id, problem_id, language, " +
+            "COUNT(*) AS judged_count, SUM(status = 'ACCEPTED') AS accepted_count " +
+            "FROM submissions WHERE problem_id = :problemId AND status NOT IN ('QUEUED', 'RUNNING') " +
+            "AND (verdict IS NULL OR verdict <> 'Error') " +
+            "GROUP BY COALESCE(user_id, 0), problem_id, language " +
+            "UNION ALL " +
+            "SELECT user_id, problem_id, language, judged, accepted " +
+            "FROM submission_archive_summaries WHERE problem_id = :problemId AND language <> 'all'" +
+            ") t GROUP BY t.problem_id, t.language " +
+            "ON DUPLICATE KEY UPDATE submissions = VALUES(submissions), " +
+            "accepted = VALUES(accepted), solvers = VALUES(solvers)",
+            nativeQuery = true)
+    int reconcileByLanguage(@Param("problemId") String problemId);
+
+    /**
+     * Recompute a problem's 'all' aggregate counters from the submissions
+     * table plus the summaries of archived partitions.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO problem_stats (problem_id, language, submissions, accepted, solvers) " +
+            "SELECT t.problem_id, 'all', SUM(t.judged_count), SUM(t.accepted_count), " +
+            "COUNT(DISTINCT CASE WHEN t.accepted_count > 0 AND t.user_id <> 0 THEN t.user_id END) FROM (" +
+            "SELECT COALESCE(user_id, 0) AS user_id, problem_id, " +
+            "COUNT(*) AS judged_count, SUM(status = 'ACCEPTED') AS accepted_count " +
+            "FROM submissions WHERE problem_id = :problemId AND status NOT IN ('QUEUED', 'RUNNING') " +
+            "AND (verdict IS NULL OR verdict <> 'Error') " +
+            "GROUP BY COALESCE(user_id, 0), problem_id " +
+            "UNION ALL " +
+            "SELECT user_id, problem_id, judged, accepted " +
+            "FROM submission_archive_summaries WHERE problem_id = :problemId AND language = 'all'" +
+            ") t GROUP BY t.problem_id " +
+            "ON DUPLICATE KEY UPDATE submissions = VALUES(submissions), " +
+            "accepted = VALUES(accepted), solvers = VALUES(solvers)",
+            nativeQuery = true)
+    int reconcileAllLanguages(@Param("problemId") String problemId);
+}
@@ -1,8 +1,11 @@
 package com.codingplatform.repository;
 
 import com.codingplatform.entity.ProblemTag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,10 +19,21 @@ public interface ProblemTagRepository extends JpaRepository<ProblemTag, Integer>
 
     /**
      * Find all tags for a problem.
+     * Query-cached in catalog-queries.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT pt.tag FROM ProblemTag pt WHERE pt.problem.id = :problemId")
     List<String> findTagsByProblemId(@Param("problemId") String problemId);
 
+    /**
+     * Get every (problem id, tag) pair, for building the catalog in one query.
+     */
+    @Query("SELECT pt.problem.id, pt.tag FROM ProblemTag pt")
+    List<Object[]> findAllProblemTagPairs();
+
     /**
      * Get all distinct tags.
      */
@@ -0,0 +1,42 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for RevokedToken entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Whether a token id is revoked and the token has not yet expired.
+     */
+    boolean existsByJtiAndExpiresAtAfter(String jti, LocalDateTime now);
+
+    /**
+     * Token ids of all revocations that are still in force.
+     */
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    /**
+     * Token ids revoked at or after the given time (and still in force).
+     */
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * Drop revocations whose tokens have expired anyway.
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.SubmissionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for SubmissionArchive entity.
+ */
+@Repository
+public interface SubmissionArchiveRepository extends JpaRepository<SubmissionArchive, String> {
+}
@@ -0,0 +1,47 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.SubmissionArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for SubmissionArchiveSegment entity.
+ */
+@Repository
+public interface SubmissionArchiveSegmentRepository
+        extends JpaRepository<SubmissionArchiveSegment, SubmissionArchiveSegment.Key> {
+
+    /**
+     * A user's archive segments that may hold rows older than the given
+     * time, newest partition first.
+     */
+    @Query("SELECT s FROM SubmissionArchiveSegment s WHERE s.id.userId = :userId " +
+           "AND s.minSubmittedAt <= :before ORDER BY s.maxSubmittedAt DESC")
+    List<SubmissionArchiveSegment> findByUserIdStartingBefore(@Param("userId") Long userId,
+                                                              @Param("before") LocalDateTime before);
+
+    /**
+     * All of a user's archive segments, newest partition first.
+     */
+    @Query("SELECT s FROM SubmissionArchiveSegment s WHERE s.id.userId = :userId ORDER BY s.maxSubmittedAt DESC")
+    List<SubmissionArchiveSegment> findByUserIdOrderByMaxSubmittedAtDesc(@Param("userId") Long userId);
+
+    /**
+     * The user's archive segment whose id range contains the given submission id.
+     */
+    @Query("SELECT s FROM SubmissionArchiveSegment s WHERE s.id.userId = :userId " +
+           "AND s.minId <= :submissionId AND s.maxId >= :submissionId")
+    List<SubmissionArchiveSegment> findByUserIdContaining(@Param("userId") Long userId,
+                                                          @Param("submissionId") Long submissionId);
+
+    /**
+     * Total archived rows of a user.
+     */
+    @Query("SELECT COALESCE(SUM(s.rowCount), 0) FROM SubmissionArchiveSegment s WHERE s.id.userId = :userId")
+    long sumRowCountByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,34 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.SubmissionArchiveSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for SubmissionArchiveSummary entity.
+ */
+@Repository
+public interface SubmissionArchiveSummaryRepository
+        extends JpaRepository<SubmissionArchiveSummary, SubmissionArchiveSummary.Key> {
+
+    /**
+     * A user's archived summaries for one language (or the 'all' aggregate).
+     */
+    @Query("SELECT s FROM SubmissionArchiveSummary s WHERE s.id.userId = :userId AND s.id.language = :language")
+    List<SubmissionArchiveSummary> findByUserIdAndLanguage(@Param("userId") Long userId,
+                                                           @Param("language") String language);
+
+    /**
+     * Whether the user has an archived accepted submission for the problem
+     * in a language (or in any, with the 'all' aggregate).
+     */
+    @Query("SELECT COUNT(s) > 0 FROM SubmissionArchiveSummary s WHERE s.id.userId = :userId " +
+           "AND s.id.problemId = :problemId AND s.id.language = :language AND s.accepted > 0")
+    boolean existsAccepted(@Param("userId") Long userId,
+                           @Param("problemId") String problemId,
+                           @Param("language") String language);
+}
@@ -1,13 +1,16 @@
 package com.codingplatform.repository;
 
+import com.codingplatform.dto.SubmissionHistoryDTO;
 import com.codingplatform.entity.Submission;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +20,67 @@ import java.util.Optional;
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
+    /*
+     * History queries below are DTO projections: they select only the
+     * columns the history view shows (no code TEXT, no problem join).
+     */
+
+    /**
+     * First page of a user's submissions, newest first (keyset order).
+     */
+    @Query("SELECT new com.codingplatform.dto.SubmissionHistoryDTO(" +
+           "s.id, s.problem.id, s.language, s.status, s.verdict, s.passedTests, s.totalTests, s.submittedAt) " +
+           "FROM Submission s WHERE s.user.id = :userId " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionHistoryDTO> findLatestByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Next page of a user's submissions, strictly after (submittedAt, id).
+     */
+    @Query("SELECT new com.codingplatform.dto.SubmissionHistoryDTO(" +
+           "s.id, s.problem.id, s.language, s.status, s.verdict, s.passedTests, s.totalTests, s.submittedAt) " +
+           "FROM Submission s WHERE s.user.id = :userId " +
+           "AND (s.submittedAt < :submittedAt OR (s.submittedAt = :submittedAt AND s.id < :id)) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionHistoryDTO> findByUserIdBefore(@Param("userId") Long userId,
+                                                  @Param("submittedAt") LocalDateTime submittedAt,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    /**
+     * First page of a user's submissions for a problem, newest first.
+     */
+    @Query("SELECT new com.codingplatform.dto.SubmissionHistoryDTO(" +
+           "s.id, s.problem.id, s.language, s.status, s.verdict, s.passedTests, s.totalTests, s.submittedAt) " +
+           "FROM Submission s WHERE s.user.id = :userId AND s.problem.id = :problemId " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionHistoryDTO> findLatestByUserIdAndProblemId(@Param("userId") Long userId,
+                                                              @Param("problemId") String problemId,
+                                                              Limit limit);
+
+    /**
+     * Next page of a user's submissions for a problem, strictly after (submittedAt, id).
+     */
+    @Query("SELECT new com.codingplatform.dto.SubmissionHistoryDTO(" +
+           "s.id, s.problem.id, s.language, s.status, s.verdict, s.passedTests, s.totalTests, s.submittedAt) " +
+           "FROM Submission s WHERE s.user.id = :userId AND s.problem.id = :problemId " +
+           "AND (s.submittedAt < :submittedAt OR (s.submittedAt = :submittedAt AND s.id < :id)) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionHistoryDTO> findByUserIdAndProblemIdBefore(@Param("userId") Long userId,
+                                                              @Param("problemId") String problemId,
+                                                              @Param("submittedAt") LocalDateTime submittedAt,
+                                                              @Param("id") Long id,
+                                                              Limit limit);
+
     /**
-     * Find all submissions for a user, ordered by submission time (descending).
+     * Count a user's submissions.
      */
-    Page<Submission> findByUserIdOrderBySubmittedAtDesc(Long userId, Pageable pageable);
+    long countByUserId(Long userId);
 
     /**
-     * Find all submissions for a user and problem, ordered by submission time
-     * (descending).
+     * Count a user's submissions for a problem.
      */
-    Page<Submission> findByUserIdAndProblemIdOrderBySubmittedAtDesc(
-            Long userId, String problemId, Pageable pageable);
+    long countByUserIdAndProblemId(Long userId, String problemId);
 
     /**
      * Find submission by ID and user ID (for security).
@@ -35,16 +88,135 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     Optional<Submission> findByIdAndUserId(Long id, Long userId);
 
     /**
-     * Find all testcases for a problem, ordered by testcase number.
+     * History view of one submission by ID and user ID (for security).
+     */
+    @Query("SELECT new com.codingplatform.dto.SubmissionHistoryDTO(" +
+           "s.id, s.problem.id, s.language, s.status, s.verdict, s.passedTests, s.totalTests, s.submittedAt) " +
+           "FROM Submission s WHERE s.id = :id AND s.user.id = :userId")
+    Optional<SubmissionHistoryDTO> findHistoryByIdAndUserId(@Param("id") Long id,
+                                                            @Param("userId") Long userId);
+
+    /**
+     * Code hash of a user's latest stored submission for a problem
+     * (the delta base for the next one).
+     */
+    @Query("SELECT s.codeHash FROM Submission s " +
+           "WHERE s.user.id = :userId AND s.problem.id = :problemId AND s.codeHash IS NOT NULL " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<String> findLatestCodeHashes(@Param("userId") Long userId,
+                                      @Param("problemId") String problemId,
+                                      Limit limit);
+
+    /**
+     * Whether the user has an accepted submission for the problem with a
+     * smaller id (i.e. the given submission is not the first accept).
+     */
+    boolean existsByUserIdAndProblemIdAndStatusAndIdLessThan(Long userId, String problemId,
+                                                             SubmissionStatus status, Long id);
+
+    /**
+     * Count judged, non-accepted submissions for a problem before the given id.
+     */
+    @Query("SELECT COUNT(s) FROM Submission s WHERE s.user.id = :userId AND s.problem.id = :problemId " +
+           "AND s.id < :id AND s.status IN :failed AND (s.verdict IS NULL OR s.verdict <> 'Error')")
+    long countFailedBefore(@Param("userId") Long userId,
+                           @Param("problemId") String problemId,
+                           @Param("id") Long id,
+                           @Param("failed") List<SubmissionStatus> failed);
+
+    /**
+     * Up to {@code limit} accepted submissions with an id of at least the
+     * given one, in id order: rows of (id, userId, problemId).
+     */
+    @Query("SELECT s.id, s.user.id, s.problem.id FROM Submission s " +
+           "WHERE s.id >= :id AND s.status = :accepted AND s.user IS NOT NULL ORDER BY s.id")
+    List<Object[]> findAcceptedFrom(@Param("id") Long id,
+                                    @Param("accepted") SubmissionStatus accepted,
+                                    Limit limit);
+
+    /**
+     * Ids of the accepted submissions with an id of at least the given one.
+     */
+    @Query("SELECT s.id FROM Submission s " +
+           "WHERE s.id >= :id AND s.status = :accepted AND s.user IS NOT NULL")
+    List<Long> findAcceptedIdsFrom(@Param("id") Long id,
+                                   @Param("accepted") SubmissionStatus accepted);
+
+    /**
+     * Lowest id of the submissions made at or after the given time, or
+     * null when there are none.
+     */
+    @Query("SELECT MIN(s.id) FROM Submission s WHERE s.submittedAt >= :since")
+    Long findMinIdSubmittedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Highest submission id, or 0 when there are none.
+     */
+    @Query("SELECT COALESCE(MAX(s.id), 0) FROM Submission s")
+    long findMaxId();
+
+    /**
+     * Leaderboard standings for every user with an accepted submission:
+     * rows of (user_id, solved, penalty), where penalty is the number of
+     * judged failures on each solved problem before its first accept.
+     * Archived partitions count through their 'all' summaries: a problem
+     * first solved there keeps its archived penalty, otherwise archived
+     * failures add to those before the first live accept.
+     */
+    @Query(value = "SELECT t.user_id, COUNT(*), SUM(t.failed) FROM (" +
+            "SELECT u.user_id, u.problem_id, SUM(u.archived_failed) + " +
+            "CASE WHEN MAX(u.archived_solved) = 1 THEN 0 ELSE SUM(u.live_failed) END AS failed FROM (" +
+            "SELECT user_id, problem_id, first_accepted_id IS NOT NULL AS archived_solved, " +
+            "failed_before_accept AS archived_failed, 0 AS live_solved, 0 AS live_failed " +
+            "FROM submission_archive_summaries WHERE language = 'all' AND user_id <> 0 " +
+            "UNION ALL " +
+            "SELECT s.user_id, s.problem_id, 0, 0, 1, SUM(s.status <> 'ACCEPTED' AND s.id < f.first_id) " +
+            "FROM submissions s JOIN (" +
+            "SELECT user_id, problem_id, MIN(id) AS first_id FROM submissions " +
+            "WHERE status = 'ACCEPTED' AND user_id IS NOT NULL GROUP BY user_id, problem_id" +
+            ") f ON s.user_id = f.user_id AND s.problem_id = f.problem_id " +
+            "WHERE s.status NOT IN ('QUEUED', 'RUNNING') AND (s.verdict IS NULL OR s.verdict <> 'Error') " +
+            "GROUP BY s.user_id, s.problem_id" +
+            ") u GROUP BY u.user_id, u.problem_id " +
+            "HAVING MAX(u.archived_solved) = 1 OR MAX(u.live_solved) = 1" +
+            ") t GROUP BY t.user_id",
+            nativeQuery = true)
+    List<Object[]> aggregateStandings();
+
+    /**
+     * Measured accepted submissions for a problem in one language:
+     * rows of (executionTimeMs, memoryUsedKb).
+     */
+    @Query("SELECT s.executionTimeMs, s.memoryUsedKb FROM Submission s " +
+           "WHERE s.problem.id = :problemId AND s.language = :language AND s.status = :accepted " +
+           "AND s.executionTimeMs IS NOT NULL AND s.memoryUsedKb IS NOT NULL")
+    List<Object[]> findAcceptedMeasurements(@Param("problemId") String problemId,
+                                            @Param("language") Language language,
+                                            @Param("accepted") SubmissionStatus accepted);
+
+    /**
+     * Check whether the user has another accepted submission for the problem.
+     */
+    boolean existsByUserIdAndProblemIdAndStatusAndIdNot(
+            Long userId, String problemId, SubmissionStatus status, Long id);
+
+    /**
+     * Check whether the user has another accepted submission for the problem in a language.
      */
-    @Query("SELECT t FROM Testcase t WHERE t.problem.id = :problemId ORDER BY t.testcaseNumber")
-    List<com.codingplatform.entity.Testcase> findByProblemIdOrdered(@Param("problemId") String problemId);
+    boolean existsByUserIdAndProblemIdAndLanguageAndStatusAndIdNot(
+            Long userId, String problemId, Language language, SubmissionStatus status, Long id);
 
     /**
-     * Find recent submissions (limit by @Query or Pageable).
+     * Per-problem progress of a user: (problemId, 1 if any judged submission
+     * was accepted else 0) for every problem with a judged submission.
      */
-    @Query("SELECT s FROM Submission s ORDER BY s.submittedAt DESC")
-    List<Submission> findRecentSubmissions();
+    @Query("SELECT s.problem.id, MAX(CASE WHEN s.status = :accepted THEN 1 ELSE 0 END) " +
+           "FROM Submission s WHERE s.user.id = :userId " +
+           "AND s.status NOT IN :pending AND (s.verdict IS NULL OR s.verdict <> 'Error') " +
+           "GROUP BY s.problem.id")
+    List<Object[]> findProblemProgressByUserId(@Param("userId") Long userId,
+                                               @Param("accepted") SubmissionStatus accepted,
+                                               @Param("pending") List<SubmissionStatus> pending);
 
     /**
      * Count accepted submissions for a problem.
@@ -0,0 +1,54 @@
+package com.codingplatform.repository;
+
+import com.codingplatform.entity.SubmissionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for SubmissionRollup entity.
+ * Aggregates return rows of [group key, status, count].
+ */
+@Repository
+public interface SubmissionRollupRepository extends JpaRepository<SubmissionRollup, SubmissionRollup.Key> {
+
+    /**
+     * Counts per bucket and status in [from, to), optionally for one problem and/or language.
+     */
+    @Query("SELECT r.id.bucketStart, r.id.status, SUM(r.submissions) FROM SubmissionRollup r " +
+           "WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+           "AND (:problemId IS NULL OR r.id.problemId = :problemId) " +
+           "AND (:language IS NULL OR r.id.language = :language) " +
+           "GROUP BY r.id.bucketStart, r.id.status ORDER BY r.id.bucketStart")
+    List<Object[]> sumByBucket(@Param("granularity") String granularity,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("problemId") String problemId,
+                               @Param("language") String language);
+
+    /**
+     * Counts per problem and status in [from, to).
+     */
+    @Query("SELECT r.id.problemId, r.id.status, SUM(r.submissions) FROM SubmissionRollup r " +
+           "WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+           "GROUP BY r.id.problemId, r.id.status")
+    List<Object[]> sumByProblem(@Param("granularity") String granularity,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    /**
+     * Counts per language and status in [from, to), optionally for one problem.
+     */
+    @Query("SELECT r.id.language, r.id.status, SUM(r.submissions) FROM SubmissionRollup r " +
+           "WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+           "AND (:problemId IS NULL OR r.id.problemId = :problemId) " +
+           "GROUP BY r.id.language, r.id.status")
+    List<Object[]> sumByLanguage(@Param("granularity") String granularity,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("problemId") String problemId);
+}
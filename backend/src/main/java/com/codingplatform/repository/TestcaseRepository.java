@@ -1,8 +1,11 @@
 package com.codingplatform.repository;
 
 import com.codingplatform.entity.Testcase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,13 +19,23 @@ public interface TestcaseRepository extends JpaRepository<Testcase, Integer> {
 
     /**
      * Find all testcases for a problem, ordered by testcase number.
+     * Query-cached in catalog-queries.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT t FROM Testcase t WHERE t.problem.id = :problemId ORDER BY t.testcaseNumber")
     List<Testcase> findByProblemIdOrdered(@Param("problemId") String problemId);
 
     /**
      * Find sample testcases for a problem (for display in UI).
+     * Query-cached in catalog-queries.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
     @Query("SELECT t FROM Testcase t WHERE t.problem.id = :problemId AND t.isSample = true ORDER BY t.testcaseNumber")
     List<Testcase> findSamplesByProblemId(@Param("problemId") String problemId);
 
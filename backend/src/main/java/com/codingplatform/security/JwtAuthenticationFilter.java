@@ -1,6 +1,7 @@
 package com.codingplatform.security;
 
 import com.codingplatform.service.JwtService;
+import com.codingplatform.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +20,11 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
     
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationService revocationService) {
         this.jwtService = jwtService;
+        this.revocationService = revocationService;
     }
     
     @Override
@@ -38,23 +41,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         String token = authHeader.substring(7);
         
+        // One signature check per token; repeat requests hit the verified-token cache.
+        // Revoked (logged out) tokens are treated as anonymous.
         try {
-            if (jwtService.isTokenValid(token)) {
-                Long userId = jwtService.extractUserId(token);
-                String email = jwtService.extractEmail(token);
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        userId,
-                        null,
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                    );
-                
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            jwtService.verify(token)
+                    .filter(verified -> !revocationService.isRevoked(verified.getTokenId()))
+                    .ifPresent(verified -> {
+                        UsernamePasswordAuthenticationToken authentication = 
+                            new UsernamePasswordAuthenticationToken(
+                                verified.getUserId(),
+                                null,
+                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                            );
+                        
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    });
         } catch (Exception e) {
-            // Token invalid, continue without authentication
+            // e.g. the revocation lookup failed; continue without authentication
+            logger.warn("Could not authenticate bearer token: " + e.getMessage());
         }
         
         filterChain.doFilter(request, response);
@@ -0,0 +1,143 @@
+package com.codingplatform.security;
+
+import com.codingplatform.config.RateLimitConfig;
+import com.codingplatform.config.WarmupConfig;
+import com.codingplatform.util.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-route-group request budgets, applied after JWT authentication.
+ *
+ * Authenticated requests are counted per user id, anonymous ones per client
+ * IP. Behind nginx the container resolves that IP from X-Forwarded-For
+ * (server.forward-headers-strategy), so proxied clients are not all counted
+ * against the proxy's address. Every limited response carries RateLimit-Limit, RateLimit-Remaining,
+ * RateLimit-Reset and RateLimit-Policy headers (IETF RateLimit header
+ * fields draft); rejected requests get 429 with Retry-After. Startup
+ * warmup's loopback requests, which carry this process's warmup token, are
+ * not limited.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<Group> groups;
+    private final String warmupToken;
+
+    @Autowired
+    public RateLimitFilter(RateLimitConfig config, WarmupConfig warmupConfig) {
+        this(config.isEnabled(), config.getPolicies(), config.getMaxKeys(), warmupConfig.getRequestToken());
+    }
+
+    public RateLimitFilter(boolean enabled, List<RateLimitConfig.Policy> policies, long maxKeys) {
+        this(enabled, policies, maxKeys, null);
+    }
+
+    public RateLimitFilter(boolean enabled, List<RateLimitConfig.Policy> policies, long maxKeys,
+                           String warmupToken) {
+        this.enabled = enabled;
+        this.groups = policies.stream()
+                .map(policy -> new Group(policy, maxKeys))
+                .toList();
+        this.warmupToken = warmupToken;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        Group group = enabled && !"OPTIONS".equals(request.getMethod()) && !isWarmup(request)
+                ? match(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Decision decision = group.limiter.tryAcquire(clientKey(request));
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+        response.setHeader("RateLimit-Policy", group.policyHeader);
+
+        if (!decision.isAllowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":\"error\",\"message\":\"Rate limit exceeded\",\"timestamp\":\""
+                    + LocalDateTime.now() + "\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Group match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Group group : groups) {
+            for (PathPattern pattern : group.patterns) {
+                if (pattern.matches(path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isWarmup(HttpServletRequest request) {
+        if (warmupToken == null || !warmupToken.equals(request.getHeader(WarmupConfig.TOKEN_HEADER))) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                && authentication.getPrincipal() instanceof Long userId) {
+            return "u:" + userId;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static final class Group {
+        private final List<PathPattern> patterns;
+        private final RateLimiter limiter;
+        private final String policyHeader;
+
+        Group(RateLimitConfig.Policy policy, long maxKeys) {
+            this.patterns = policy.getPaths().stream()
+                    .map(String::trim)
+                    .map(PathPatternParser.defaultInstance::parse)
+                    .toList();
+            this.limiter = new RateLimiter(policy.getLimit(), policy.getWindow(), maxKeys);
+            this.policyHeader = policy.getLimit() + ";w=" + policy.getWindow().toSeconds();
+        }
+    }
+}
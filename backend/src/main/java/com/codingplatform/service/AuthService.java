@@ -7,36 +7,46 @@ import com.codingplatform.entity.User;
 import com.codingplatform.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Signup and login.
+ *
+ * Password hashing runs on {@link PasswordHashingService}'s bounded pool,
+ * outside any transaction, so no database connection is held while a hash
+ * waits or runs.
+ */
 @Service
 public class AuthService {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     
     public AuthService(UserRepository userRepository, 
-                      PasswordEncoder passwordEncoder,
+                      PasswordHashingService passwordHashingService,
                       JwtService jwtService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
     }
     
-    @Transactional
     public AuthResponse signup(SignupRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email already exists");
         }
         
-        String passwordHash = passwordEncoder.encode(request.getPassword());
+        String passwordHash = passwordHashingService.encode(request.getPassword());
         User user = new User(request.getEmail(), passwordHash);
-        user = userRepository.save(user);
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // concurrent signup with the same email
+            throw new IllegalArgumentException("Email already exists");
+        }
         
         String token = jwtService.generateToken(user.getId(), user.getEmail());
         logger.info("User signed up: {}", user.getEmail());
@@ -48,10 +58,16 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid email or password");
         }
         
+        // Re-hash with the configured work factor after it was raised
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+        }
+        
         String token = jwtService.generateToken(user.getId(), user.getEmail());
         logger.info("User logged in: {}", user.getEmail());
         
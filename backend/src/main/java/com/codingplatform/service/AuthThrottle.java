@@ -0,0 +1,80 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.AuthConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-IP and per-(IP, email) attempt limits for login and signup.
+ *
+ * Each key gets a fixed one-minute window starting at its first attempt.
+ * The checks run before any password hashing, so a credential-stuffing run
+ * is turned away without spending BCrypt time on it. The account limit is
+ * keyed on the client address too: counted per email alone, anyone could
+ * lock an account out by sending bad attempts for it. Guessing one
+ * account from many addresses is bounded by the per-IP limit and the
+ * BCrypt cost instead. The client address is the request's remote
+ * address, which the container resolves from X-Forwarded-For behind a
+ * trusted proxy. Counts are per instance.
+ */
+@Service
+public class AuthThrottle {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final int perIpLimit;
+    private final int perAccountLimit;
+
+    private final Cache<String, AtomicInteger> ipAttempts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(WINDOW)
+            .build();
+
+    private final Cache<String, AtomicInteger> accountAttempts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(WINDOW)
+            .build();
+
+    public AuthThrottle(AuthConfig config) {
+        this.perIpLimit = config.getPerIpPerMinute();
+        this.perAccountLimit = config.getPerEmailPerMinute();
+    }
+
+    /**
+     * Count an attempt from this client address, and from it for this email.
+     *
+     * @throws ThrottledException if either limit is exceeded in the current window
+     */
+    public void acquire(String clientIp, String email) {
+        if (clientIp != null && count(ipAttempts, clientIp) > perIpLimit) {
+            throw new ThrottledException("Too many attempts from this address", WINDOW.toSeconds());
+        }
+        if (email != null
+                && count(accountAttempts, clientIp + "|" + email.trim().toLowerCase(Locale.ROOT)) > perAccountLimit) {
+            throw new ThrottledException("Too many attempts for this account", WINDOW.toSeconds());
+        }
+    }
+
+    private static int count(Cache<String, AtomicInteger> attempts, String key) {
+        // get() only inserts on the first attempt, so the window is not extended
+        return attempts.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public static class ThrottledException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public ThrottledException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.codingplatform.service;
+
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.entity.Problem;
+import com.codingplatform.entity.ProblemTag;
+import com.codingplatform.entity.Testcase;
+import com.codingplatform.repository.ProblemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for the Hibernate second-level cache of catalog entities.
+ *
+ * Problems, tags and testcases (and the problem collections and catalog
+ * queries) are cached read-only, since only the migration script writes
+ * them and it bypasses Hibernate. A periodic fingerprint check of the
+ * catalog tables notices a migration run and evicts everything; the
+ * explicit evict methods are for callers that know what changed. Each
+ * eviction also refreshes the in-memory catalog and testcase caches.
+ */
+@Service
+public class CatalogCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCacheService.class);
+
+    public static final String QUERY_REGION = "catalog-queries";
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            "catalog-problem", "catalog-problem-tags", "catalog-problem-testcases",
+            "catalog-problem-tag", "catalog-testcase");
+
+    private final SessionFactory sessionFactory;
+    private final ProblemRepository problemRepository;
+    private final ProblemCatalog problemCatalog;
+    private final TestcaseCacheService testcaseCacheService;
+
+    private volatile String fingerprint;
+
+    public CatalogCacheService(EntityManagerFactory entityManagerFactory,
+                               ProblemRepository problemRepository,
+                               ProblemCatalog problemCatalog,
+                               TestcaseCacheService testcaseCacheService) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.problemRepository = problemRepository;
+        this.problemCatalog = problemCatalog;
+        this.testcaseCacheService = testcaseCacheService;
+    }
+
+    /**
+     * Evict one problem, its collections and all cached catalog queries.
+     * Tag and testcase rows are evicted wholesale, since they are cached
+     * by their own ids.
+     */
+    public void evictProblem(String problemId) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Problem.class, problemId);
+        cache.evictCollectionData(Problem.class.getName() + ".tags", problemId);
+        cache.evictCollectionData(Problem.class.getName() + ".testcases", problemId);
+        cache.evictEntityData(ProblemTag.class);
+        cache.evictEntityData(Testcase.class);
+        cache.evictQueryRegion(QUERY_REGION);
+
+        testcaseCacheService.evict(problemId);
+        problemCatalog.reload();
+        logger.info("Evicted cached catalog data for problem {}", problemId);
+    }
+
+    /**
+     * Evict every cached catalog entity, collection and query.
+     */
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Problem.class);
+        cache.evictEntityData(ProblemTag.class);
+        cache.evictEntityData(Testcase.class);
+        cache.evictCollectionData(Problem.class.getName() + ".tags");
+        cache.evictCollectionData(Problem.class.getName() + ".testcases");
+        cache.evictQueryRegion(QUERY_REGION);
+
+        testcaseCacheService.evictAll();
+        problemCatalog.reload();
+        logger.info("Evicted all cached catalog data");
+    }
+
+    /**
+     * Evict everything if the catalog tables changed since the last check.
+     * The first check only records the fingerprint.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${catalog.change-check-interval-ms:60000}",
+               initialDelayString = "${catalog.change-check-interval-ms:60000}")
+    public void checkForChanges() {
+        List<Object[]> rows = problemRepository.findCatalogFingerprint();
+        String current = rows.isEmpty() ? "" : Arrays.toString(rows.get(0));
+        String previous = fingerprint;
+        fingerprint = current;
+        if (previous != null && !previous.equals(current)) {
+            logger.info("Catalog tables changed, evicting cached catalog data");
+            evictAll();
+        }
+    }
+
+    /**
+     * Hits, misses, puts and hit ratio per catalog cache region.
+     * Counts are kept only with hibernate.generate_statistics enabled.
+     */
+    public Map<String, RegionStats> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStats> result = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            result.put(region, RegionStats.of(statistics.getDomainDataRegionStatistics(region)));
+        }
+        result.put(QUERY_REGION, RegionStats.of(statistics.getQueryRegionStatistics(QUERY_REGION)));
+        return result;
+    }
+
+    /**
+     * Counters for one cache region.
+     */
+    public static final class RegionStats {
+        private static final RegionStats EMPTY = new RegionStats(0, 0, 0);
+
+        private final long hits;
+        private final long misses;
+        private final long puts;
+
+        public RegionStats(long hits, long misses, long puts) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+        }
+
+        static RegionStats of(CacheRegionStatistics statistics) {
+            return statistics == null ? EMPTY
+                    : new RegionStats(statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount());
+        }
+
+        public long getHits() { return hits; }
+
+        public long getMisses() { return misses; }
+
+        public long getPuts() { return puts; }
+
+        /**
+         * Hits / (hits + misses), 0 before the first lookup.
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
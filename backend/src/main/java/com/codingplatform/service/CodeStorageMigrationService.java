@@ -0,0 +1,113 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.CodeStorageConfig;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.datasource.WorkloadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration of inline submission code into the blob store.
+ *
+ * Enabled with code-storage.migration.enabled after running
+ * scripts/migration_code_blobs.sql. Rows that still have inline code are
+ * moved in id order, one batch per transaction: the code is stored, the
+ * row gets its code_hash and the inline column is cleared. Id order means
+ * a user's earlier submissions are stored first and serve as delta bases
+ * for later ones. The job runs on its own thread and is safe to restart.
+ */
+@Service
+public class CodeStorageMigrationService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodeStorageMigrationService.class);
+
+    private final CodeStorageConfig config;
+    private final CodeStorageService codeStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CodeStorageMigrationService(CodeStorageConfig config,
+                                       CodeStorageService codeStorageService,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate) {
+        this.config = config;
+        this.codeStorageService = codeStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isMigrationEnabled()) {
+            Thread thread = new Thread(() -> WorkloadContext.runAs(Workload.BACKGROUND, this::migrate),
+                    "code-blob-migration");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Move all remaining inline code into the blob store.
+     */
+    public void migrate() {
+        long start = System.currentTimeMillis();
+        long migrated = 0;
+        long lastId = 0;
+        logger.info("Code blob migration started");
+
+        try {
+            while (true) {
+                List<InlineCode> batch = jdbcTemplate.query(
+                        "SELECT id, user_id, problem_id, code FROM submissions " +
+                        "WHERE id > ? AND code_hash IS NULL AND code IS NOT NULL ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new InlineCode(
+                                rs.getLong("id"),
+                                rs.getObject("user_id", Long.class),
+                                rs.getString("problem_id"),
+                                rs.getString("code")),
+                        lastId, config.getMigrationBatchSize());
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (InlineCode row : batch) {
+                        String hash = codeStorageService.store(row.userId, row.problemId, row.code);
+                        jdbcTemplate.update(
+                                "UPDATE submissions SET code_hash = ?, code = NULL WHERE id = ?",
+                                hash, row.id);
+                    }
+                });
+
+                migrated += batch.size();
+                lastId = batch.get(batch.size() - 1).id;
+                logger.info("Code blob migration: {} rows moved (last id {})", migrated, lastId);
+            }
+            logger.info("Code blob migration finished: {} rows in {} ms",
+                    migrated, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Code blob migration stopped after {} rows: {}", migrated, e.getMessage());
+        }
+    }
+
+    private static final class InlineCode {
+        private final long id;
+        private final Long userId;
+        private final String problemId;
+        private final String code;
+
+        InlineCode(long id, Long userId, String problemId, String code) {
+            this.id = id;
+            this.userId = userId;
+            this.problemId = problemId;
+            this.code = code;
+        }
+    }
+}
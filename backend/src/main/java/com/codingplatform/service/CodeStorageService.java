@@ -0,0 +1,122 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.CodeStorageConfig;
+import com.codingplatform.repository.SubmissionRepository;
+import com.codingplatform.storage.CodeBlobCodec;
+import com.codingplatform.storage.CodeBlobStore;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Service for submission source code.
+ *
+ * Code is stored once per distinct content, keyed by its SHA-256, and
+ * zstd-compressed. When the same user has submitted the problem before,
+ * the code is also encoded as a delta against that previous submission
+ * and the smaller encoding wins. Delta chains are capped so a read never
+ * decodes more than a few blobs.
+ */
+@Service
+public class CodeStorageService {
+
+    private final CodeBlobStore codeBlobStore;
+    private final SubmissionRepository submissionRepository;
+    private final CodeStorageConfig config;
+
+    public CodeStorageService(CodeBlobStore codeBlobStore,
+                              SubmissionRepository submissionRepository,
+                              CodeStorageConfig config) {
+        this.codeBlobStore = codeBlobStore;
+        this.submissionRepository = submissionRepository;
+        this.config = config;
+    }
+
+    /**
+     * Store code and return its hash.
+     *
+     * @param userId    submitting user, or null
+     * @param problemId problem the code was submitted for
+     */
+    public String store(Long userId, String problemId, String code) {
+        byte[] raw = code.getBytes(StandardCharsets.UTF_8);
+        String hash = hash(raw);
+        if (codeBlobStore.exists(hash)) {
+            return hash;
+        }
+
+        byte[] blob = CodeBlobCodec.encode(raw, config.getCompressionLevel());
+        if (config.isDeltaEnabled() && userId != null) {
+            byte[] delta = encodeDelta(raw, userId, problemId);
+            if (delta != null && delta.length < blob.length) {
+                blob = delta;
+            }
+        }
+
+        codeBlobStore.put(hash, blob, raw.length);
+        return hash;
+    }
+
+    /**
+     * Load code by hash.
+     *
+     * @throws CodeStorageException if the blob or one of its bases is missing
+     */
+    public String load(String hash) {
+        return new String(loadBytes(hash), StandardCharsets.UTF_8);
+    }
+
+    private byte[] loadBytes(String hash) {
+        byte[] blob = codeBlobStore.get(hash);
+        if (blob == null) {
+            throw new CodeStorageException("Code blob not found: " + hash);
+        }
+        CodeBlobCodec.Header header = CodeBlobCodec.readHeader(blob);
+        byte[] base = header.isDelta() ? loadBytes(header.getBaseHash()) : null;
+        return CodeBlobCodec.decode(blob, base);
+    }
+
+    /**
+     * Encode against the user's latest code for the problem, or return
+     * null if there is none or its chain is already at the cap.
+     */
+    private byte[] encodeDelta(byte[] raw, Long userId, String problemId) {
+        List<String> previous = submissionRepository.findLatestCodeHashes(userId, problemId, Limit.of(1));
+        if (previous.isEmpty()) {
+            return null;
+        }
+        String baseHash = previous.get(0);
+        byte[] baseBlob = codeBlobStore.get(baseHash);
+        if (baseBlob == null) {
+            return null;
+        }
+        int depth = CodeBlobCodec.readHeader(baseBlob).getDepth() + 1;
+        if (depth > config.getMaxDeltaChain()) {
+            return null;
+        }
+        byte[] base = loadBytes(baseHash);
+        return CodeBlobCodec.encodeDelta(raw, base, baseHash, depth, config.getCompressionLevel());
+    }
+
+    static String hash(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Custom exception for code storage errors.
+     */
+    public static class CodeStorageException extends RuntimeException {
+        public CodeStorageException(String message) {
+            super(message);
+        }
+    }
+}
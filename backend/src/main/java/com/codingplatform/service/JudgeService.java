@@ -1,6 +1,7 @@
 package com.codingplatform.service;
 
 import com.codingplatform.config.JudgeConfig;
+import com.codingplatform.datasource.ReadYourWritesTracker;
 import com.codingplatform.dto.JudgeResultDTO;
 import com.codingplatform.dto.SubmissionRequest;
 import com.codingplatform.dto.SubmissionResponse;
@@ -9,14 +10,15 @@ import com.codingplatform.entity.Problem;
 import com.codingplatform.entity.Submission;
 import com.codingplatform.entity.Submission.Language;
 import com.codingplatform.entity.Submission.SubmissionStatus;
-import com.codingplatform.entity.Testcase;
 import com.codingplatform.entity.User;
+import com.codingplatform.event.SubmissionJudgedEvent;
 import com.codingplatform.repository.ProblemRepository;
 import com.codingplatform.repository.SubmissionRepository;
-import com.codingplatform.repository.TestcaseRepository;
 import com.codingplatform.repository.UserRepository;
+import com.codingplatform.service.SubmissionMetrics.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,7 +30,6 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Service for code submission and judging.
@@ -42,29 +43,42 @@ public class JudgeService {
     private final RestTemplate restTemplate;
     private final JudgeConfig judgeConfig;
     private final ProblemRepository problemRepository;
-    private final TestcaseRepository testcaseRepository;
     private final SubmissionRepository submissionRepository;
-    private final S3Service s3Service;
+    private final TestcaseCacheService testcaseCacheService;
     private final UserRepository userRepository;
+    private final CodeStorageService codeStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionMetrics metrics;
+    private final PerformanceDistributionService performanceDistributionService;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     public JudgeService(RestTemplate restTemplate,
                         JudgeConfig judgeConfig,
                         ProblemRepository problemRepository,
-                        TestcaseRepository testcaseRepository,
                         SubmissionRepository submissionRepository,
-                        S3Service s3Service,
-                        UserRepository userRepository) {
+                        TestcaseCacheService testcaseCacheService,
+                        UserRepository userRepository,
+                        CodeStorageService codeStorageService,
+                        ApplicationEventPublisher eventPublisher,
+                        SubmissionMetrics metrics,
+                        PerformanceDistributionService performanceDistributionService,
+                        ReadYourWritesTracker readYourWritesTracker) {
         this.restTemplate = restTemplate;
         this.judgeConfig = judgeConfig;
         this.problemRepository = problemRepository;
-        this.testcaseRepository = testcaseRepository;
         this.submissionRepository = submissionRepository;
-        this.s3Service = s3Service;
+        this.testcaseCacheService = testcaseCacheService;
         this.userRepository = userRepository;
+        this.codeStorageService = codeStorageService;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.performanceDistributionService = performanceDistributionService;
+        this.readYourWritesTracker = readYourWritesTracker;
     }
 
     /**
      * Submit code for evaluation.
+     * Each stage is timed in {@link SubmissionMetrics}.
      */
     @Transactional
     public SubmissionResponse submitCode(SubmissionRequest request, Long userId) {
@@ -91,32 +105,33 @@ public class JudgeService {
             throw new JudgeServiceException("Unsupported language: " + languageStr);
         }
 
-        // Create submission record with QUEUED status
-        Submission submission = new Submission(user, problem, language, code);
-        submission.setStatus(SubmissionStatus.QUEUED);
-        submission = submissionRepository.save(submission);
+        Problem.Difficulty difficulty = problem.getDifficulty();
+
+        // Store code (content-addressed) and create submission record with QUEUED status
+        String codeHash = metrics.time(Stage.CODE_STORE, language, difficulty,
+                () -> codeStorageService.store(userId, problemId, code));
+        Submission queued = new Submission(user, problem, language, codeHash);
+        queued.setStatus(SubmissionStatus.QUEUED);
+        Submission submission = metrics.time(Stage.DB_INSERT, language, difficulty,
+                () -> submissionRepository.save(queued));
+        // The user's next reads (history, progress) go to the primary until replicas catch up
+        readYourWritesTracker.markWrite(userId);
 
         try {
             // Update status to RUNNING
             submission.setStatus(SubmissionStatus.RUNNING);
             submissionRepository.save(submission);
 
-            // Fetch testcases from S3
-            List<Testcase> testcases = testcaseRepository.findByProblemIdOrdered(problemId);
-            if (testcases.isEmpty()) {
+            // Fetch testcases (cached, loaded from S3 on miss)
+            List<TestcaseDTO> testcaseDTOs = metrics.time(Stage.TESTCASE_LOOKUP, language, difficulty,
+                    () -> testcaseCacheService.getTestcases(problemId));
+            if (testcaseDTOs.isEmpty()) {
                 throw new JudgeServiceException("No testcases found for problem: " + problemId);
             }
 
-            List<TestcaseDTO> testcaseDTOs = testcases.stream()
-                    .map(tc -> {
-                        String input = s3Service.getFileContent(tc.getS3InputKey());
-                        String expectedOutput = s3Service.getFileContent(tc.getS3OutputKey());
-                        return new TestcaseDTO(tc.getTestcaseNumber(), input, expectedOutput);
-                    })
-                    .collect(Collectors.toList());
-
             // Send to judge service
-            JudgeResultDTO judgeResult = callJudgeService(languageStr, code, testcaseDTOs);
+            JudgeResultDTO judgeResult = metrics.time(Stage.JUDGE_CALL, language, difficulty,
+                    () -> callJudgeService(languageStr, code, testcaseDTOs));
 
             // Map judge verdict to status
             SubmissionStatus finalStatus = mapVerdictToStatus(judgeResult.getVerdict());
@@ -126,13 +141,33 @@ public class JudgeService {
             submission.setVerdict(judgeResult.getVerdict());
             submission.setPassedTests(judgeResult.getPassed());
             submission.setTotalTests(judgeResult.getTotal());
+            submission.setExecutionTimeMs(judgeResult.getTimeMs());
+            submission.setMemoryUsedKb(judgeResult.getMemoryKb());
             if (judgeResult.getError() != null) {
                 submission.setErrorMessage(judgeResult.getError());
             }
-            submissionRepository.save(submission);
+            // Ranked before the verdict is flushed, so a distribution loaded
+            // here does not already contain this submission
+            PerformanceDistributionService.Ranking ranking = finalStatus == SubmissionStatus.ACCEPTED
+                    ? performanceDistributionService.rank(problemId, language,
+                            judgeResult.getTimeMs(), judgeResult.getMemoryKb())
+                    : null;
 
-            return SubmissionResponse.fromJudgeResult(
+            // Flushed here so the stage covers the verdict write and the
+            // listeners' counter updates, not just a dirty entity
+            metrics.time(Stage.VERDICT_PERSIST, language, difficulty, () -> {
+                submissionRepository.saveAndFlush(submission);
+                eventPublisher.publishEvent(new SubmissionJudgedEvent(submission));
+                return submission;
+            });
+
+            SubmissionResponse response = SubmissionResponse.fromJudgeResult(
                     submission.getId(), problemId, languageStr, judgeResult);
+            if (ranking != null) {
+                response.setRuntimeBeats(ranking.getRuntimeBeats());
+                response.setMemoryBeats(ranking.getMemoryBeats());
+            }
+            return response;
 
         } catch (S3Service.S3ServiceException e) {
             logger.error("S3 error during submission: {}", e.getMessage());
@@ -170,8 +205,9 @@ public class JudgeService {
 
     /**
      * Call the judge service with code and testcases.
+     * Package-private for JudgeRequestBenchmark.
      */
-    private JudgeResultDTO callJudgeService(String language, String code, List<TestcaseDTO> testcases) {
+    JudgeResultDTO callJudgeService(String language, String code, List<TestcaseDTO> testcases) {
         String judgeUrl = judgeConfig.getJudgeBaseUrl() + "/judge";
         logger.debug("Calling judge service: {}", judgeUrl);
 
@@ -199,8 +235,9 @@ public class JudgeService {
                 throw new JudgeServiceException("Empty response from judge service");
             }
 
-            logger.info("Judge verdict: {} ({}/{})", 
-                    result.getVerdict(), result.getPassed(), result.getTotal());
+            logger.info("Judge verdict: {} ({}/{}) time={}ms memory={}KB",
+                    result.getVerdict(), result.getPassed(), result.getTotal(),
+                    result.getTimeMs(), result.getMemoryKb());
             return result;
 
         } catch (ResourceAccessException e) {
@@ -218,7 +255,7 @@ public class JudgeService {
     public boolean isJudgeHealthy() {
         try {
             String healthUrl = judgeConfig.getJudgeBaseUrl() + "/health";
-            ResponseEntity<Map<String, Object>> response = restTemplate.getForEntity(healthUrl, Map.class);
+            ResponseEntity<?> response = restTemplate.getForEntity(healthUrl, Map.class);
             return response.getStatusCode() == HttpStatus.OK;
         } catch (Exception e) {
             logger.warn("Judge health check failed: {}", e.getMessage());
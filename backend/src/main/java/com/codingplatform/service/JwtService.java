@@ -1,65 +1,153 @@
 package com.codingplatform.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * The signing key and parser are built once. Verified tokens are cached by
+ * SHA-256 digest until their expiry, so a client reusing its token pays for
+ * signature verification once rather than on every request. The digest
+ * keeps raw bearer tokens out of the heap.
+ */
 @Service
 public class JwtService {
-    
-    @Value("${jwt.secret:CodeNexusSecretKeyForJWTTokenGeneration2024Production}")
-    private String secret;
-    
-    @Value("${jwt.expiration:86400000}") // 24 hours
-    private long expiration;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+
+    private final long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtService(@Value("${jwt.secret:CodeNexusSecretKeyForJWTTokenGeneration2024Production}") String secret,
+                      @Value("${jwt.expiration:86400000}") long expiration, // 24 hours
+                      @Value("${jwt.cache.max-entries:50000}") long cacheMaxEntries) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        long remainingMs = token.getExpiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
-    
+
     public String generateToken(Long userId, String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
-        
+
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .claim("email", email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
-    
+
+    /**
+     * Parse and verify a token (signature and expiry).
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    public Long extractUserId(String token) {
-        Claims claims = extractClaims(token);
-        return Long.parseLong(claims.getSubject());
+        return parser.parseSignedClaims(token).getPayload();
     }
-    
-    public String extractEmail(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("email", String.class);
+
+    /**
+     * Verify a token once and return its identity, or empty if the token
+     * is malformed, forged or expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        VerifiedToken parsed;
+        try {
+            Claims claims = extractClaims(token);
+            if (claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            parsed = new VerifiedToken(claims.getId(), Long.parseLong(claims.getSubject()),
+                    claims.get("email", String.class), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        verified.put(digest, parsed);
+        return Optional.of(parsed);
     }
-    
-    public boolean isTokenValid(String token) {
+
+    private static String digest(String token) {
         try {
-            extractClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
 
+    /**
+     * Identity carried by a verified token.
+     */
+    public static final class VerifiedToken {
+        private final String tokenId;
+        private final Long userId;
+        private final String email;
+        private final long expiresAtMillis;
+
+        public VerifiedToken(String tokenId, Long userId, String email, long expiresAtMillis) {
+            this.tokenId = tokenId;
+            this.userId = userId;
+            this.email = email;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /** The jti claim; null for tokens issued before revocation was added. */
+        public String getTokenId() { return tokenId; }
+
+        public Long getUserId() { return userId; }
+
+        public String getEmail() { return email; }
+
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+}
@@ -0,0 +1,495 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.LeaderboardConfig;
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.datasource.WorkloadContext;
+import com.codingplatform.dto.LeaderboardEntryDTO;
+import com.codingplatform.dto.PaginatedResponse;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.entity.SubmissionArchiveSummary;
+import com.codingplatform.entity.User;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.SubmissionArchiveSummaryRepository;
+import com.codingplatform.repository.SubmissionRepository;
+import com.codingplatform.repository.UserRepository;
+import com.codingplatform.util.OrderStatisticTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service for the global leaderboard.
+ *
+ * Users are ranked by solved problems (desc), then penalty (asc), then
+ * user id. Penalty is the number of judged failures on a problem before
+ * its first accept, summed over solved problems. Standings live in an
+ * order-statistic tree, so "my rank" is O(log n) and a page of k rows is
+ * O(log n + k); only first-accept verdicts change them.
+ *
+ * At boot the board is restored from the last snapshot file and accepted
+ * submissions from its low-water mark on are replayed, skipping those the
+ * snapshot already counts. Ids are assigned at submit time but verdicts
+ * commit when judged, so the low-water mark is the first submission made
+ * within the judging window before the snapshot, not the highest id
+ * applied. Without a usable snapshot (or with too much to replay) the board
+ * is rebuilt from submissions with one aggregate query. The nightly rebuild
+ * repairs drift, e.g. from two concurrent first accepts, from verdicts
+ * judged on other instances or from accepts judged later than the window.
+ * Both the rebuild and first-accept scoring include archived partitions
+ * through their summaries.
+ */
+@Service
+public class LeaderboardService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x4C42_0002;
+
+    private static final List<SubmissionStatus> FAILED = List.of(
+            SubmissionStatus.WRONG_ANSWER, SubmissionStatus.TLE,
+            SubmissionStatus.RE, SubmissionStatus.CE);
+
+    /**
+     * Rank order: more solved first, then lower penalty, then lower user id.
+     */
+    static final Comparator<Standing> ORDER = Comparator
+            .comparingInt(Standing::getSolved).reversed()
+            .thenComparingLong(Standing::getPenalty)
+            .thenComparingLong(Standing::getUserId);
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionArchiveSummaryRepository summaryRepository;
+    private final UserRepository userRepository;
+    private final LeaderboardConfig config;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderStatisticTree<Standing> tree = new OrderStatisticTree<>(ORDER);
+    private Map<Long, Standing> byUser = new HashMap<>();
+    private NavigableSet<Long> applied = new TreeSet<>();
+    private boolean ready;
+    private List<FirstAccept> appliedDuringRebuild;
+
+    public LeaderboardService(SubmissionRepository submissionRepository,
+                              SubmissionArchiveSummaryRepository summaryRepository,
+                              UserRepository userRepository,
+                              LeaderboardConfig config,
+                              PlatformTransactionManager transactionManager) {
+        this.submissionRepository = submissionRepository;
+        this.summaryRepository = summaryRepository;
+        this.userRepository = userRepository;
+        this.config = config;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Restore or rebuild at boot. Runs as background work (so on the
+     * primary), like the scheduled rebuild; being a self-call, it would
+     * otherwise bypass @Bulkhead.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        WorkloadContext.runAs(Workload.BACKGROUND, () -> {
+            try {
+                if (restoreFromSnapshot()) {
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn("Leaderboard snapshot unusable, rebuilding: {}", e.getMessage());
+            }
+            rebuild();
+        });
+    }
+
+    /**
+     * A page of the leaderboard (0-based page number).
+     */
+    public PaginatedResponse<LeaderboardEntryDTO> getPage(int page, int size) {
+        List<Standing> rows;
+        int total;
+        lock.readLock().lock();
+        try {
+            total = tree.size();
+            rows = tree.range(page * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, String> names = displayNames(rows);
+        List<LeaderboardEntryDTO> content = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Standing s = rows.get(i);
+            content.add(new LeaderboardEntryDTO((long) page * size + i + 1, s.getUserId(),
+                    names.get(s.getUserId()), s.getSolved(), s.getPenalty()));
+        }
+        int totalPages = (total + size - 1) / size;
+        return new PaginatedResponse<>(content, page, size, total, totalPages);
+    }
+
+    /**
+     * A user's own standing, or empty if they have not solved anything.
+     */
+    public Optional<LeaderboardEntryDTO> getStanding(Long userId) {
+        Standing standing;
+        int rank;
+        lock.readLock().lock();
+        try {
+            standing = byUser.get(userId);
+            if (standing == null) {
+                return Optional.empty();
+            }
+            rank = tree.rank(standing) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(new LeaderboardEntryDTO(rank, userId,
+                displayNames(List.of(standing)).get(userId), standing.getSolved(), standing.getPenalty()));
+    }
+
+    /**
+     * Score a first accept. Runs inside the submitting transaction (so the
+     * checks see this submission) and updates the board after commit.
+     */
+    @EventListener
+    @Transactional
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (!event.isAccepted() || event.getUserId() == null) {
+            return;
+        }
+        FirstAccept accept = scoreIfFirstAccept(event.getSubmissionId(), event.getUserId(), event.getProblemId());
+        if (accept == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(accept);
+                }
+            });
+        } else {
+            apply(accept);
+        }
+    }
+
+    /**
+     * Write the current standings, the low-water mark and the accepts
+     * applied from it on to the snapshot file. Applied ids below the mark
+     * are dropped, as no restore will replay them.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot-interval-ms:60000}",
+               initialDelayString = "${leaderboard.snapshot-interval-ms:60000}")
+    public void writeSnapshot() {
+        long lowWater = lowWaterMark();
+        List<Standing> rows;
+        List<Long> ids;
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            rows = new ArrayList<>(byUser.values());
+            applied.headSet(lowWater).clear();
+            ids = new ArrayList<>(applied);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Path target = Path.of(config.getSnapshotPath());
+        try {
+            Path dir = target.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "leaderboard", ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(lowWater);
+                out.writeInt(ids.size());
+                for (long id : ids) {
+                    out.writeLong(id);
+                }
+                out.writeInt(rows.size());
+                for (Standing s : rows) {
+                    out.writeLong(s.getUserId());
+                    out.writeInt(s.getSolved());
+                    out.writeLong(s.getPenalty());
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Wrote leaderboard snapshot: {} users, low-water mark {}", rows.size(), lowWater);
+        } catch (IOException e) {
+            logger.warn("Failed to write leaderboard snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the board from the submissions table. Verdicts applied while
+     * the rebuild runs are re-applied on top if the rebuild did not see them,
+     * which only holds when the rebuild reads the primary; as BACKGROUND
+     * work it is never routed to a replica.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(cron = "${leaderboard.rebuild-cron:0 45 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            appliedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Board board = readOnlyTransaction.execute(status -> {
+                Board loaded = new Board(lowWaterMark());
+                for (Object[] row : submissionRepository.aggregateStandings()) {
+                    loaded.put(new Standing(((Number) row[0]).longValue(),
+                            ((Number) row[1]).intValue(), ((Number) row[2]).longValue()));
+                }
+                loaded.applied.addAll(submissionRepository.findAcceptedIdsFrom(
+                        loaded.lowWater, SubmissionStatus.ACCEPTED));
+                return loaded;
+            });
+
+            lock.writeLock().lock();
+            try {
+                for (FirstAccept accept : appliedDuringRebuild) {
+                    if (accept.submissionId >= board.lowWater && board.applied.add(accept.submissionId)) {
+                        board.add(accept);
+                    }
+                }
+                install(board);
+            } finally {
+                appliedDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+            logger.info("Rebuilt leaderboard: {} users in {} ms",
+                    board.byUser.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                appliedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Leaderboard rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean restoreFromSnapshot() throws IOException {
+        Path path = Path.of(config.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+
+        Board board;
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("bad snapshot header");
+            }
+            board = new Board(in.readLong());
+            int ids = in.readInt();
+            for (int i = 0; i < ids; i++) {
+                board.applied.add(in.readLong());
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                board.put(new Standing(in.readLong(), in.readInt(), in.readLong()));
+            }
+        }
+
+        List<Object[]> accepted = submissionRepository.findAcceptedFrom(
+                board.lowWater, SubmissionStatus.ACCEPTED, Limit.of(config.getMaxReplay() + 1));
+        if (accepted.size() > config.getMaxReplay()) {
+            logger.info("Leaderboard snapshot is over {} accepts behind, rebuilding instead", config.getMaxReplay());
+            return false;
+        }
+        for (Object[] row : accepted) {
+            long submissionId = ((Number) row[0]).longValue();
+            if (!board.applied.add(submissionId)) {
+                continue;
+            }
+            FirstAccept accept = scoreIfFirstAccept(submissionId, ((Number) row[1]).longValue(), (String) row[2]);
+            if (accept != null) {
+                board.add(accept);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            install(board);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Restored leaderboard from snapshot: {} users, {} accepts replayed in {} ms",
+                board.byUser.size(), accepted.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private FirstAccept scoreIfFirstAccept(long submissionId, Long userId, String problemId) {
+        if (submissionRepository.existsByUserIdAndProblemIdAndStatusAndIdLessThan(
+                userId, problemId, SubmissionStatus.ACCEPTED, submissionId)) {
+            return null;
+        }
+        // Archived rows are older than any live one
+        SubmissionArchiveSummary archived = summaryRepository.findById(new SubmissionArchiveSummary.Key(
+                userId, problemId, SubmissionArchiveSummary.ALL_LANGUAGES)).orElse(null);
+        if (archived != null && archived.isSolved()) {
+            return null;
+        }
+        long failed = submissionRepository.countFailedBefore(userId, problemId, submissionId, FAILED)
+                + (archived != null ? archived.getFailedBeforeAccept() : 0);
+        return new FirstAccept(submissionId, userId, failed);
+    }
+
+    private void apply(FirstAccept accept) {
+        lock.writeLock().lock();
+        try {
+            if (appliedDuringRebuild != null) {
+                appliedDuringRebuild.add(accept);
+            }
+            Standing previous = byUser.get(accept.userId);
+            Standing next = previous == null
+                    ? new Standing(accept.userId, 1, accept.penalty)
+                    : previous.plus(accept.penalty);
+            if (previous != null) {
+                tree.remove(previous);
+            }
+            tree.insert(next);
+            byUser.put(accept.userId, next);
+            applied.add(accept.submissionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void install(Board board) {
+        OrderStatisticTree<Standing> built = new OrderStatisticTree<>(ORDER);
+        board.byUser.values().forEach(built::insert);
+        tree = built;
+        byUser = board.byUser;
+        applied = board.applied;
+        ready = true;
+    }
+
+    /**
+     * Lowest id among the submissions made within the judging window, all
+     * older ones being judged by now; past the highest id if there are none.
+     */
+    private long lowWaterMark() {
+        Long id = submissionRepository.findMinIdSubmittedSince(
+                LocalDateTime.now().minusMinutes(config.getJudgingWindowMinutes()));
+        return id != null ? id : submissionRepository.findMaxId() + 1;
+    }
+
+    /**
+     * Public name of a user: the local part of their email.
+     */
+    private Map<Long, String> displayNames(List<Standing> rows) {
+        List<Long> ids = rows.stream().map(Standing::getUserId).toList();
+        Map<Long, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(ids)) {
+            String email = user.getEmail();
+            int at = email.indexOf('@');
+            names.put(user.getId(), at > 0 ? email.substring(0, at) : email);
+        }
+        return names;
+    }
+
+    /**
+     * Standings under construction (rebuild or restore).
+     */
+    private static final class Board {
+        private final Map<Long, Standing> byUser = new HashMap<>();
+        private final NavigableSet<Long> applied = new TreeSet<>();
+        private final long lowWater;
+
+        Board(long lowWater) {
+            this.lowWater = lowWater;
+        }
+
+        void put(Standing standing) {
+            byUser.put(standing.getUserId(), standing);
+        }
+
+        void add(FirstAccept accept) {
+            byUser.merge(accept.userId, new Standing(accept.userId, 1, accept.penalty),
+                    (previous, fresh) -> previous.plus(accept.penalty));
+        }
+    }
+
+    private static final class FirstAccept {
+        private final long submissionId;
+        private final long userId;
+        private final long penalty;
+
+        FirstAccept(long submissionId, long userId, long penalty) {
+            this.submissionId = submissionId;
+            this.userId = userId;
+            this.penalty = penalty;
+        }
+    }
+
+    /**
+     * Immutable score of one user.
+     */
+    static final class Standing {
+        private final long userId;
+        private final int solved;
+        private final long penalty;
+
+        Standing(long userId, int solved, long penalty) {
+            this.userId = userId;
+            this.solved = solved;
+            this.penalty = penalty;
+        }
+
+        Standing plus(long extraPenalty) {
+            return new Standing(userId, solved + 1, penalty + extraPenalty);
+        }
+
+        long getUserId() { return userId; }
+
+        int getSolved() { return solved; }
+
+        long getPenalty() { return penalty; }
+    }
+}
@@ -0,0 +1,153 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.AuthConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool.
+ *
+ * BCrypt is deliberately slow CPU work. On request threads, a burst of
+ * logins would occupy every servlet thread and stall the whole API. Here
+ * at most auth.hashing.threads hashes run at once and a bounded queue
+ * holds the rest. When the queue is full, or a hash is not done within the
+ * timeout, callers get {@link HashingBusyException} immediately instead of
+ * piling up.
+ *
+ * A timeout only frees the caller. A hash still in the queue is cancelled
+ * and never runs, but BCrypt does not check for interruption, so one that
+ * has started keeps its pool thread until it finishes. Under sustained
+ * overload, threads can therefore be busy with hashes whose callers
+ * already got a 503. The queue should hold no more than the pool can hash
+ * within the timeout, i.e. threads * timeout / hash time; beyond that,
+ * queued callers only wait to time out.
+ *
+ * Latency is recorded in the app.auth.password.hash timer (with histogram
+ * buckets), and rejections in app.auth.password.rejected.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, AuthConfig config, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = config.getHashingTimeoutMs();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getHashingThreads(), config.getHashingThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getHashingQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejected = meterRegistry.counter("app.auth.password.rejected");
+        meterRegistry.gauge("app.auth.password.queued", executor, e -> e.getQueue().size());
+    }
+
+    /**
+     * Hash a new password.
+     *
+     * @throws HashingBusyException if the pool is saturated
+     */
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored hash.
+     *
+     * @throws HashingBusyException if the pool is saturated
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Whether a stored hash uses a weaker work factor than configured.
+     * Cheap: only inspects the hash prefix.
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingBusyException("Authentication is busy, try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new HashingBusyException("Authentication is busy, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("app.auth.password.hash")
+                .description("BCrypt hashing time on the password pool")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public static class HashingBusyException extends RuntimeException {
+        public HashingBusyException(String message) {
+            super(message);
+        }
+    }
+}
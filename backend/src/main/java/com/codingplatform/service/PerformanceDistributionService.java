@@ -0,0 +1,173 @@
+package com.codingplatform.service;
+
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.SubmissionRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for runtime and memory distributions of accepted submissions.
+ *
+ * Each (problem, language) keeps two HDR histograms, one for CPU time and
+ * one for peak RSS. A distribution is loaded from its accepted submissions
+ * on first use and then updated from committed verdicts, so "faster than
+ * X%" is a lookup over a fixed number of buckets rather than a scan of
+ * submissions. Values are kept to {@code significantDigits} precision and
+ * clamped to the configured maxima.
+ *
+ * Distributions are live-only: they cover the submissions still in the
+ * table, i.e. the last archive.retain-months once archiving is enabled.
+ * Runtimes measured on older judge hosts and versions are not comparable
+ * anyway.
+ */
+@Service
+public class PerformanceDistributionService {
+
+    private final SubmissionRepository submissionRepository;
+    private final long maxTimeMs;
+    private final long maxMemoryKb;
+    private final int significantDigits;
+    private final Map<String, Distribution> distributions = new ConcurrentHashMap<>();
+
+    public PerformanceDistributionService(SubmissionRepository submissionRepository,
+                                          @Value("${performance.max-time-ms:60000}") long maxTimeMs,
+                                          @Value("${performance.max-memory-kb:4194304}") long maxMemoryKb,
+                                          @Value("${performance.significant-digits:2}") int significantDigits) {
+        this.submissionRepository = submissionRepository;
+        this.maxTimeMs = maxTimeMs;
+        this.maxMemoryKb = maxMemoryKb;
+        this.significantDigits = significantDigits;
+    }
+
+    /**
+     * Rank a measurement against the accepted submissions of a problem in
+     * one language. Either measurement may be null.
+     */
+    public Ranking rank(String problemId, Language language, Integer timeMs, Integer memoryKb) {
+        return getDistribution(problemId, language).rank(timeMs, memoryKb);
+    }
+
+    /**
+     * Record a committed accepted verdict. Distributions that were never
+     * loaded are left alone; their first load reads it from the database.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (!event.isAccepted() || event.getExecutionTimeMs() == null || event.getMemoryUsedKb() == null) {
+            return;
+        }
+        distributions.computeIfPresent(key(event.getProblemId(), event.getLanguage()), (key, distribution) -> {
+            distribution.record(event.getExecutionTimeMs(), event.getMemoryUsedKb());
+            return distribution;
+        });
+    }
+
+    /**
+     * Loaded outside the map: computeIfAbsent would run the query while
+     * holding the map's bin lock, stalling lookups and verdicts for other
+     * keys in the same bin. Concurrent first uses may each load; the first
+     * one stored wins. A verdict committed while the query runs can be
+     * missed by this instance, which is one sample in a percentile.
+     */
+    private Distribution getDistribution(String problemId, Language language) {
+        String key = key(problemId, language);
+        Distribution distribution = distributions.get(key);
+        if (distribution != null) {
+            return distribution;
+        }
+        Distribution loaded = load(problemId, language);
+        Distribution existing = distributions.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private Distribution load(String problemId, Language language) {
+        Distribution distribution = new Distribution();
+        List<Object[]> rows = submissionRepository.findAcceptedMeasurements(
+                problemId, language, SubmissionStatus.ACCEPTED);
+        for (Object[] row : rows) {
+            distribution.record(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+        }
+        return distribution;
+    }
+
+    private static String key(String problemId, Language language) {
+        return problemId + "/" + language.name();
+    }
+
+    private final class Distribution {
+        private final Histogram time = new Histogram(maxTimeMs, significantDigits);
+        private final Histogram memory = new Histogram(maxMemoryKb, significantDigits);
+
+        synchronized void record(int timeMs, int memoryKb) {
+            time.recordValue(clamp(timeMs, maxTimeMs));
+            memory.recordValue(clamp(memoryKb, maxMemoryKb));
+        }
+
+        synchronized Ranking rank(Integer timeMs, Integer memoryKb) {
+            long samples = time.getTotalCount();
+            return new Ranking(samples,
+                    timeMs != null ? beats(time, clamp(timeMs, maxTimeMs)) : null,
+                    memoryKb != null ? beats(memory, clamp(memoryKb, maxMemoryKb)) : null,
+                    samples > 0 ? time.getValueAtPercentile(50) : null,
+                    samples > 0 ? memory.getValueAtPercentile(50) : null);
+        }
+
+        /**
+         * Share of recorded values strictly above the given one, as a
+         * percentage; values in the same bucket count as ties.
+         */
+        private Double beats(Histogram histogram, long value) {
+            long total = histogram.getTotalCount();
+            if (total == 0) {
+                return null;
+            }
+            long above = total - histogram.getCountBetweenValues(0, value);
+            return Math.round(above * 1000.0 / total) / 10.0;
+        }
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Where a measurement falls among accepted submissions.
+     */
+    public static final class Ranking {
+        private final long samples;
+        private final Double runtimeBeats;
+        private final Double memoryBeats;
+        private final Long medianTimeMs;
+        private final Long medianMemoryKb;
+
+        public Ranking(long samples, Double runtimeBeats, Double memoryBeats,
+                       Long medianTimeMs, Long medianMemoryKb) {
+            this.samples = samples;
+            this.runtimeBeats = runtimeBeats;
+            this.memoryBeats = memoryBeats;
+            this.medianTimeMs = medianTimeMs;
+            this.medianMemoryKb = medianMemoryKb;
+        }
+
+        /** Accepted submissions the measurement was compared against. */
+        public long getSamples() { return samples; }
+
+        /** Percentage of those with a higher CPU time, null when there are none. */
+        public Double getRuntimeBeats() { return runtimeBeats; }
+
+        /** Percentage of those with a higher peak RSS, null when there are none. */
+        public Double getMemoryBeats() { return memoryBeats; }
+
+        public Long getMedianTimeMs() { return medianTimeMs; }
+
+        public Long getMedianMemoryKb() { return medianMemoryKb; }
+    }
+}
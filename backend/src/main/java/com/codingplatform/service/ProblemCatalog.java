@@ -0,0 +1,206 @@
+package com.codingplatform.service;
+
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.entity.Problem;
+import com.codingplatform.entity.Problem.Difficulty;
+import com.codingplatform.repository.ProblemRepository;
+import com.codingplatform.repository.ProblemTagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory snapshot of the problem catalog.
+ *
+ * Problems change only when the migration script runs, so list views are
+ * served from an immutable snapshot loaded from RDS and refreshed on a
+ * fixed delay. Entries are sorted by (difficulty, id), and each entry's
+ * position in that order is its dense ordinal within the snapshot, which
+ * the facet index uses as its bit position.
+ */
+@Service
+public class ProblemCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemCatalog.class);
+
+    /**
+     * Stable sort order of the catalog: difficulty, then id.
+     */
+    public static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::getDifficulty)
+            .thenComparing(Entry::getId);
+
+    private final ProblemRepository problemRepository;
+    private final ProblemTagRepository tagRepository;
+
+    private volatile Snapshot snapshot;
+
+    public ProblemCatalog(ProblemRepository problemRepository, ProblemTagRepository tagRepository) {
+        this.problemRepository = problemRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    /**
+     * Get the current snapshot, loading it on first use.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load(1);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload the catalog from the database.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        Snapshot previous = snapshot;
+        Snapshot next = load(previous == null ? 1 : previous.getVersion() + 1);
+        synchronized (this) {
+            snapshot = next;
+        }
+    }
+
+    private Snapshot load(long version) {
+        long start = System.currentTimeMillis();
+
+        Map<String, List<String>> tagsByProblem = new HashMap<>();
+        for (Object[] pair : tagRepository.findAllProblemTagPairs()) {
+            tagsByProblem.computeIfAbsent((String) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (Problem problem : problemRepository.findAll()) {
+            entries.add(new Entry(problem, tagsByProblem.getOrDefault(problem.getId(), List.of())));
+        }
+        entries.sort(ORDER);
+
+        Snapshot loaded = new Snapshot(version, entries);
+        logger.info("Loaded problem catalog v{}: {} problems in {} ms",
+                version, entries.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    /**
+     * Immutable view of all problems at one point in time.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<Entry> entries;
+        private final Map<String, Entry> byId;
+        private final List<String> categories;
+        private final ProblemFacetIndex facetIndex;
+
+        Snapshot(long version, List<Entry> sortedEntries) {
+            this.version = version;
+            this.byId = new HashMap<>();
+            TreeSet<String> categorySet = new TreeSet<>();
+            for (int i = 0; i < sortedEntries.size(); i++) {
+                Entry entry = sortedEntries.get(i);
+                entry.ordinal = i;
+                byId.put(entry.getId(), entry);
+                categorySet.add(entry.getCategory());
+            }
+            this.entries = Collections.unmodifiableList(sortedEntries);
+            this.categories = List.copyOf(categorySet);
+            this.facetIndex = new ProblemFacetIndex(this.entries);
+        }
+
+        public long getVersion() { return version; }
+
+        /**
+         * All entries in catalog order; index == ordinal.
+         */
+        public List<Entry> getEntries() { return entries; }
+
+        public Entry get(String id) { return byId.get(id); }
+
+        public int size() { return entries.size(); }
+
+        public List<String> getCategories() { return categories; }
+
+        public ProblemFacetIndex getFacetIndex() { return facetIndex; }
+
+        /**
+         * Index of the first entry strictly after the given sort key.
+         */
+        public int indexAfter(Difficulty difficulty, String id) {
+            int low = 0;
+            int high = entries.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Entry entry = entries.get(mid);
+                int cmp = entry.getDifficulty().compareTo(difficulty);
+                if (cmp == 0) {
+                    cmp = entry.getId().compareTo(id);
+                }
+                if (cmp <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Catalog entry with the list-view fields of a problem.
+     */
+    public static final class Entry {
+        private final String id;
+        private final String title;
+        private final String category;
+        private final Difficulty difficulty;
+        private final Integer timeLimit;
+        private final Integer memoryLimit;
+        private final List<String> tags;
+        private int ordinal;
+
+        Entry(Problem problem, List<String> tags) {
+            this.id = problem.getId();
+            this.title = problem.getTitle();
+            this.category = problem.getCategory();
+            this.difficulty = problem.getDifficulty();
+            this.timeLimit = problem.getTimeLimit();
+            this.memoryLimit = problem.getMemoryLimit();
+            this.tags = List.copyOf(tags);
+        }
+
+        public String getId() { return id; }
+
+        public String getTitle() { return title; }
+
+        public String getCategory() { return category; }
+
+        public Difficulty getDifficulty() { return difficulty; }
+
+        public Integer getTimeLimit() { return timeLimit; }
+
+        public Integer getMemoryLimit() { return memoryLimit; }
+
+        public List<String> getTags() { return tags; }
+
+        public int getOrdinal() { return ordinal; }
+    }
+}
@@ -0,0 +1,146 @@
+package com.codingplatform.service;
+
+import com.codingplatform.entity.Problem.Difficulty;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compressed bitmap index over catalog ordinals.
+ *
+ * One RoaringBitmap per category, difficulty and tag value. A facet query
+ * ORs the selected values within a facet, ANDs across facets, and counts
+ * each facet value against the other facets' selection, so a combined
+ * filter with counts is a handful of bitmap operations.
+ */
+public class ProblemFacetIndex {
+
+    private final RoaringBitmap all;
+    private final Map<String, RoaringBitmap> byCategory;
+    private final Map<Difficulty, RoaringBitmap> byDifficulty;
+    private final Map<String, RoaringBitmap> byTag;
+
+    ProblemFacetIndex(List<ProblemCatalog.Entry> entries) {
+        Map<String, RoaringBitmap> categories = new TreeMap<>();
+        Map<Difficulty, RoaringBitmap> difficulties = new EnumMap<>(Difficulty.class);
+        Map<String, RoaringBitmap> tags = new TreeMap<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            difficulties.put(difficulty, new RoaringBitmap());
+        }
+
+        for (ProblemCatalog.Entry entry : entries) {
+            int ordinal = entry.getOrdinal();
+            categories.computeIfAbsent(entry.getCategory(), c -> new RoaringBitmap()).add(ordinal);
+            difficulties.get(entry.getDifficulty()).add(ordinal);
+            for (String tag : entry.getTags()) {
+                tags.computeIfAbsent(tag, t -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        this.all = RoaringBitmap.bitmapOfRange(0, entries.size());
+        categories.values().forEach(RoaringBitmap::runOptimize);
+        difficulties.values().forEach(RoaringBitmap::runOptimize);
+        tags.values().forEach(RoaringBitmap::runOptimize);
+        this.byCategory = Collections.unmodifiableMap(categories);
+        this.byDifficulty = Collections.unmodifiableMap(difficulties);
+        this.byTag = Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * Number of problems with the given difficulty.
+     */
+    public int count(Difficulty difficulty) {
+        return byDifficulty.get(difficulty).getCardinality();
+    }
+
+    /**
+     * Evaluate a facet selection.
+     *
+     * @param categories   categories to match (any of); empty = no filter
+     * @param difficulties difficulties to match (any of); empty = no filter
+     * @param tags         tags to match (all of); empty = no filter
+     * @param exclude      ordinals to drop (e.g. solved problems), or null
+     */
+    public Result query(Collection<String> categories, Collection<Difficulty> difficulties,
+                        Collection<String> tags, RoaringBitmap exclude) {
+        RoaringBitmap categoryMatch = union(byCategory, categories);
+        RoaringBitmap difficultyMatch = union(byDifficulty, difficulties);
+        RoaringBitmap tagMatch = all.clone();
+        for (String tag : tags) {
+            tagMatch.and(byTag.getOrDefault(tag, new RoaringBitmap()));
+        }
+        if (exclude != null) {
+            tagMatch.andNot(exclude);
+        }
+
+        RoaringBitmap matches = RoaringBitmap.and(RoaringBitmap.and(categoryMatch, difficultyMatch), tagMatch);
+
+        // Count each value against every other facet's selection
+        RoaringBitmap forCategory = RoaringBitmap.and(difficultyMatch, tagMatch);
+        RoaringBitmap forDifficulty = RoaringBitmap.and(categoryMatch, tagMatch);
+
+        Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+        byCategory.forEach((value, bitmap) ->
+                categoryCounts.put(value, RoaringBitmap.andCardinality(bitmap, forCategory)));
+
+        Map<String, Integer> difficultyCounts = new LinkedHashMap<>();
+        byDifficulty.forEach((value, bitmap) ->
+                difficultyCounts.put(value.name(), RoaringBitmap.andCardinality(bitmap, forDifficulty)));
+
+        Map<String, Integer> tagCounts = new LinkedHashMap<>();
+        byTag.forEach((value, bitmap) -> {
+            int count = RoaringBitmap.andCardinality(bitmap, matches);
+            if (count > 0) {
+                tagCounts.put(value, count);
+            }
+        });
+
+        return new Result(matches, categoryCounts, difficultyCounts, tagCounts);
+    }
+
+    private <K> RoaringBitmap union(Map<K, RoaringBitmap> index, Collection<K> values) {
+        if (values.isEmpty()) {
+            return all;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (K value : values) {
+            RoaringBitmap bitmap = index.get(value);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matching ordinals and per-facet value counts.
+     */
+    public static final class Result {
+        private final RoaringBitmap matches;
+        private final Map<String, Integer> categoryCounts;
+        private final Map<String, Integer> difficultyCounts;
+        private final Map<String, Integer> tagCounts;
+
+        Result(RoaringBitmap matches, Map<String, Integer> categoryCounts,
+               Map<String, Integer> difficultyCounts, Map<String, Integer> tagCounts) {
+            this.matches = matches;
+            this.categoryCounts = categoryCounts;
+            this.difficultyCounts = difficultyCounts;
+            this.tagCounts = tagCounts;
+        }
+
+        public RoaringBitmap getMatches() { return matches; }
+
+        public Map<String, Integer> getCategoryCounts() { return categoryCounts; }
+
+        public Map<String, Integer> getDifficultyCounts() { return difficultyCounts; }
+
+        public Map<String, Integer> getTagCounts() { return tagCounts; }
+    }
+}
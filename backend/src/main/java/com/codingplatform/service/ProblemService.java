@@ -1,27 +1,35 @@
 package com.codingplatform.service;
 
+import com.codingplatform.dto.PaginatedResponse;
 import com.codingplatform.dto.ProblemDetailDTO;
 import com.codingplatform.dto.ProblemDetailDTO.ExampleDTO;
+import com.codingplatform.dto.ProblemFacetsDTO;
 import com.codingplatform.dto.ProblemListDTO;
 import com.codingplatform.entity.Problem;
 import com.codingplatform.entity.Problem.Difficulty;
-import com.codingplatform.entity.Testcase;
 import com.codingplatform.repository.ProblemRepository;
 import com.codingplatform.repository.ProblemTagRepository;
 import com.codingplatform.repository.TestcaseRepository;
+import com.codingplatform.service.TestcaseCacheService.ProblemSamples;
+import com.codingplatform.util.CursorCodec;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service for problem operations.
- * Fetches problem data from RDS MySQL.
+ * List views are served from the in-memory catalog, details from RDS MySQL;
+ * sample testcases come from the testcase cache.
  */
 @Service
 @Transactional(readOnly = true)
@@ -32,64 +40,164 @@ public class ProblemService {
     private final ProblemRepository problemRepository;
     private final ProblemTagRepository tagRepository;
     private final TestcaseRepository testcaseRepository;
-    private final S3Service s3Service;
+    private final TestcaseCacheService testcaseCacheService;
+    private final ProblemCatalog problemCatalog;
+    private final ProblemStatsService problemStatsService;
+    private final UserProgressService userProgressService;
 
     public ProblemService(ProblemRepository problemRepository,
                           ProblemTagRepository tagRepository,
                           TestcaseRepository testcaseRepository,
-                          S3Service s3Service) {
+                          TestcaseCacheService testcaseCacheService,
+                          ProblemCatalog problemCatalog,
+                          ProblemStatsService problemStatsService,
+                          UserProgressService userProgressService) {
         this.problemRepository = problemRepository;
         this.tagRepository = tagRepository;
         this.testcaseRepository = testcaseRepository;
-        this.s3Service = s3Service;
+        this.testcaseCacheService = testcaseCacheService;
+        this.problemCatalog = problemCatalog;
+        this.problemStatsService = problemStatsService;
+        this.userProgressService = userProgressService;
     }
 
     /**
      * Get all problems (lightweight list).
      */
     public List<ProblemListDTO> getAllProblems() {
-        logger.info("Fetching all problems");
-        return problemRepository.findAll().stream()
-                .map(ProblemListDTO::new)
+        return problemCatalog.getSnapshot().getEntries().stream()
+                .map(this::toListDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get problems by category.
+     * Get one page of problems matching the optional filters.
+     * Keyset pagination over the catalog order (difficulty, id).
+     *
+     * @param cursor continuation token from the previous page, or null
+     * @param limit  page size (already clamped by the caller)
      */
-    public List<ProblemListDTO> getProblemsByCategory(String category) {
-        logger.info("Fetching problems by category: {}", category);
-        return problemRepository.findByCategory(category).stream()
-                .map(ProblemListDTO::new)
-                .collect(Collectors.toList());
+    public PaginatedResponse<ProblemListDTO> getProblemsPage(String category, String difficulty,
+                                                             String search, String cursor, int limit) {
+        logger.info("Fetching problems page: category={}, difficulty={}, search={}, cursor={}",
+                category, difficulty, search, cursor);
+
+        Difficulty diff = difficulty != null ? Difficulty.valueOf(difficulty.toLowerCase()) : null;
+        String query = search != null && !search.isEmpty() ? search.toLowerCase() : null;
+
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        List<ProblemCatalog.Entry> entries = snapshot.getEntries();
+
+        int start = 0;
+        if (cursor != null) {
+            String[] key = CursorCodec.decode(cursor, 2);
+            start = snapshot.indexAfter(parseDifficulty(key[0]), key[1]);
+        }
+
+        List<ProblemListDTO> page = new ArrayList<>(limit);
+        ProblemCatalog.Entry last = null;
+        boolean more = false;
+        for (int i = start; i < entries.size(); i++) {
+            ProblemCatalog.Entry entry = entries.get(i);
+            if (diff != null && entry.getDifficulty() != diff) {
+                continue;
+            }
+            if (category != null && !category.equals(entry.getCategory())) {
+                continue;
+            }
+            if (query != null && !entry.getTitle().toLowerCase().contains(query)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                more = true;
+                break;
+            }
+            page.add(toListDTO(entry));
+            last = entry;
+        }
+
+        String nextCursor = more
+                ? CursorCodec.encode(last.getDifficulty().name(), last.getId())
+                : null;
+        return new PaginatedResponse<>(page, limit, cursor != null, nextCursor);
     }
 
     /**
-     * Get problems by difficulty.
+     * Faceted search over the catalog bitmap index.
+     * Values within a facet are ORed, facets are ANDed, and tags must all match.
+     *
+     * @param excludeSolvedBy drop problems this user has solved, or null
+     * @param cursor          continuation token from the previous page, or null
+     * @param limit           page size (already clamped by the caller)
      */
-    public List<ProblemListDTO> getProblemsByDifficulty(String difficulty) {
-        logger.info("Fetching problems by difficulty: {}", difficulty);
-        Difficulty diff = Difficulty.valueOf(difficulty.toLowerCase());
-        return problemRepository.findByDifficulty(diff).stream()
-                .map(ProblemListDTO::new)
+    public ProblemFacetsDTO getFacets(List<String> categories, List<String> difficulties,
+                                      List<String> tags, Long excludeSolvedBy,
+                                      String cursor, int limit) {
+        List<Difficulty> diffs = difficulties.stream()
+                .map(d -> Difficulty.valueOf(d.toLowerCase()))
                 .collect(Collectors.toList());
+
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        RoaringBitmap solved = excludeSolvedBy != null
+                ? userProgressService.getProgress(excludeSolvedBy, snapshot).solvedBitmap()
+                : null;
+        ProblemFacetIndex.Result result = snapshot.getFacetIndex().query(categories, diffs, tags, solved);
+
+        int start = 0;
+        if (cursor != null) {
+            String[] key = CursorCodec.decode(cursor, 2);
+            start = snapshot.indexAfter(parseDifficulty(key[0]), key[1]);
+        }
+
+        List<ProblemListDTO> page = new ArrayList<>(limit);
+        ProblemCatalog.Entry last = null;
+        boolean more = false;
+        PeekableIntIterator it = result.getMatches().getIntIterator();
+        it.advanceIfNeeded(start);
+        while (it.hasNext()) {
+            if (page.size() == limit) {
+                more = true;
+                break;
+            }
+            last = snapshot.getEntries().get(it.next());
+            page.add(toListDTO(last));
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("category", result.getCategoryCounts());
+        facets.put("difficulty", result.getDifficultyCounts());
+        facets.put("tags", result.getTagCounts());
+
+        String nextCursor = more
+                ? CursorCodec.encode(last.getDifficulty().name(), last.getId())
+                : null;
+        return new ProblemFacetsDTO(result.getMatches().getLongCardinality(), page, nextCursor, facets);
     }
 
-    /**
-     * Get problems by category and difficulty.
-     */
-    public List<ProblemListDTO> getProblemsByCategoryAndDifficulty(String category, String difficulty) {
-        logger.info("Fetching problems by category: {} and difficulty: {}", category, difficulty);
-        Difficulty diff = Difficulty.valueOf(difficulty.toLowerCase());
-        return problemRepository.findByCategoryAndDifficulty(category, diff).stream()
-                .map(ProblemListDTO::new)
-                .collect(Collectors.toList());
+    private ProblemListDTO toListDTO(ProblemCatalog.Entry entry) {
+        return new ProblemListDTO(entry, problemStatsService.getCounts(entry.getId()));
+    }
+
+    private static Difficulty parseDifficulty(String value) {
+        try {
+            return Difficulty.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     /**
      * Get problem details by ID.
      */
     public Optional<ProblemDetailDTO> getProblemById(String id) {
+        return getProblemById(id, true);
+    }
+
+    /**
+     * Get problem details by ID, optionally without warming the hidden
+     * testcases (e.g. for warmup reads that no submission will follow).
+     */
+    public Optional<ProblemDetailDTO> getProblemById(String id, boolean prefetchTestcases) {
         logger.info("Fetching problem details: {}", id);
         
         Optional<Problem> problemOpt = problemRepository.findById(id);
@@ -102,22 +210,21 @@ public class ProblemService {
         // Get tags
         List<String> tags = tagRepository.findTagsByProblemId(id);
         
-        // Get sample testcases and fetch content from S3
-        List<Testcase> sampleTestcases = testcaseRepository.findSamplesByProblemId(id);
-        List<ExampleDTO> examples = new ArrayList<>();
-        
-        for (Testcase tc : sampleTestcases) {
-            try {
-                String input = s3Service.getFileContent(tc.getS3InputKey());
-                String output = s3Service.getFileContent(tc.getS3OutputKey());
-                examples.add(new ExampleDTO(input.trim(), output.trim()));
-            } catch (Exception e) {
-                logger.warn("Failed to fetch sample testcase from S3: {}", e.getMessage());
-            }
+        // Get sample testcases (cached) and warm the hidden ones for the first submission
+        List<ExampleDTO> examples;
+        int testcaseCount;
+        try {
+            ProblemSamples samples = testcaseCacheService.getSamples(id);
+            examples = samples.getExamples();
+            testcaseCount = samples.getTestcaseCount();
+        } catch (S3Service.S3ServiceException e) {
+            logger.warn("Failed to fetch sample testcases from S3: {}", e.getMessage());
+            examples = List.of();
+            testcaseCount = (int) testcaseRepository.countByProblemId(id);
+        }
+        if (prefetchTestcases) {
+            testcaseCacheService.prefetchTestcases(id);
         }
-        
-        // Get total testcase count
-        int testcaseCount = (int) testcaseRepository.countByProblemId(id);
         
         return Optional.of(new ProblemDetailDTO(problem, tags, examples, testcaseCount));
     }
@@ -126,7 +233,7 @@ public class ProblemService {
      * Get all distinct categories.
      */
     public List<String> getAllCategories() {
-        return problemRepository.findAllCategories();
+        return problemCatalog.getSnapshot().getCategories();
     }
 
     /**
@@ -136,16 +243,6 @@ public class ProblemService {
         return tagRepository.findAllDistinctTags();
     }
 
-    /**
-     * Search problems by title.
-     */
-    public List<ProblemListDTO> searchProblems(String query) {
-        logger.info("Searching problems: {}", query);
-        return problemRepository.searchByTitle(query).stream()
-                .map(ProblemListDTO::new)
-                .collect(Collectors.toList());
-    }
-
     /**
      * Check if problem exists.
      */
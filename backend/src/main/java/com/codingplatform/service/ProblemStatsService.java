@@ -0,0 +1,209 @@
+package com.codingplatform.service;
+
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.entity.ProblemStat;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.ProblemStatRepository;
+import com.codingplatform.repository.SubmissionArchiveSummaryRepository;
+import com.codingplatform.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for per-problem acceptance counters.
+ *
+ * The problem_stats table is incremented in the same transaction that
+ * persists a verdict, so counters never drift from committed submissions.
+ * Per-problem totals are mirrored in memory for list views and updated
+ * after commit. A periodic job recomputes the table from submissions and
+ * the summaries of archived partitions to repair the rare double count
+ * (e.g. two concurrent first accepts). First-solve checks also consult
+ * those summaries, so a user whose earlier accepts were archived is not
+ * counted as a new solver.
+ */
+@Service
+public class ProblemStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProblemStatsService.class);
+
+    private static final ProblemCounts EMPTY = new ProblemCounts(0, 0, 0);
+
+    private final ProblemStatRepository problemStatRepository;
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionArchiveSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Map<String, Counters> counters;
+
+    public ProblemStatsService(ProblemStatRepository problemStatRepository,
+                               SubmissionRepository submissionRepository,
+                               SubmissionArchiveSummaryRepository summaryRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.problemStatRepository = problemStatRepository;
+        this.submissionRepository = submissionRepository;
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Get the all-language counters for a problem.
+     */
+    public ProblemCounts getCounts(String problemId) {
+        Counters c = getCounters().get(problemId);
+        return c != null ? c.snapshot() : EMPTY;
+    }
+
+    /**
+     * Count a judged submission. Runs inside the submitting transaction.
+     */
+    @EventListener
+    @Transactional
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        String problemId = event.getProblemId();
+        int accepted = event.isAccepted() ? 1 : 0;
+        int languageSolver = 0;
+        int solver = 0;
+
+        if (event.isAccepted() && event.getUserId() != null) {
+            Long userId = event.getUserId();
+            String language = event.getLanguage().name();
+            languageSolver = submissionRepository.existsByUserIdAndProblemIdAndLanguageAndStatusAndIdNot(
+                    userId, problemId, event.getLanguage(), SubmissionStatus.ACCEPTED, event.getSubmissionId())
+                    || summaryRepository.existsAccepted(userId, problemId, language) ? 0 : 1;
+            solver = languageSolver == 0 ? 0 : submissionRepository.existsByUserIdAndProblemIdAndStatusAndIdNot(
+                    userId, problemId, SubmissionStatus.ACCEPTED, event.getSubmissionId())
+                    || summaryRepository.existsAccepted(userId, problemId, ProblemStat.ALL_LANGUAGES) ? 0 : 1;
+        }
+
+        problemStatRepository.increment(problemId, event.getLanguage().name(), accepted, languageSolver);
+        problemStatRepository.increment(problemId, ProblemStat.ALL_LANGUAGES, accepted, solver);
+
+        int solverDelta = solver;
+        Runnable apply = () -> getCounters()
+                .computeIfAbsent(problemId, id -> new Counters())
+                .add(1, accepted, solverDelta);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Recompute all counters from the submissions table and archive
+     * summaries, and reload memory. Each problem is reset and recomputed
+     * in its own short transaction, so the locking reads of the
+     * recompute cover one problem's index range at a time instead of the
+     * whole submissions table.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(cron = "${stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        List<String> problemIds = problemStatRepository.findAllProblemIds();
+        int failed = 0;
+        for (String problemId : problemIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    problemStatRepository.resetProblem(problemId);
+                    problemStatRepository.reconcileByLanguage(problemId);
+                    problemStatRepository.reconcileAllLanguages(problemId);
+                });
+            } catch (RuntimeException e) {
+                failed++;
+                logger.warn("Reconcile of problem {} stats failed: {}", problemId, e.getMessage());
+            }
+        }
+        counters = loadCounters();
+        logger.info("Reconciled stats of {} problems ({} failed) in {} ms",
+                problemIds.size(), failed, System.currentTimeMillis() - start);
+    }
+
+    private Map<String, Counters> getCounters() {
+        Map<String, Counters> current = counters;
+        if (current == null) {
+            synchronized (this) {
+                current = counters;
+                if (current == null) {
+                    current = loadCounters();
+                    counters = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, Counters> loadCounters() {
+        Map<String, Counters> loaded = new ConcurrentHashMap<>();
+        for (ProblemStat stat : problemStatRepository.findByLanguage(ProblemStat.ALL_LANGUAGES)) {
+            Counters c = new Counters();
+            c.add(stat.getSubmissions(), stat.getAccepted(), stat.getSolvers());
+            loaded.put(stat.getId().getProblemId(), c);
+        }
+        return loaded;
+    }
+
+    private static final class Counters {
+        private final AtomicLong submissions = new AtomicLong();
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong solvers = new AtomicLong();
+
+        void add(long submissionsDelta, long acceptedDelta, long solversDelta) {
+            submissions.addAndGet(submissionsDelta);
+            accepted.addAndGet(acceptedDelta);
+            solvers.addAndGet(solversDelta);
+        }
+
+        ProblemCounts snapshot() {
+            return new ProblemCounts(submissions.get(), accepted.get(), solvers.get());
+        }
+    }
+
+    /**
+     * Point-in-time counters for one problem.
+     */
+    public static final class ProblemCounts {
+        private final long submissions;
+        private final long accepted;
+        private final long solvers;
+
+        public ProblemCounts(long submissions, long accepted, long solvers) {
+            this.submissions = submissions;
+            this.accepted = accepted;
+            this.solvers = solvers;
+        }
+
+        public long getSubmissions() { return submissions; }
+
+        public long getAccepted() { return accepted; }
+
+        public long getSolvers() { return solvers; }
+
+        /**
+         * Accepted / submitted as a percentage, 0 when nothing was submitted.
+         */
+        public double getAcceptanceRate() {
+            return submissions == 0 ? 0.0 : Math.round(accepted * 1000.0 / submissions) / 10.0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.codingplatform.service;
+
+import com.codingplatform.dto.RecentSubmissionDTO;
+import com.codingplatform.dto.RecentSubmissionsDTO;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.util.EventRingBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Live feed of recent verdicts.
+ *
+ * Committed verdicts are appended to an in-memory ring buffer of the last
+ * N events; reads never touch the database. Readers poll with the cursor
+ * of their last read, or park a long-poll that completes as soon as a
+ * newer event is published (or with an empty result on timeout).
+ */
+@Service
+public class RecentSubmissionFeed {
+
+    private final EventRingBuffer<SubmissionJudgedEvent> buffer;
+    private final ProblemCatalog problemCatalog;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public RecentSubmissionFeed(ProblemCatalog problemCatalog,
+                                @Value("${feed.recent.capacity:1024}") int capacity) {
+        this.problemCatalog = problemCatalog;
+        this.buffer = new EventRingBuffer<>(capacity);
+    }
+
+    /**
+     * Append a committed verdict and wake parked readers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        buffer.publish(event);
+
+        int pending = waiters.size();
+        for (int i = 0; i < pending; i++) {
+            Waiter waiter = waiters.poll();
+            if (waiter == null) {
+                break;
+            }
+            if (!waiter.tryComplete()) {
+                waiters.add(waiter);
+            }
+        }
+    }
+
+    /**
+     * Read events after a cursor without waiting.
+     */
+    public RecentSubmissionsDTO read(long after, int limit) {
+        EventRingBuffer.Batch<SubmissionJudgedEvent> batch = buffer.readAfter(after, limit);
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        List<RecentSubmissionDTO> events = new ArrayList<>(batch.getEvents().size());
+        for (EventRingBuffer.Sequenced<SubmissionJudgedEvent> sequenced : batch.getEvents()) {
+            events.add(toDTO(sequenced.getSequence(), sequenced.getEvent(), snapshot));
+        }
+        return new RecentSubmissionsDTO(events, batch.getCursor(), batch.isGap());
+    }
+
+    /**
+     * Read events after a cursor, waiting up to timeoutMs for the first one.
+     */
+    public DeferredResult<RecentSubmissionsDTO> poll(long after, int limit, long timeoutMs) {
+        DeferredResult<RecentSubmissionsDTO> result = new DeferredResult<>(timeoutMs);
+        Waiter waiter = new Waiter(after, limit, result);
+        if (waiter.tryComplete()) {
+            return result;
+        }
+
+        result.onTimeout(() -> result.setResult(read(after, limit)));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // An event may have been published between the first check and add()
+        waiter.tryComplete();
+        return result;
+    }
+
+    private RecentSubmissionDTO toDTO(long sequence, SubmissionJudgedEvent event,
+                                      ProblemCatalog.Snapshot snapshot) {
+        ProblemCatalog.Entry entry = snapshot.get(event.getProblemId());
+        RecentSubmissionDTO dto = new RecentSubmissionDTO(
+                event.getSubmissionId(),
+                event.getProblemId(),
+                entry != null ? entry.getTitle() : null,
+                event.getLanguage().name(),
+                event.getStatus().name(),
+                event.getSubmittedAt());
+        dto.setSequence(sequence);
+        return dto;
+    }
+
+    private final class Waiter {
+        private final long after;
+        private final int limit;
+        private final DeferredResult<RecentSubmissionsDTO> result;
+
+        Waiter(long after, int limit, DeferredResult<RecentSubmissionsDTO> result) {
+            this.after = after;
+            this.limit = limit;
+            this.result = result;
+        }
+
+        /**
+         * Complete with new events if there are any; false if still waiting.
+         */
+        boolean tryComplete() {
+            if (result.isSetOrExpired()) {
+                return true;
+            }
+            RecentSubmissionsDTO events = read(after, limit);
+            if (events.getEvents().isEmpty() && !events.isGap()) {
+                return false;
+            }
+            result.setResult(events);
+            return true;
+        }
+    }
+}
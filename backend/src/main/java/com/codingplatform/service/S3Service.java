@@ -1,5 +1,7 @@
 package com.codingplatform.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,12 +15,14 @@ import software.amazon.awssdk.services.s3.model.S3Exception;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Service for S3 operations.
  * Fetches testcase files from S3 bucket.
  * Uses IAM Role authentication (no credentials in code).
+ * Each object fetch is timed in app.s3.fetch (tag outcome=success|error).
  */
 @Service
 public class S3Service {
@@ -27,10 +31,15 @@ public class S3Service {
 
     private final S3Client s3Client;
     private final String bucketName;
+    private final Timer fetchSuccess;
+    private final Timer fetchError;
 
-    public S3Service(S3Client s3Client, @Qualifier("s3BucketName") String bucketName) {
+    public S3Service(S3Client s3Client, @Qualifier("s3BucketName") String bucketName,
+                     MeterRegistry meterRegistry) {
         this.s3Client = s3Client;
         this.bucketName = bucketName;
+        this.fetchSuccess = fetchTimer(meterRegistry, "success");
+        this.fetchError = fetchTimer(meterRegistry, "error");
     }
 
     /**
@@ -43,6 +52,8 @@ public class S3Service {
     public String getFileContent(String s3Key) {
         logger.debug("Fetching S3 object: s3://{}/{}", bucketName, s3Key);
         
+        long start = System.nanoTime();
+        Timer timer = fetchError;
         try {
             GetObjectRequest request = GetObjectRequest.builder()
                     .bucket(bucketName)
@@ -53,7 +64,9 @@ public class S3Service {
             
             try (BufferedReader reader = new BufferedReader(
                     new InputStreamReader(response, StandardCharsets.UTF_8))) {
-                return reader.lines().collect(Collectors.joining("\n"));
+                String content = reader.lines().collect(Collectors.joining("\n"));
+                timer = fetchSuccess;
+                return content;
             }
             
         } catch (S3Exception e) {
@@ -62,6 +75,8 @@ public class S3Service {
         } catch (Exception e) {
             logger.error("Error fetching S3 object {}: {}", s3Key, e.getMessage());
             throw new S3ServiceException("Failed to read S3 object: " + s3Key, e);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -84,6 +99,14 @@ public class S3Service {
         return bucketName;
     }
 
+    private static Timer fetchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("app.s3.fetch")
+                .description("Time to fetch and read one S3 object")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     /**
      * Custom exception for S3 operations.
      */
@@ -0,0 +1,269 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.AnalyticsConfig;
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.dto.VerdictStatsDTO;
+import com.codingplatform.entity.SubmissionRollup;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.SubmissionRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for verdict analytics over the submission_rollups table.
+ *
+ * Committed verdicts are counted in memory per (hour, problem, language,
+ * status) and flushed every few seconds as one batch of upserts into the
+ * hourly and daily rows. A popular problem's hourly row is touched by every
+ * one of its submissions, so incrementing it inside each submitting
+ * transaction would serialize them on that row; batching turns thousands
+ * of increments into one. Counts still in the buffer when the process dies
+ * are lost; {@link SubmissionRollupBackfill} rebuilds any range exactly.
+ *
+ * Reads only touch the rollups, never the submissions table.
+ */
+@Service
+public class SubmissionAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionAnalyticsService.class);
+
+    static final String UPSERT_SQL =
+            "INSERT INTO submission_rollups (granularity, bucket_start, problem_id, language, status, submissions) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE submissions = submissions + VALUES(submissions)";
+
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(400);
+    private static final int PURGE_BATCH = 10_000;
+
+    private final SubmissionRollupRepository rollupRepository;
+    private final AnalyticsConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Bucket, Long> pending = new ConcurrentHashMap<>();
+
+    public SubmissionAnalyticsService(SubmissionRollupRepository rollupRepository,
+                                      AnalyticsConfig config,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Count a committed verdict; it reaches the table on the next flush.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        LocalDateTime at = event.getSubmittedAt() != null ? event.getSubmittedAt() : LocalDateTime.now();
+        Bucket bucket = new Bucket(at.truncatedTo(ChronoUnit.HOURS), event.getProblemId(),
+                event.getLanguage().name(), event.getStatus().name());
+        pending.merge(bucket, 1L, Long::sum);
+    }
+
+    /**
+     * Write buffered counts to the hourly and daily rollups.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${analytics.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() hands each count to exactly one flush; increments that
+        // arrive meanwhile start a fresh entry for the next one
+        Map<Bucket, Long> drained = new LinkedHashMap<>();
+        for (Bucket bucket : new ArrayList<>(pending.keySet())) {
+            Long count = pending.remove(bucket);
+            if (count != null) {
+                drained.put(bucket, count);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeIncrements(drained));
+        } catch (Exception e) {
+            logger.warn("Rollup flush of {} buckets failed, will retry: {}", drained.size(), e.getMessage());
+            drained.forEach((bucket, count) -> pending.merge(bucket, count, Long::sum));
+        }
+    }
+
+    /**
+     * Delete hourly rows older than the retention; daily rows are kept.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(cron = "${analytics.purge-cron:0 0 5 * * *}")
+    public void purgeHourly() {
+        LocalDateTime cutoff = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .minusDays(config.getHourlyRetentionDays());
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(
+                    "DELETE FROM submission_rollups WHERE granularity = ? AND bucket_start < ? LIMIT " + PURGE_BATCH,
+                    SubmissionRollup.HOUR, Timestamp.valueOf(cutoff));
+            deleted += batch;
+        } while (batch == PURGE_BATCH);
+        if (deleted > 0) {
+            logger.info("Purged {} hourly rollup rows before {}", deleted, cutoff);
+        }
+    }
+
+    /**
+     * Verdict distribution per time bucket in [from, to).
+     *
+     * @param granularity "hour" or "day"
+     * @param problemId   only this problem, or null for all
+     * @param language    only this language, or null for all
+     */
+    public List<VerdictStatsDTO> getSeries(String granularity, LocalDateTime from, LocalDateTime to,
+                                           String problemId, String language) {
+        checkRange(granularity, from, to);
+        List<VerdictStatsDTO> series = new ArrayList<>();
+        VerdictStatsDTO current = null;
+        LocalDateTime currentBucket = null;
+        // rows arrive ordered by bucket
+        for (Object[] row : rollupRepository.sumByBucket(granularity, from, to, problemId, language)) {
+            LocalDateTime bucket = (LocalDateTime) row[0];
+            if (!bucket.equals(currentBucket)) {
+                current = new VerdictStatsDTO(bucket.toString());
+                currentBucket = bucket;
+                series.add(current);
+            }
+            current.add((String) row[1], ((Number) row[2]).longValue());
+        }
+        return series;
+    }
+
+    /**
+     * Verdict distribution per problem or per language in [from, to),
+     * largest first. Day-aligned ranges are read from the daily rows.
+     *
+     * @param by        "problem" or "language"
+     * @param problemId with by=language, only this problem (null for all)
+     */
+    public List<VerdictStatsDTO> getBreakdown(String by, LocalDateTime from, LocalDateTime to, String problemId) {
+        String granularity = from.equals(from.truncatedTo(ChronoUnit.DAYS)) && to.equals(to.truncatedTo(ChronoUnit.DAYS))
+                ? SubmissionRollup.DAY : SubmissionRollup.HOUR;
+        checkRange(granularity, from, to);
+
+        List<Object[]> rows;
+        if ("problem".equals(by)) {
+            rows = rollupRepository.sumByProblem(granularity, from, to);
+        } else if ("language".equals(by)) {
+            rows = rollupRepository.sumByLanguage(granularity, from, to, problemId);
+        } else {
+            throw new IllegalArgumentException("Unsupported breakdown: " + by);
+        }
+
+        Map<String, VerdictStatsDTO> groups = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            groups.computeIfAbsent((String) row[0], VerdictStatsDTO::new)
+                    .add((String) row[1], ((Number) row[2]).longValue());
+        }
+        List<VerdictStatsDTO> result = new ArrayList<>(groups.values());
+        result.sort(Comparator.comparingLong(VerdictStatsDTO::getTotal).reversed()
+                .thenComparing(VerdictStatsDTO::getKey));
+        return result;
+    }
+
+    /**
+     * Upsert increments into both the hourly and the daily rows. Rows are
+     * written in key order so concurrent flushes cannot deadlock.
+     */
+    void writeIncrements(Map<Bucket, Long> increments) {
+        List<Object[]> args = new ArrayList<>(increments.size() * 2);
+        increments.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Bucket.ORDER))
+                .forEach(e -> args.add(e.getKey().toArgs(SubmissionRollup.HOUR, e.getValue())));
+        increments.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Bucket.ORDER))
+                .forEach(e -> args.add(e.getKey().toArgs(SubmissionRollup.DAY, e.getValue())));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    private static void checkRange(String granularity, LocalDateTime from, LocalDateTime to) {
+        Duration max;
+        if (SubmissionRollup.HOUR.equals(granularity)) {
+            max = MAX_HOURLY_RANGE;
+        } else if (SubmissionRollup.DAY.equals(granularity)) {
+            max = MAX_DAILY_RANGE;
+        } else {
+            throw new IllegalArgumentException("Unsupported granularity: " + granularity);
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(from, to).compareTo(max) > 0) {
+            throw new IllegalArgumentException("Range too large for " + granularity + " buckets (max "
+                    + max.toDays() + " days)");
+        }
+    }
+
+    /**
+     * One hour of submissions for a (problem, language, status).
+     */
+    static final class Bucket {
+
+        static final Comparator<Bucket> ORDER = Comparator.comparing((Bucket b) -> b.hour)
+                .thenComparing(b -> b.problemId)
+                .thenComparing(b -> b.language)
+                .thenComparing(b -> b.status);
+
+        final LocalDateTime hour;
+        final String problemId;
+        final String language;
+        final String status;
+
+        Bucket(LocalDateTime hour, String problemId, String language, String status) {
+            this.hour = hour;
+            this.problemId = problemId;
+            this.language = language;
+            this.status = status;
+        }
+
+        Object[] toArgs(String granularity, long count) {
+            LocalDateTime start = SubmissionRollup.DAY.equals(granularity)
+                    ? hour.truncatedTo(ChronoUnit.DAYS) : hour;
+            return new Object[] {granularity, Timestamp.valueOf(start), problemId, language, status, count};
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Bucket b)) return false;
+            return hour.equals(b.hour) && problemId.equals(b.problemId)
+                    && language.equals(b.language) && status.equals(b.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hour, problemId, language, status);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.codingplatform.service;
+
+import com.codingplatform.dto.SubmissionHistoryDTO;
+import com.codingplatform.entity.Submission.Language;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.entity.SubmissionArchiveSegment;
+import com.codingplatform.repository.SubmissionArchiveSegmentRepository;
+import com.codingplatform.storage.ArchiveStore;
+import com.codingplatform.storage.ArchivedSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a user's archived submissions.
+ *
+ * Each user's rows in an archived partition are one gzip member, located
+ * through submission_archive_segments, so a read fetches and decompresses
+ * only that user's bytes. Decoded segments are cached briefly, since a
+ * user paging through old history reads the same segment repeatedly.
+ */
+@Service
+public class SubmissionArchiveReader {
+
+    private final SubmissionArchiveSegmentRepository segmentRepository;
+    private final ArchiveStore archiveStore;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<SubmissionArchiveSegment.Key, List<ArchivedSubmission>> segments = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public SubmissionArchiveReader(SubmissionArchiveSegmentRepository segmentRepository,
+                                   ArchiveStore archiveStore,
+                                   ObjectMapper objectMapper) {
+        this.segmentRepository = segmentRepository;
+        this.archiveStore = archiveStore;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Up to {@code limit} archived history rows of a user, newest first,
+     * strictly before (beforeAt, beforeId) when given.
+     *
+     * @param problemId only rows for this problem, or null for all
+     */
+    public List<SubmissionHistoryDTO> readHistory(Long userId, String problemId,
+                                                  LocalDateTime beforeAt, Long beforeId, int limit) {
+        List<SubmissionHistoryDTO> result = new ArrayList<>();
+        for (SubmissionArchiveSegment segment : findSegments(userId, beforeAt)) {
+            for (ArchivedSubmission row : rows(segment)) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                if (problemId != null && !problemId.equals(row.getProblemId())) {
+                    continue;
+                }
+                if (beforeAt != null && !isBefore(row, beforeAt, beforeId)) {
+                    continue;
+                }
+                result.add(toDTO(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of archived rows of a user (for one problem when given).
+     */
+    public long count(Long userId, String problemId) {
+        if (problemId == null) {
+            return segmentRepository.sumRowCountByUserId(userId);
+        }
+        long count = 0;
+        for (SubmissionArchiveSegment segment : findSegments(userId, null)) {
+            count += rows(segment).stream().filter(r -> problemId.equals(r.getProblemId())).count();
+        }
+        return count;
+    }
+
+    /**
+     * Find one archived submission of a user.
+     */
+    public Optional<SubmissionHistoryDTO> findById(Long userId, Long submissionId) {
+        for (SubmissionArchiveSegment segment : segmentRepository.findByUserIdContaining(userId, submissionId)) {
+            for (ArchivedSubmission row : rows(segment)) {
+                if (submissionId.equals(row.getId())) {
+                    return Optional.of(toDTO(row));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Pass every archived row of a user (of one problem when given) to the
+     * consumer, newest first. Segments are decoded one at a time and not
+     * cached, for bulk reads such as exports.
+     */
+    public void forEach(Long userId, String problemId, Consumer<ArchivedSubmission> consumer) {
+        for (SubmissionArchiveSegment segment : findSegments(userId, null)) {
+            decode(segment, row -> {
+                if (problemId == null || problemId.equals(row.getProblemId())) {
+                    consumer.accept(row);
+                }
+            });
+        }
+    }
+
+    /**
+     * A user's segments, newest first, that may hold rows before the given
+     * time, or all of them. There is no "before everything" bound to pass
+     * instead: LocalDateTime.MAX is outside MySQL's DATETIME range.
+     */
+    private List<SubmissionArchiveSegment> findSegments(Long userId, LocalDateTime beforeAt) {
+        return beforeAt == null
+                ? segmentRepository.findByUserIdOrderByMaxSubmittedAtDesc(userId)
+                : segmentRepository.findByUserIdStartingBefore(userId, beforeAt);
+    }
+
+    private List<ArchivedSubmission> rows(SubmissionArchiveSegment segment) {
+        return segments.get(segment.getId(), key -> {
+            List<ArchivedSubmission> rows = new ArrayList<>(segment.getRowCount());
+            decode(segment, rows::add);
+            return rows;
+        });
+    }
+
+    private void decode(SubmissionArchiveSegment segment, Consumer<ArchivedSubmission> consumer) {
+        String partitionName = segment.getId().getPartitionName();
+        byte[] member = archiveStore.readRange(SubmissionArchiveService.objectKey(partitionName),
+                segment.getByteOffset(), segment.getByteLength());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(member)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    consumer.accept(objectMapper.readValue(line, ArchivedSubmission.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + partitionName, e);
+        }
+    }
+
+    private static boolean isBefore(ArchivedSubmission row, LocalDateTime at, Long id) {
+        int cmp = row.getSubmittedAt().compareTo(at);
+        return cmp < 0 || (cmp == 0 && id != null && row.getId() < id);
+    }
+
+    private static SubmissionHistoryDTO toDTO(ArchivedSubmission row) {
+        return new SubmissionHistoryDTO(row.getId(), row.getProblemId(),
+                Language.valueOf(row.getLanguage()), SubmissionStatus.valueOf(row.getStatus()),
+                row.getVerdict(), row.getPassedTests(), row.getTotalTests(), row.getSubmittedAt());
+    }
+}
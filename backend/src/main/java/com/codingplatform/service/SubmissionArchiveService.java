@@ -0,0 +1,417 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.ArchiveConfig;
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.entity.SubmissionArchive;
+import com.codingplatform.entity.SubmissionArchiveSegment;
+import com.codingplatform.entity.SubmissionArchiveSummary;
+import com.codingplatform.repository.SubmissionArchiveRepository;
+import com.codingplatform.repository.SubmissionArchiveSegmentRepository;
+import com.codingplatform.storage.ArchiveStore;
+import com.codingplatform.storage.ArchivedSubmission;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintenance of the monthly submissions partitions.
+ *
+ * A nightly job keeps partitions.ahead months of empty partitions in front
+ * of the current month, and moves partitions whose range ended more than
+ * archive.retain-months ago to cold storage: rows are streamed out of the
+ * partition into a gzip NDJSON file with one gzip member per user (rows
+ * newest first), the file is uploaded, the per-user byte ranges are
+ * recorded in submission_archive_segments, and only then is the partition
+ * dropped. Only one instance should run with archive.enabled.
+ *
+ * In the same transaction that records the archive, the partition's judged
+ * counts are added to submission_archive_summaries, per user, problem and
+ * language. Aggregates rebuilt from submissions add these summaries to the
+ * live rows: the problem_stats reconcile and first-solve checks, the
+ * leaderboard (rebuild and first-accept scoring) and user progress.
+ * History, exports and the analytics rollup backfill read the archive
+ * itself. The runtime/memory distributions and the recent submissions
+ * feed are live-only: they cover the last archive.retain-months.
+ * Between that commit and the partition drop, the rows are counted twice.
+ * The reconcile and rebuild jobs run before this job, so they do not see
+ * it.
+ */
+@Service
+public class SubmissionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionArchiveService.class);
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String SQL_DATETIME = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * Segment user id for anonymous submissions.
+     */
+    static final long ANONYMOUS_USER = 0L;
+
+    private final ArchiveConfig config;
+    private final ArchiveStore archiveStore;
+    private final SubmissionArchiveRepository archiveRepository;
+    private final SubmissionArchiveSegmentRepository segmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public SubmissionArchiveService(ArchiveConfig config,
+                                    ArchiveStore archiveStore,
+                                    SubmissionArchiveRepository archiveRepository,
+                                    SubmissionArchiveSegmentRepository segmentRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    DataSource dataSource,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper) {
+        this.config = config;
+        this.archiveStore = archiveStore;
+        this.archiveRepository = archiveRepository;
+        this.segmentRepository = segmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+
+        // MySQL Connector/J streams rows one by one with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Object key of a partition's archive file.
+     */
+    public static String objectKey(String partitionName) {
+        return "submissions/" + partitionName + ".ndjson.gz";
+    }
+
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(cron = "${archive.cron:0 15 4 * * *}")
+    public void maintain() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            List<Partition> partitions = listPartitions();
+            if (partitions.isEmpty()) {
+                logger.warn("submissions is not partitioned; run scripts/migration_partition_submissions.sql");
+                return;
+            }
+            addFuturePartitions(partitions);
+            archiveOldPartitions(listPartitions());
+        } catch (Exception e) {
+            logger.error("Submission partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Split pmax so that monthly partitions exist up to partitions-ahead
+     * months after the current one.
+     */
+    void addFuturePartitions(List<Partition> partitions) {
+        LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(config.getPartitionsAhead() + 1L);
+        LocalDate end = partitions.stream()
+                .map(Partition::getRangeEnd)
+                .filter(Objects::nonNull)
+                .map(LocalDateTime::toLocalDate)
+                .max(LocalDate::compareTo)
+                .orElse(LocalDate.now().withDayOfMonth(1));
+
+        while (end.isBefore(target)) {
+            LocalDate next = end.plusMonths(1);
+            String name = "p" + end.format(PARTITION_MONTH);
+            jdbcTemplate.execute("ALTER TABLE submissions REORGANIZE PARTITION pmax INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN (UNIX_TIMESTAMP('" +
+                    next.atStartOfDay().format(DateTimeFormatter.ofPattern(SQL_DATETIME)) + "')), " +
+                    "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            logger.info("Added submissions partition {}", name);
+            end = next;
+        }
+    }
+
+    void archiveOldPartitions(List<Partition> partitions) {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1)
+                .minusMonths(config.getRetainMonths()).atStartOfDay();
+        for (Partition partition : partitions) {
+            if (partition.getRangeEnd() != null && !partition.getRangeEnd().isAfter(cutoff)) {
+                archivePartition(partition);
+            }
+        }
+    }
+
+    /**
+     * Archive one partition and drop it. Safe to re-run: a partition that
+     * is already recorded as archived is only dropped once its row count
+     * matches the archive.
+     */
+    void archivePartition(Partition partition) {
+        String name = partition.getName();
+        long liveRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM submissions PARTITION (" + name + ")", Long.class);
+
+        SubmissionArchive existing = archiveRepository.findById(name).orElse(null);
+        if (existing != null) {
+            if (existing.getRowCount() == liveRows) {
+                dropPartition(name);
+            } else {
+                logger.error("Partition {} has {} rows but its archive has {}; not dropping",
+                        name, liveRows, existing.getRowCount());
+            }
+            return;
+        }
+
+        if (hasInlineCode(name)) {
+            logger.warn("Partition {} still has inline code; run the code blob migration first", name);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Path file = null;
+        try {
+            file = Files.createTempFile(Path.of(config.getWorkDir()), name, ".ndjson.gz");
+            SegmentWriter writer;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                writer = new SegmentWriter(name, out);
+                streamingJdbcTemplate.query(
+                        "SELECT id, user_id, problem_id, language, code_hash, status, verdict, " +
+                        "passed_tests, total_tests, execution_time_ms, memory_used_kb, error_message, submitted_at " +
+                        "FROM submissions PARTITION (" + name + ") " +
+                        "ORDER BY user_id DESC, submitted_at DESC, id DESC",
+                        writer::accept);
+                writer.flushSegment();
+            }
+
+            if (writer.rows != liveRows) {
+                logger.error("Partition {} changed while archiving ({} rows read, {} expected); retrying next run",
+                        name, writer.rows, liveRows);
+                return;
+            }
+
+            String key = objectKey(name);
+            archiveStore.put(key, file);
+            long size = Files.size(file);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                summarizePartition(name);
+                archiveRepository.save(new SubmissionArchive(name, key, partition.getRangeEnd(), writer.rows, size));
+                segmentRepository.saveAll(writer.segments);
+            });
+            dropPartition(name);
+
+            logger.info("Archived partition {}: {} rows, {} users, {} bytes in {} ms",
+                    name, writer.rows, writer.segments.size(), size, System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive partition " + name, e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // temp file
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a partition's judged submissions to submission_archive_summaries:
+     * one row per user, problem and language, and one per user and problem
+     * for all languages. Partitions are archived oldest first, so a first
+     * accept already recorded stays the first, and the failures of later
+     * partitions only count toward the penalty while there is none.
+     */
+    private void summarizePartition(String name) {
+        jdbcTemplate.update(summarySql(name, "s.language", true));
+        jdbcTemplate.update(summarySql(name, "'" + SubmissionArchiveSummary.ALL_LANGUAGES + "'", false));
+    }
+
+    private static String summarySql(String partitionName, String language, boolean perLanguage) {
+        String groupLanguage = perLanguage ? ", language" : "";
+        return "INSERT INTO submission_archive_summaries " +
+                "(user_id, problem_id, language, judged, accepted, first_accepted_id, failed_before_accept) " +
+                "SELECT COALESCE(s.user_id, " + ANONYMOUS_USER + "), s.problem_id, " + language + ", COUNT(*), " +
+                "SUM(s.status = 'ACCEPTED'), MIN(f.first_id), " +
+                "SUM(s.status <> 'ACCEPTED' AND (f.first_id IS NULL OR s.id < f.first_id)) " +
+                "FROM submissions PARTITION (" + partitionName + ") s LEFT JOIN (" +
+                "SELECT user_id, problem_id" + groupLanguage + ", MIN(id) AS first_id " +
+                "FROM submissions PARTITION (" + partitionName + ") WHERE status = 'ACCEPTED' " +
+                "GROUP BY user_id, problem_id" + groupLanguage +
+                ") f ON f.user_id <=> s.user_id AND f.problem_id = s.problem_id" +
+                (perLanguage ? " AND f.language = s.language" : "") + " " +
+                "WHERE s.status NOT IN ('QUEUED', 'RUNNING') AND (s.verdict IS NULL OR s.verdict <> 'Error') " +
+                "GROUP BY COALESCE(s.user_id, " + ANONYMOUS_USER + "), s.problem_id" +
+                (perLanguage ? ", s.language" : "") + " " +
+                // failed_before_accept is assigned first, so it still sees the old first_accepted_id
+                "ON DUPLICATE KEY UPDATE " +
+                "failed_before_accept = IF(first_accepted_id IS NULL, " +
+                "failed_before_accept + VALUES(failed_before_accept), failed_before_accept), " +
+                "first_accepted_id = COALESCE(first_accepted_id, VALUES(first_accepted_id)), " +
+                "judged = judged + VALUES(judged), accepted = accepted + VALUES(accepted)";
+    }
+
+    private void dropPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE submissions DROP PARTITION " + name);
+        logger.info("Dropped submissions partition {}", name);
+    }
+
+    /**
+     * Whether the legacy inline code column still holds code in this partition.
+     */
+    private boolean hasInlineCode(String partitionName) {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+                "AND TABLE_NAME = 'submissions' AND COLUMN_NAME = 'code'", Integer.class);
+        if (columns == null || columns == 0) {
+            return false;
+        }
+        Long inline = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM submissions PARTITION (" + partitionName + ") " +
+                "WHERE code_hash IS NULL AND code IS NOT NULL", Long.class);
+        return inline != null && inline > 0;
+    }
+
+    List<Partition> listPartitions() {
+        return jdbcTemplate.query(
+                "SELECT PARTITION_NAME, " +
+                "CASE WHEN PARTITION_DESCRIPTION = 'MAXVALUE' THEN NULL " +
+                "ELSE FROM_UNIXTIME(PARTITION_DESCRIPTION) END AS range_end " +
+                "FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'submissions' " +
+                "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION",
+                (rs, rowNum) -> {
+                    Timestamp end = rs.getTimestamp("range_end");
+                    return new Partition(rs.getString("PARTITION_NAME"),
+                            end != null ? end.toLocalDateTime() : null);
+                });
+    }
+
+    /**
+     * Writes rows grouped by user as gzip members and records their ranges.
+     */
+    private final class SegmentWriter {
+        private final String partitionName;
+        private final OutputStream out;
+        private final List<SubmissionArchiveSegment> segments = new ArrayList<>();
+        private long offset;
+        private long rows;
+
+        private Long currentUser;
+        private ByteArrayOutputStream buffer;
+        private GZIPOutputStream gzip;
+        private SubmissionArchiveSegment segment;
+
+        SegmentWriter(String partitionName, OutputStream out) {
+            this.partitionName = partitionName;
+            this.out = out;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            ArchivedSubmission row = new ArchivedSubmission();
+            row.setId(rs.getLong("id"));
+            row.setUserId(rs.getObject("user_id", Long.class));
+            row.setProblemId(rs.getString("problem_id"));
+            row.setLanguage(rs.getString("language"));
+            row.setCodeHash(rs.getString("code_hash"));
+            row.setStatus(rs.getString("status"));
+            row.setVerdict(rs.getString("verdict"));
+            row.setPassedTests(rs.getObject("passed_tests", Integer.class));
+            row.setTotalTests(rs.getObject("total_tests", Integer.class));
+            row.setExecutionTimeMs(rs.getObject("execution_time_ms", Integer.class));
+            row.setMemoryUsedKb(rs.getObject("memory_used_kb", Integer.class));
+            row.setErrorMessage(rs.getString("error_message"));
+            row.setSubmittedAt(rs.getTimestamp("submitted_at").toLocalDateTime());
+
+            long userId = row.getUserId() != null ? row.getUserId() : ANONYMOUS_USER;
+            try {
+                if (currentUser == null || currentUser != userId) {
+                    flushSegment();
+                    startSegment(userId);
+                }
+                gzip.write(objectMapper.writeValueAsBytes(row));
+                gzip.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            rows++;
+            segment.setRowCount(segment.getRowCount() + 1);
+            segment.setMinId(Math.min(segment.getMinId(), row.getId()));
+            segment.setMaxId(Math.max(segment.getMaxId(), row.getId()));
+            if (row.getSubmittedAt().isBefore(segment.getMinSubmittedAt())) {
+                segment.setMinSubmittedAt(row.getSubmittedAt());
+            }
+            if (row.getSubmittedAt().isAfter(segment.getMaxSubmittedAt())) {
+                segment.setMaxSubmittedAt(row.getSubmittedAt());
+            }
+        }
+
+        private void startSegment(long userId) throws IOException {
+            currentUser = userId;
+            buffer = new ByteArrayOutputStream();
+            gzip = new GZIPOutputStream(buffer);
+            segment = new SubmissionArchiveSegment();
+            segment.setId(new SubmissionArchiveSegment.Key(userId, partitionName));
+            segment.setRowCount(0);
+            segment.setMinId(Long.MAX_VALUE);
+            segment.setMaxId(Long.MIN_VALUE);
+            segment.setMinSubmittedAt(LocalDateTime.MAX);
+            segment.setMaxSubmittedAt(LocalDateTime.MIN);
+        }
+
+        void flushSegment() throws IOException {
+            if (segment == null) {
+                return;
+            }
+            gzip.finish();
+            byte[] member = buffer.toByteArray();
+            out.write(member);
+            segment.setByteOffset(offset);
+            segment.setByteLength(member.length);
+            offset += member.length;
+            segments.add(segment);
+            segment = null;
+        }
+    }
+
+    /**
+     * A submissions partition and the exclusive end of its range
+     * (null for the catch-all pmax partition).
+     */
+    static final class Partition {
+        private final String name;
+        private final LocalDateTime rangeEnd;
+
+        Partition(String name, LocalDateTime rangeEnd) {
+            this.name = name;
+            this.rangeEnd = rangeEnd;
+        }
+
+        String getName() { return name; }
+
+        LocalDateTime getRangeEnd() { return rangeEnd; }
+    }
+}
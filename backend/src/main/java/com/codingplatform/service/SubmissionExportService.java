@@ -0,0 +1,334 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.ExportConfig;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.datasource.WorkloadContext;
+import com.codingplatform.storage.ArchivedSubmission;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for exporting a user's complete submission history.
+ *
+ * Live rows are read through a forward-only streaming cursor (MySQL sends
+ * rows as they are consumed) and written straight to the response, followed
+ * by the user's archived rows one segment at a time, so memory use does not
+ * depend on the number of rows. Rows are newest first.
+ *
+ * A streaming cursor pins its connection until the download finishes, so
+ * only a few exports may run at once; callers get {@link ExportBusyException}
+ * beyond that.
+ */
+@Service
+public class SubmissionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionExportService.class);
+
+    private static final String[] COLUMNS = {
+            "id", "problemId", "problemTitle", "language", "status", "verdict",
+            "passedTests", "totalTests", "executionTimeMs", "memoryUsedKb", "errorMessage", "submittedAt"
+    };
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final SubmissionArchiveReader archiveReader;
+    private final CodeStorageService codeStorageService;
+    private final ProblemCatalog problemCatalog;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+
+    public SubmissionExportService(DataSource dataSource,
+                                   SubmissionArchiveReader archiveReader,
+                                   CodeStorageService codeStorageService,
+                                   ProblemCatalog problemCatalog,
+                                   ObjectMapper objectMapper,
+                                   ExportConfig config) {
+        this.archiveReader = archiveReader;
+        this.codeStorageService = codeStorageService;
+        this.problemCatalog = problemCatalog;
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(config.getMaxConcurrent());
+
+        // MySQL Connector/J streams rows one by one with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    /**
+     * Reserve an export slot. The returned export releases the slot once
+     * written; a caller that may not get to write it (the response is
+     * abandoned, times out or fails first) must also release it then.
+     *
+     * @throws ExportBusyException if the maximum number of exports is running
+     */
+    public Export begin(Long userId, String problemId, Format format, boolean gzip, boolean includeCode) {
+        if (!permits.tryAcquire()) {
+            throw new ExportBusyException("Too many exports in progress, try again shortly");
+        }
+        return new Export(userId, problemId, format, gzip, includeCode);
+    }
+
+    /**
+     * A reserved export of one user's submissions.
+     */
+    public final class Export {
+        private final Long userId;
+        private final String problemId;
+        private final Format format;
+        private final boolean gzip;
+        private final boolean includeCode;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Export(Long userId, String problemId, Format format, boolean gzip, boolean includeCode) {
+            this.userId = userId;
+            this.problemId = problemId;
+            this.format = format;
+            this.gzip = gzip;
+            this.includeCode = includeCode;
+        }
+
+        /**
+         * Write all rows to the stream and release the export slot.
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            long start = System.currentTimeMillis();
+            long[] rows = {0};
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+                RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+
+                rowWriter.begin();
+                try {
+                    streamLiveRows(row -> {
+                        rowWriter.write(row, codeOf(row));
+                        rows[0]++;
+                    });
+                    archiveReader.forEach(userId, problemId, row -> {
+                        rowWriter.write(row, codeOf(row));
+                        rows[0]++;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                rowWriter.end();
+                writer.flush();
+                if (target instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+                logger.info("Exported {} submissions of user {} in {} ms",
+                        rows[0], userId, System.currentTimeMillis() - start);
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Release the export slot; only the first call has an effect.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        private void streamLiveRows(Consumer<ArchivedSubmission> consumer) {
+            String sql = "SELECT id, problem_id, language, code_hash, status, verdict, passed_tests, total_tests, " +
+                    "execution_time_ms, memory_used_kb, error_message, submitted_at FROM submissions " +
+                    "WHERE user_id = ?" + (problemId != null ? " AND problem_id = ?" : "") +
+                    " ORDER BY submitted_at DESC, id DESC";
+            Object[] args = problemId != null ? new Object[] {userId, problemId} : new Object[] {userId};
+            // The stream holds its connection for the whole download, so it is kept off the
+            // interactive pools; per-row work (code loads) is routed as usual
+            WorkloadContext.runAs(Workload.BACKGROUND, () ->
+                    streamingJdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                        ArchivedSubmission row = toRow(rs);
+                        WorkloadContext.runAs(null, () -> consumer.accept(row));
+                    }, args));
+        }
+
+        private String codeOf(ArchivedSubmission row) {
+            if (!includeCode || row.getCodeHash() == null) {
+                return null;
+            }
+            try {
+                return codeStorageService.load(row.getCodeHash());
+            } catch (CodeStorageService.CodeStorageException e) {
+                logger.warn("Export of submission {}: {}", row.getId(), e.getMessage());
+                return null;
+            }
+        }
+
+        private abstract class RowWriter {
+            final Writer writer;
+
+            RowWriter(Writer writer) {
+                this.writer = writer;
+            }
+
+            void begin() throws IOException {}
+
+            abstract void write(ArchivedSubmission row, String code);
+
+            void end() throws IOException {}
+
+            List<Object> values(ArchivedSubmission row) {
+                ProblemCatalog.Entry entry = problemCatalog.getSnapshot().get(row.getProblemId());
+                List<Object> values = new ArrayList<>(COLUMNS.length);
+                values.add(row.getId());
+                values.add(row.getProblemId());
+                values.add(entry != null ? entry.getTitle() : null);
+                values.add(row.getLanguage());
+                values.add(row.getStatus());
+                values.add(row.getVerdict());
+                values.add(row.getPassedTests());
+                values.add(row.getTotalTests());
+                values.add(row.getExecutionTimeMs());
+                values.add(row.getMemoryUsedKb());
+                values.add(row.getErrorMessage());
+                values.add(row.getSubmittedAt() != null ? row.getSubmittedAt().toString() : null);
+                return values;
+            }
+        }
+
+        /**
+         * One JSON object per line.
+         */
+        private final class JsonRowWriter extends RowWriter {
+            private final JsonGenerator generator;
+
+            JsonRowWriter(Writer writer) throws IOException {
+                super(writer);
+                this.generator = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            }
+
+            @Override
+            void write(ArchivedSubmission row, String code) {
+                try {
+                    List<Object> values = values(row);
+                    generator.writeStartObject();
+                    for (int i = 0; i < COLUMNS.length; i++) {
+                        generator.writeObjectField(COLUMNS[i], values.get(i));
+                    }
+                    if (includeCode) {
+                        generator.writeStringField("code", code);
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            void end() throws IOException {
+                generator.flush();
+            }
+        }
+
+        /**
+         * RFC 4180 CSV with a header row.
+         */
+        private final class CsvRowWriter extends RowWriter {
+
+            CsvRowWriter(Writer writer) {
+                super(writer);
+            }
+
+            @Override
+            void begin() throws IOException {
+                writer.write(String.join(",", COLUMNS));
+                if (includeCode) {
+                    writer.write(",code");
+                }
+                writer.write("\r\n");
+            }
+
+            @Override
+            void write(ArchivedSubmission row, String code) {
+                try {
+                    List<Object> values = values(row);
+                    for (int i = 0; i < values.size(); i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writeField(values.get(i));
+                    }
+                    if (includeCode) {
+                        writer.write(',');
+                        writeField(code);
+                    }
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            private void writeField(Object value) throws IOException {
+                if (value == null) {
+                    return;
+                }
+                String text = value.toString();
+                if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                        && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                    writer.write(text);
+                    return;
+                }
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+    }
+
+    private static ArchivedSubmission toRow(ResultSet rs) throws SQLException {
+        ArchivedSubmission row = new ArchivedSubmission();
+        row.setId(rs.getLong("id"));
+        row.setProblemId(rs.getString("problem_id"));
+        row.setLanguage(rs.getString("language"));
+        row.setCodeHash(rs.getString("code_hash"));
+        row.setStatus(rs.getString("status"));
+        row.setVerdict(rs.getString("verdict"));
+        row.setPassedTests(rs.getObject("passed_tests", Integer.class));
+        row.setTotalTests(rs.getObject("total_tests", Integer.class));
+        row.setExecutionTimeMs(rs.getObject("execution_time_ms", Integer.class));
+        row.setMemoryUsedKb(rs.getObject("memory_used_kb", Integer.class));
+        row.setErrorMessage(rs.getString("error_message"));
+        Timestamp submittedAt = rs.getTimestamp("submitted_at");
+        row.setSubmittedAt(submittedAt != null ? submittedAt.toLocalDateTime() : null);
+        return row;
+    }
+
+    public static class ExportBusyException extends RuntimeException {
+        public ExportBusyException(String message) {
+            super(message);
+        }
+    }
+}
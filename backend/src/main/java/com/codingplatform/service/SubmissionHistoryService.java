@@ -2,80 +2,231 @@ package com.codingplatform.service;
 
 import com.codingplatform.dto.SubmissionHistoryDTO;
 import com.codingplatform.dto.PaginatedResponse;
-import com.codingplatform.entity.Submission;
+import com.codingplatform.entity.Problem;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.ProblemRepository;
 import com.codingplatform.repository.SubmissionRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import com.codingplatform.util.CursorCodec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Service for a user's submission history.
+ *
+ * Pages are seeked on (submitted_at, id) with an opaque cursor instead of
+ * offsets, so each page is one index range scan regardless of depth.
+ * Total counts are only computed on request and cached briefly.
+ *
+ * Rows are read as DTO projections (no code column, no problem join) and
+ * problem titles come from the in-memory catalog, so a page is one query.
+ *
+ * Months that have been moved to cold storage are read through
+ * {@link SubmissionArchiveReader} once the live table runs out of rows,
+ * so cursors page seamlessly from live rows into archived ones.
+ *
+ * Reads run in read-only transactions, so they are served by a read
+ * replica when replicas are configured.
+ */
 @Service
 public class SubmissionHistoryService {
-    
+
     private final SubmissionRepository submissionRepository;
-    
-    public SubmissionHistoryService(SubmissionRepository submissionRepository) {
+    private final ProblemRepository problemRepository;
+    private final ProblemCatalog problemCatalog;
+    private final SubmissionArchiveReader archiveReader;
+
+    private final Cache<String, Long> totalCounts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
+
+    public SubmissionHistoryService(SubmissionRepository submissionRepository,
+                                    ProblemRepository problemRepository,
+                                    ProblemCatalog problemCatalog,
+                                    SubmissionArchiveReader archiveReader) {
         this.submissionRepository = submissionRepository;
+        this.problemRepository = problemRepository;
+        this.problemCatalog = problemCatalog;
+        this.archiveReader = archiveReader;
     }
-    
+
+    @Transactional(readOnly = true)
     public PaginatedResponse<SubmissionHistoryDTO> getUserSubmissions(
-            Long userId, int page, int size) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Submission> submissions = submissionRepository
-                .findByUserIdOrderBySubmittedAtDesc(userId, pageable);
-        
-        return convertToPaginatedResponse(submissions);
+            Long userId, String cursor, int size, boolean includeTotal) {
+
+        Limit limit = Limit.of(size + 1);
+        List<SubmissionHistoryDTO> rows;
+        Key key = cursor == null ? null : Key.decode(cursor);
+        if (key == null) {
+            rows = submissionRepository.findLatestByUserId(userId, limit);
+        } else {
+            rows = submissionRepository.findByUserIdBefore(userId, key.submittedAt, key.id, limit);
+        }
+        rows = withArchived(rows, userId, null, key, size + 1);
+
+        PaginatedResponse<SubmissionHistoryDTO> response = toPage(rows, cursor, size);
+        if (includeTotal) {
+            response.setTotalElements(totalCounts.get(String.valueOf(userId),
+                    k -> submissionRepository.countByUserId(userId) + archiveReader.count(userId, null)));
+        }
+        return response;
     }
-    
+
+    @Transactional(readOnly = true)
     public PaginatedResponse<SubmissionHistoryDTO> getUserSubmissionsForProblem(
-            Long userId, String problemId, int page, int size) {
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Submission> submissions = submissionRepository
-                .findByUserIdAndProblemIdOrderBySubmittedAtDesc(userId, problemId, pageable);
-        
-        return convertToPaginatedResponse(submissions);
+            Long userId, String problemId, String cursor, int size, boolean includeTotal) {
+
+        Limit limit = Limit.of(size + 1);
+        List<SubmissionHistoryDTO> rows;
+        Key key = cursor == null ? null : Key.decode(cursor);
+        if (key == null) {
+            rows = submissionRepository.findLatestByUserIdAndProblemId(userId, problemId, limit);
+        } else {
+            rows = submissionRepository.findByUserIdAndProblemIdBefore(
+                    userId, problemId, key.submittedAt, key.id, limit);
+        }
+        rows = withArchived(rows, userId, problemId, key, size + 1);
+
+        PaginatedResponse<SubmissionHistoryDTO> response = toPage(rows, cursor, size);
+        if (includeTotal) {
+            response.setTotalElements(totalCounts.get(userId + ":" + problemId,
+                    k -> submissionRepository.countByUserIdAndProblemId(userId, problemId)
+                            + archiveReader.count(userId, problemId)));
+        }
+        return response;
     }
-    
+
+    @Transactional(readOnly = true)
     public SubmissionHistoryDTO getSubmission(Long submissionId, Long userId) {
-        Submission submission = submissionRepository
-                .findByIdAndUserId(submissionId, userId)
+        SubmissionHistoryDTO dto = submissionRepository
+                .findHistoryByIdAndUserId(submissionId, userId)
+                .or(() -> archiveReader.findById(userId, submissionId))
                 .orElseThrow(() -> new IllegalArgumentException("Submission not found"));
-        
-        return convertToDTO(submission);
+
+        fillProblemTitles(List.of(dto));
+        return dto;
     }
-    
-    private PaginatedResponse<SubmissionHistoryDTO> convertToPaginatedResponse(
-            Page<Submission> page) {
-        
-        var content = page.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        
-        return new PaginatedResponse<>(
-                content,
-                page.getNumber(),
-                page.getSize(),
-                page.getTotalElements(),
-                page.getTotalPages()
-        );
+
+    /**
+     * Drop cached totals once a user's new submission is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.getUserId() != null) {
+            totalCounts.invalidate(String.valueOf(event.getUserId()));
+            totalCounts.invalidate(event.getUserId() + ":" + event.getProblemId());
+        }
     }
-    
-    private SubmissionHistoryDTO convertToDTO(Submission submission) {
-        SubmissionHistoryDTO dto = new SubmissionHistoryDTO();
-        dto.setId(submission.getId());
-        dto.setProblemId(submission.getProblem().getId());
-        dto.setProblemTitle(submission.getProblem().getTitle());
-        dto.setLanguage(submission.getLanguage().name());
-        dto.setStatus(submission.getStatus().name());
-        dto.setVerdict(submission.getVerdict());
-        dto.setPassedTests(submission.getPassedTests() != null ? submission.getPassedTests() : 0);
-        dto.setTotalTests(submission.getTotalTests() != null ? submission.getTotalTests() : 0);
-        dto.setSubmittedAt(submission.getSubmittedAt());
-        return dto;
+
+    /**
+     * Top up a short page of live rows with archived rows older than the
+     * last live row (or the cursor position when there were none).
+     */
+    private List<SubmissionHistoryDTO> withArchived(List<SubmissionHistoryDTO> rows, Long userId,
+                                                    String problemId, Key key, int wanted) {
+        if (rows.size() >= wanted) {
+            return rows;
+        }
+        LocalDateTime beforeAt = key == null ? null : key.submittedAt;
+        Long beforeId = key == null ? null : key.id;
+        if (!rows.isEmpty()) {
+            SubmissionHistoryDTO last = rows.get(rows.size() - 1);
+            beforeAt = last.getSubmittedAt();
+            beforeId = last.getId();
+        }
+        List<SubmissionHistoryDTO> archived = archiveReader.readHistory(
+                userId, problemId, beforeAt, beforeId, wanted - rows.size());
+        if (archived.isEmpty()) {
+            return rows;
+        }
+        List<SubmissionHistoryDTO> merged = new ArrayList<>(rows);
+        merged.addAll(archived);
+        return merged;
+    }
+
+    /**
+     * Build a keyset page from up to size + 1 rows; the extra row only
+     * signals that another page exists.
+     */
+    private PaginatedResponse<SubmissionHistoryDTO> toPage(
+            List<SubmissionHistoryDTO> rows, String cursor, int size) {
+
+        boolean more = rows.size() > size;
+        List<SubmissionHistoryDTO> content = more ? rows.subList(0, size) : rows;
+        fillProblemTitles(content);
+
+        String nextCursor = null;
+        if (more) {
+            SubmissionHistoryDTO last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getSubmittedAt().toString(), last.getId().toString());
+        }
+
+        return new PaginatedResponse<>(content, size, cursor != null, nextCursor);
     }
-}
 
+    /**
+     * Set problem titles from the catalog snapshot. Problems added since
+     * the last catalog refresh are looked up in one batch query.
+     */
+    private void fillProblemTitles(List<SubmissionHistoryDTO> rows) {
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        Set<String> missing = new HashSet<>();
+        for (SubmissionHistoryDTO row : rows) {
+            ProblemCatalog.Entry entry = snapshot.get(row.getProblemId());
+            if (entry != null) {
+                row.setProblemTitle(entry.getTitle());
+            } else {
+                missing.add(row.getProblemId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> titles = new HashMap<>();
+        for (Problem problem : problemRepository.findAllById(missing)) {
+            titles.put(problem.getId(), problem.getTitle());
+        }
+        for (SubmissionHistoryDTO row : rows) {
+            if (row.getProblemTitle() == null) {
+                row.setProblemTitle(titles.get(row.getProblemId()));
+            }
+        }
+    }
+
+    /**
+     * Keyset position: the (submittedAt, id) of the last row on a page.
+     */
+    private static final class Key {
+        private final LocalDateTime submittedAt;
+        private final Long id;
+
+        private Key(LocalDateTime submittedAt, Long id) {
+            this.submittedAt = submittedAt;
+            this.id = id;
+        }
+
+        static Key decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                return new Key(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
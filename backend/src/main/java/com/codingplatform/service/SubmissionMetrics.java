@@ -0,0 +1,73 @@
+package com.codingplatform.service;
+
+import com.codingplatform.entity.Problem.Difficulty;
+import com.codingplatform.entity.Submission.Language;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Latency of each stage of a submission, for telling a slow database from
+ * slow S3 or a slow judge.
+ *
+ * Stages are recorded in app.submission.stage (tags: stage, language,
+ * difficulty) with percentile histogram buckets, so latency percentiles can
+ * be aggregated across instances in Prometheus. Failed stages are recorded
+ * too. app.judge.in_flight counts judge calls currently waiting on the
+ * judge service.
+ */
+@Component
+public class SubmissionMetrics {
+
+    /**
+     * Stages of JudgeService.submitCode, in order.
+     */
+    public enum Stage {
+        CODE_STORE, DB_INSERT, TESTCASE_LOOKUP, JUDGE_CALL, VERDICT_PERSIST;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger judgeInFlight = new AtomicInteger();
+
+    public SubmissionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("app.judge.in_flight", judgeInFlight, AtomicInteger::get)
+                .description("Judge calls waiting on the judge service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run one stage and record its duration, whether it succeeds or throws.
+     */
+    public <T> T time(Stage stage, Language language, Difficulty difficulty, Supplier<T> work) {
+        Timer timer = Timer.builder("app.submission.stage")
+                .description("Duration of one stage of a submission")
+                .tag("stage", stage.tag)
+                .tag("language", language != null ? language.name() : "unknown")
+                .tag("difficulty", difficulty != null ? difficulty.name() : "unknown")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        boolean judging = stage == Stage.JUDGE_CALL;
+        if (judging) {
+            judgeInFlight.incrementAndGet();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (judging) {
+                judgeInFlight.decrementAndGet();
+            }
+        }
+    }
+}
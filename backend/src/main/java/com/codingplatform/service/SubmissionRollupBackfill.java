@@ -0,0 +1,223 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.AnalyticsConfig;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.datasource.WorkloadContext;
+import com.codingplatform.entity.SubmissionRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds submission rollups for a time range from the submissions table.
+ *
+ * The range is cut into one-day slices that are aggregated in parallel.
+ * Each slice streams its rows through a forward-only cursor (an index range
+ * scan on submitted_at within one partition) and counts them in memory, so
+ * the database never sorts or builds a temporary table. A slice then
+ * replaces its rollup rows in one transaction, which makes the job
+ * idempotent and safe to re-run over any range.
+ *
+ * Hours newer than a few minutes are left to the live counters, and months
+ * already archived out of the submissions table are skipped so their
+ * rollups are never wiped. Enabled at startup with analytics.backfill.enabled.
+ */
+@Service
+public class SubmissionRollupBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionRollupBackfill.class);
+
+    // Verdicts newer than this may still sit in the live flush buffer
+    private static final long SETTLE_MINUTES = 5;
+
+    private final AnalyticsConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SubmissionRollupBackfill(AnalyticsConfig config,
+                                    JdbcTemplate jdbcTemplate,
+                                    DataSource dataSource,
+                                    TransactionTemplate transactionTemplate) {
+        this.config = config;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        // MySQL Connector/J streams rows one by one with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isBackfillEnabled()) {
+            LocalDateTime to = LocalDateTime.now();
+            LocalDateTime from = to.truncatedTo(ChronoUnit.DAYS).minusDays(config.getBackfillDays());
+            Thread thread = new Thread(() -> WorkloadContext.runAs(Workload.BACKGROUND, () -> backfill(from, to)),
+                    "rollup-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Recompute hourly and daily rollups for [from, to).
+     */
+    public void backfill(LocalDateTime from, LocalDateTime to) {
+        long start = System.currentTimeMillis();
+        LocalDateTime settled = LocalDateTime.now().minusMinutes(SETTLE_MINUTES).truncatedTo(ChronoUnit.HOURS);
+        if (to.isAfter(settled)) {
+            to = settled;
+        }
+        Timestamp oldestLive = jdbcTemplate.queryForObject("SELECT MIN(submitted_at) FROM submissions", Timestamp.class);
+        if (oldestLive == null) {
+            logger.info("Rollup backfill: no submissions");
+            return;
+        }
+        // archived partitions end on month boundaries, so the first live day is complete
+        LocalDateTime liveFrom = oldestLive.toLocalDateTime().truncatedTo(ChronoUnit.DAYS);
+        from = (from.isBefore(liveFrom) ? liveFrom : from).truncatedTo(ChronoUnit.DAYS);
+        to = to.truncatedTo(ChronoUnit.HOURS);
+        if (!from.isBefore(to)) {
+            return;
+        }
+
+        LocalDateTime hourlyCutoff = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .minusDays(config.getHourlyRetentionDays());
+        List<Slice> slices = new ArrayList<>();
+        for (LocalDateTime day = from; day.isBefore(to); day = day.plusDays(1)) {
+            LocalDateTime end = day.plusDays(1).isAfter(to) ? to : day.plusDays(1);
+            slices.add(new Slice(day, end, !day.isBefore(hourlyCutoff)));
+        }
+
+        logger.info("Rollup backfill started: {} days from {} to {}", slices.size(), from, to);
+        int threads = Math.max(1, Math.min(config.getBackfillParallelism(), slices.size()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(() -> WorkloadContext.runAs(Workload.BACKGROUND, r),
+                    "rollup-backfill-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long rows = 0;
+        int failed = 0;
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (Slice slice : slices) {
+                results.add(executor.submit(() -> rebuild(slice)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    rows += results.get(i).get();
+                } catch (Exception e) {
+                    failed++;
+                    logger.error("Rollup backfill of {} failed: {}", slices.get(i).from.toLocalDate(),
+                            e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Rollup backfill finished: {} submissions over {} days ({} failed) in {} ms",
+                rows, slices.size(), failed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Aggregate one slice and replace its rollup rows; returns rows read.
+     */
+    private long rebuild(Slice slice) {
+        Map<SubmissionAnalyticsService.Bucket, long[]> counts = new HashMap<>();
+        long[] rows = {0};
+        streamingJdbcTemplate.query(
+                "SELECT problem_id, language, status, submitted_at FROM submissions " +
+                "WHERE submitted_at >= ? AND submitted_at < ? " +
+                "AND status NOT IN ('QUEUED', 'RUNNING') AND (verdict IS NULL OR verdict <> 'Error')",
+                rs -> {
+                    SubmissionAnalyticsService.Bucket bucket = new SubmissionAnalyticsService.Bucket(
+                            rs.getTimestamp("submitted_at").toLocalDateTime().truncatedTo(ChronoUnit.HOURS),
+                            rs.getString("problem_id"), rs.getString("language"), rs.getString("status"));
+                    counts.computeIfAbsent(bucket, b -> new long[1])[0]++;
+                    rows[0]++;
+                },
+                Timestamp.valueOf(slice.from), Timestamp.valueOf(slice.to));
+
+        LocalDate day = slice.from.toLocalDate();
+        boolean wholeDay = slice.to.equals(slice.from.plusDays(1));
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> hourly = new ArrayList<>();
+            Map<SubmissionAnalyticsService.Bucket, Long> daily = new HashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(SubmissionAnalyticsService.Bucket.ORDER))
+                    .forEach(e -> {
+                        SubmissionAnalyticsService.Bucket b = e.getKey();
+                        hourly.add(b.toArgs(SubmissionRollup.HOUR, e.getValue()[0]));
+                        daily.merge(new SubmissionAnalyticsService.Bucket(
+                                day.atStartOfDay(), b.problemId, b.language, b.status), e.getValue()[0], Long::sum);
+                    });
+
+            if (slice.keepHourly) {
+                jdbcTemplate.update("DELETE FROM submission_rollups " +
+                                "WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?",
+                        SubmissionRollup.HOUR, Timestamp.valueOf(slice.from), Timestamp.valueOf(slice.to));
+                jdbcTemplate.batchUpdate(SubmissionAnalyticsService.UPSERT_SQL, hourly);
+            }
+
+            if (wholeDay) {
+                List<Object[]> dailyArgs = new ArrayList<>();
+                daily.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey(SubmissionAnalyticsService.Bucket.ORDER))
+                        .forEach(e -> dailyArgs.add(e.getKey().toArgs(SubmissionRollup.DAY, e.getValue())));
+                deleteDay(day);
+                jdbcTemplate.batchUpdate(SubmissionAnalyticsService.UPSERT_SQL, dailyArgs);
+            } else if (slice.keepHourly) {
+                // partial day: rebuilt hours plus the live hours after them
+                deleteDay(day);
+                jdbcTemplate.update("INSERT INTO submission_rollups " +
+                                "(granularity, bucket_start, problem_id, language, status, submissions) " +
+                                "SELECT ?, ?, problem_id, language, status, SUM(submissions) " +
+                                "FROM submission_rollups WHERE granularity = ? " +
+                                "AND bucket_start >= ? AND bucket_start < ? " +
+                                "GROUP BY problem_id, language, status",
+                        SubmissionRollup.DAY, Timestamp.valueOf(day.atStartOfDay()),
+                        SubmissionRollup.HOUR, Timestamp.valueOf(day.atStartOfDay()),
+                        Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            }
+        });
+        return rows[0];
+    }
+
+    private void deleteDay(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM submission_rollups WHERE granularity = ? AND bucket_start = ?",
+                SubmissionRollup.DAY, Timestamp.valueOf(day.atStartOfDay()));
+    }
+
+    private static final class Slice {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final boolean keepHourly;
+
+        Slice(LocalDateTime from, LocalDateTime to, boolean keepHourly) {
+            this.from = from;
+            this.to = to;
+            this.keepHourly = keepHourly;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.CacheConfig;
+import com.codingplatform.dto.ProblemDetailDTO.ExampleDTO;
+import com.codingplatform.dto.TestcaseDTO;
+import com.codingplatform.entity.Testcase;
+import com.codingplatform.repository.TestcaseRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for cached testcase content.
+ *
+ * Keeps two per-problem caches in front of S3:
+ * - samples: examples shown on the problem page plus the testcase count
+ * - testcases: the full ordered testcase set sent to the judge
+ *
+ * Stale entries keep being served while a single background reload runs,
+ * and concurrent misses for the same problem wait on one load, so a burst
+ * of traffic on a cold problem costs one round of S3 reads.
+ *
+ * Both caches report size, hits, misses and evictions as cache.* metrics
+ * (cache=testcase-samples and cache=testcases).
+ */
+@Service
+public class TestcaseCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestcaseCacheService.class);
+
+    private final TestcaseRepository testcaseRepository;
+    private final S3Service s3Service;
+    private final ThreadPoolTaskExecutor loaderExecutor;
+
+    private final LoadingCache<String, ProblemSamples> samplesCache;
+    private final LoadingCache<String, List<TestcaseDTO>> testcasesCache;
+
+    public TestcaseCacheService(TestcaseRepository testcaseRepository,
+                                S3Service s3Service,
+                                CacheConfig cacheConfig,
+                                @Qualifier("testcaseLoaderExecutor") ThreadPoolTaskExecutor loaderExecutor,
+                                MeterRegistry meterRegistry) {
+        this.testcaseRepository = testcaseRepository;
+        this.s3Service = s3Service;
+        this.loaderExecutor = loaderExecutor;
+
+        Duration refreshAfter = Duration.ofSeconds(cacheConfig.getRefreshAfterSeconds());
+        Duration expireAfter = Duration.ofSeconds(cacheConfig.getExpireAfterSeconds());
+
+        this.samplesCache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getSamplesMaxEntries())
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .executor(loaderExecutor)
+                .recordStats()
+                .build(this::loadSamples);
+
+        this.testcasesCache = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.getTestcasesMaxChars())
+                .weigher((String problemId, List<TestcaseDTO> testcases) -> weigh(testcases))
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .executor(loaderExecutor)
+                .recordStats()
+                .build(this::loadTestcases);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, samplesCache, "testcase-samples");
+        CaffeineCacheMetrics.monitor(meterRegistry, testcasesCache, "testcases");
+    }
+
+    /**
+     * Get sample examples and the total testcase count for a problem.
+     *
+     * @throws S3Service.S3ServiceException if samples are not cached and S3 fails
+     */
+    public ProblemSamples getSamples(String problemId) {
+        return samplesCache.get(problemId);
+    }
+
+    /**
+     * Get all testcases for a problem, ordered by testcase number.
+     *
+     * @throws S3Service.S3ServiceException if testcases are not cached and S3 fails
+     */
+    public List<TestcaseDTO> getTestcases(String problemId) {
+        return testcasesCache.get(problemId);
+    }
+
+    /**
+     * Warm the full testcase set in the background.
+     * Best effort: skipped when already cached or when the loader is saturated.
+     */
+    public void prefetchTestcases(String problemId) {
+        if (testcasesCache.getIfPresent(problemId) != null) {
+            return;
+        }
+        try {
+            loaderExecutor.execute(() -> {
+                try {
+                    testcasesCache.get(problemId);
+                } catch (Exception e) {
+                    logger.warn("Failed to prefetch testcases for {}: {}", problemId, e.getMessage());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.debug("Testcase prefetch skipped for {}: loader saturated", problemId);
+        }
+    }
+
+    /**
+     * Drop cached content for a problem (e.g. after its testcases change).
+     */
+    public void evict(String problemId) {
+        samplesCache.invalidate(problemId);
+        testcasesCache.invalidate(problemId);
+    }
+
+    /**
+     * Drop all cached testcase content.
+     */
+    public void evictAll() {
+        samplesCache.invalidateAll();
+        testcasesCache.invalidateAll();
+    }
+
+    private ProblemSamples loadSamples(String problemId) {
+        logger.debug("Loading sample testcases: {}", problemId);
+
+        List<ExampleDTO> examples = new ArrayList<>();
+        for (Testcase tc : testcaseRepository.findSamplesByProblemId(problemId)) {
+            String input = s3Service.getFileContent(tc.getS3InputKey());
+            String output = s3Service.getFileContent(tc.getS3OutputKey());
+            examples.add(new ExampleDTO(input.trim(), output.trim()));
+        }
+
+        int testcaseCount = (int) testcaseRepository.countByProblemId(problemId);
+        return new ProblemSamples(List.copyOf(examples), testcaseCount);
+    }
+
+    private List<TestcaseDTO> loadTestcases(String problemId) {
+        logger.debug("Loading testcases: {}", problemId);
+
+        return testcaseRepository.findByProblemIdOrdered(problemId).stream()
+                .map(tc -> {
+                    String input = s3Service.getFileContent(tc.getS3InputKey());
+                    String expectedOutput = s3Service.getFileContent(tc.getS3OutputKey());
+                    return new TestcaseDTO(tc.getTestcaseNumber(), input, expectedOutput);
+                })
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static int weigh(List<TestcaseDTO> testcases) {
+        long chars = 0;
+        for (TestcaseDTO tc : testcases) {
+            chars += tc.getInput().length() + tc.getExpectedOutput().length();
+        }
+        return (int) Math.min(chars, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cached sample examples and testcase count for a problem.
+     */
+    public static final class ProblemSamples {
+        private final List<ExampleDTO> examples;
+        private final int testcaseCount;
+
+        public ProblemSamples(List<ExampleDTO> examples, int testcaseCount) {
+            this.examples = examples;
+            this.testcaseCount = testcaseCount;
+        }
+
+        public List<ExampleDTO> getExamples() { return examples; }
+
+        public int getTestcaseCount() { return testcaseCount; }
+    }
+}
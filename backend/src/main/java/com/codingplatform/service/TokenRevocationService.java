@@ -0,0 +1,176 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.AuthConfig;
+import com.codingplatform.datasource.Bulkhead;
+import com.codingplatform.datasource.Workload;
+import com.codingplatform.entity.RevokedToken;
+import com.codingplatform.repository.RevokedTokenRepository;
+import com.codingplatform.util.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Service for revoking JWTs before they expire (logout).
+ *
+ * Revoked token ids (the jti claim) are persisted in revoked_tokens until
+ * the token's own expiry and mirrored in a Bloom filter. A token whose id
+ * is not in the filter is definitely not revoked, so the usual request
+ * never touches the database; only filter hits (real revocations plus
+ * about auth.revocation.false-positive-rate of live tokens) are confirmed
+ * with a primary-key lookup, and that answer is cached briefly.
+ *
+ * Each instance polls for revocations made elsewhere, so a logout takes
+ * effect on other instances within auth.revocation.refresh-interval-ms.
+ * The hourly purge deletes expired entries and rebuilds the filter, since
+ * a Bloom filter cannot forget elements.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Overlap between polls, to tolerate clock skew between instances
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Counter databaseLookups;
+
+    private final Cache<String, Boolean> confirmed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime lastPoll;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  AuthConfig config,
+                                  MeterRegistry meterRegistry) {
+        this(revokedTokenRepository, config.getRevocationExpectedTokens(),
+                config.getRevocationFalsePositiveRate(), meterRegistry);
+    }
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  long expectedTokens,
+                                  double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.databaseLookups = meterRegistry.counter("app.auth.revocation.lookups");
+    }
+
+    /**
+     * Whether a token id has been revoked. Tokens without an id (issued
+     * before revocation existed) are never revoked.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !getFilter().mightContain(jti)) {
+            return false;
+        }
+        return confirmed.get(jti, id -> {
+            databaseLookups.increment();
+            return revokedTokenRepository.existsByJtiAndExpiresAtAfter(id, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Revoke a token until its expiry. Idempotent.
+     *
+     * @return false if the token has no id and cannot be revoked
+     */
+    public boolean revoke(String jti, Long userId, long expiresAtMillis) {
+        if (jti == null) {
+            return false;
+        }
+        if (!revokedTokenRepository.existsById(jti)) {
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+            try {
+                revokedTokenRepository.save(new RevokedToken(jti, userId, expiresAt));
+            } catch (DataIntegrityViolationException e) {
+                // concurrent logout with the same token already revoked it
+            }
+        }
+        getFilter().add(jti);
+        confirmed.put(jti, Boolean.TRUE);
+        logger.info("Revoked token {} of user {}", jti, userId);
+        return true;
+    }
+
+    /**
+     * Add revocations made on other instances since the last poll.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval-ms:10000}",
+               initialDelayString = "${auth.revocation.refresh-interval-ms:10000}")
+    public void refresh() {
+        BloomFilter current = getFilter();
+        LocalDateTime now = LocalDateTime.now();
+        List<String> jtis = revokedTokenRepository.findJtisRevokedSince(lastPoll.minus(POLL_OVERLAP), now);
+        for (String jti : jtis) {
+            current.add(jti);
+            confirmed.put(jti, Boolean.TRUE);
+        }
+        lastPoll = now;
+    }
+
+    /**
+     * Delete revocations of expired tokens and rebuild the filter without them.
+     */
+    @Bulkhead(Workload.BACKGROUND)
+    @Scheduled(cron = "${auth.revocation.purge-cron:0 0 * * * *}")
+    @Transactional
+    public void purge() {
+        long start = System.currentTimeMillis();
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        BloomFilter rebuilt = load();
+        synchronized (this) {
+            filter = rebuilt;
+        }
+        logger.info("Purged {} expired token revocations in {} ms", deleted, System.currentTimeMillis() - start);
+    }
+
+    private BloomFilter getFilter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                current = filter;
+                if (current == null) {
+                    current = load();
+                    filter = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private BloomFilter load() {
+        // Anything revoked while loading is picked up by the next poll
+        LocalDateTime now = LocalDateTime.now();
+        List<String> jtis = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter loaded = new BloomFilter(Math.max(expectedTokens, 2L * jtis.size()), falsePositiveRate);
+        jtis.forEach(loaded::add);
+        if (lastPoll == null || lastPoll.isAfter(now)) {
+            lastPoll = now;
+        }
+        return loaded;
+    }
+}
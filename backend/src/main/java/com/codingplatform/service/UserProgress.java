@@ -0,0 +1,68 @@
+package com.codingplatform.service;
+
+import com.codingplatform.entity.Problem.Difficulty;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.BitSet;
+
+/**
+ * A user's progress over one catalog snapshot.
+ *
+ * Bit i of each set refers to the problem with catalog ordinal i:
+ * {@code solved} has every problem with an accepted submission,
+ * {@code attempted} every problem with any judged submission (so solved
+ * is a subset of attempted). Per-difficulty counts are kept alongside and
+ * only change when a bit flips, so recording the same verdict twice is
+ * harmless.
+ */
+public class UserProgress {
+
+    private final long catalogVersion;
+    private final BitSet solved = new BitSet();
+    private final BitSet attempted = new BitSet();
+    private final int[] solvedByDifficulty = new int[Difficulty.values().length];
+    private final int[] attemptedByDifficulty = new int[Difficulty.values().length];
+
+    UserProgress(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Record a judged submission for the problem at the given ordinal.
+     */
+    synchronized void record(int ordinal, Difficulty difficulty, boolean accepted) {
+        if (!attempted.get(ordinal)) {
+            attempted.set(ordinal);
+            attemptedByDifficulty[difficulty.ordinal()]++;
+        }
+        if (accepted && !solved.get(ordinal)) {
+            solved.set(ordinal);
+            solvedByDifficulty[difficulty.ordinal()]++;
+        }
+    }
+
+    public long getCatalogVersion() { return catalogVersion; }
+
+    public synchronized boolean isSolved(int ordinal) { return solved.get(ordinal); }
+
+    public synchronized boolean isAttempted(int ordinal) { return attempted.get(ordinal); }
+
+    public synchronized BitSet getSolved() { return (BitSet) solved.clone(); }
+
+    public synchronized BitSet getAttempted() { return (BitSet) attempted.clone(); }
+
+    public synchronized int getSolvedCount(Difficulty difficulty) {
+        return solvedByDifficulty[difficulty.ordinal()];
+    }
+
+    public synchronized int getAttemptedCount(Difficulty difficulty) {
+        return attemptedByDifficulty[difficulty.ordinal()];
+    }
+
+    /**
+     * Solved ordinals as a bitmap, for facet queries.
+     */
+    public synchronized RoaringBitmap solvedBitmap() {
+        return RoaringBitmap.bitmapOf(solved.stream().toArray());
+    }
+}
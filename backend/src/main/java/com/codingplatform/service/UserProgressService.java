@@ -0,0 +1,175 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.ProgressConfig;
+import com.codingplatform.datasource.WorkloadContext;
+import com.codingplatform.dto.UserProgressDTO;
+import com.codingplatform.dto.UserProgressDTO.DifficultyProgress;
+import com.codingplatform.entity.Problem.Difficulty;
+import com.codingplatform.entity.Submission.SubmissionStatus;
+import com.codingplatform.entity.SubmissionArchiveSummary;
+import com.codingplatform.event.SubmissionJudgedEvent;
+import com.codingplatform.repository.SubmissionArchiveSummaryRepository;
+import com.codingplatform.repository.SubmissionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for per-user progress (solved / attempted problems).
+ *
+ * Progress is held as bitsets over catalog ordinals in a bounded cache.
+ * A miss rebuilds it with one aggregate query over the user's
+ * submissions plus their archive summaries; committed verdicts then update the cached entry in place.
+ * Ordinals are only meaningful within one catalog snapshot, so an entry
+ * built against an older snapshot is rebuilt on next use.
+ */
+@Service
+public class UserProgressService {
+
+    private static final List<SubmissionStatus> PENDING =
+            List.of(SubmissionStatus.QUEUED, SubmissionStatus.RUNNING);
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionArchiveSummaryRepository summaryRepository;
+    private final ProblemCatalog problemCatalog;
+    private final Cache<Long, UserProgress> cache;
+
+    public UserProgressService(SubmissionRepository submissionRepository,
+                               SubmissionArchiveSummaryRepository summaryRepository,
+                               ProblemCatalog problemCatalog,
+                               ProgressConfig config,
+                               MeterRegistry meterRegistry) {
+        this.submissionRepository = submissionRepository;
+        this.summaryRepository = summaryRepository;
+        this.problemCatalog = problemCatalog;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxUsers())
+                .expireAfterAccess(Duration.ofMinutes(config.getExpireAfterAccessMinutes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-progress");
+    }
+
+    /**
+     * Get a user's progress against the current catalog snapshot.
+     */
+    public UserProgress getProgress(Long userId) {
+        return getProgress(userId, problemCatalog.getSnapshot());
+    }
+
+    /**
+     * Get a user's progress against the given snapshot, so its ordinals
+     * line up with that snapshot's facet index.
+     */
+    public UserProgress getProgress(Long userId, ProblemCatalog.Snapshot snapshot) {
+        UserProgress progress = cache.get(userId, id -> build(id, snapshot));
+        if (progress.getCatalogVersion() == snapshot.getVersion()) {
+            return progress;
+        }
+        if (progress.getCatalogVersion() > snapshot.getVersion()) {
+            // Caller holds an older snapshot than the cached entry
+            return build(userId, snapshot);
+        }
+        return cache.asMap().compute(userId, (id, current) ->
+                current != null && current.getCatalogVersion() >= snapshot.getVersion()
+                        ? current
+                        : build(id, snapshot));
+    }
+
+    /**
+     * Build the progress view for the /api/me/progress endpoint.
+     */
+    public UserProgressDTO getProgressView(Long userId) {
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        UserProgress progress = getProgress(userId, snapshot);
+
+        BitSet solved = progress.getSolved();
+        BitSet attemptedOnly = progress.getAttempted();
+        attemptedOnly.andNot(solved);
+
+        Map<String, DifficultyProgress> byDifficulty = new LinkedHashMap<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            int solvedCount = progress.getSolvedCount(difficulty);
+            byDifficulty.put(difficulty.name(), new DifficultyProgress(
+                    snapshot.getFacetIndex().count(difficulty),
+                    solvedCount,
+                    progress.getAttemptedCount(difficulty) - solvedCount));
+        }
+
+        UserProgressDTO dto = new UserProgressDTO();
+        dto.setTotalProblems(snapshot.size());
+        dto.setSolvedCount(solved.cardinality());
+        dto.setAttemptedCount(attemptedOnly.cardinality());
+        dto.setByDifficulty(byDifficulty);
+        dto.setSolved(problemIds(snapshot, solved));
+        dto.setAttempted(problemIds(snapshot, attemptedOnly));
+        return dto;
+    }
+
+    /**
+     * Apply a committed verdict to the user's cached progress, if any.
+     * computeIfPresent waits for an in-flight rebuild of the same user,
+     * so the verdict is never lost to a rebuild that started before it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        ProblemCatalog.Snapshot snapshot = problemCatalog.getSnapshot();
+        ProblemCatalog.Entry entry = snapshot.get(event.getProblemId());
+
+        cache.asMap().computeIfPresent(event.getUserId(), (id, progress) -> {
+            if (entry == null || progress.getCatalogVersion() != snapshot.getVersion()) {
+                return null;
+            }
+            progress.record(entry.getOrdinal(), entry.getDifficulty(), event.isAccepted());
+            return progress;
+        });
+    }
+
+    private List<String> problemIds(ProblemCatalog.Snapshot snapshot, BitSet ordinals) {
+        List<String> ids = new ArrayList<>(ordinals.cardinality());
+        for (int i = ordinals.nextSetBit(0); i >= 0; i = ordinals.nextSetBit(i + 1)) {
+            ids.add(snapshot.getEntries().get(i).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Read on the primary: verdicts committed before the build but missing
+     * from a lagging replica would never be applied to the cached entry.
+     */
+    private UserProgress build(Long userId, ProblemCatalog.Snapshot snapshot) {
+        return WorkloadContext.callOnPrimary(() -> load(userId, snapshot));
+    }
+
+    private UserProgress load(Long userId, ProblemCatalog.Snapshot snapshot) {
+        UserProgress progress = new UserProgress(snapshot.getVersion());
+        for (Object[] row : submissionRepository.findProblemProgressByUserId(
+                userId, SubmissionStatus.ACCEPTED, PENDING)) {
+            ProblemCatalog.Entry entry = snapshot.get((String) row[0]);
+            if (entry != null) {
+                progress.record(entry.getOrdinal(), entry.getDifficulty(), ((Number) row[1]).intValue() == 1);
+            }
+        }
+        for (SubmissionArchiveSummary summary : summaryRepository.findByUserIdAndLanguage(
+                userId, SubmissionArchiveSummary.ALL_LANGUAGES)) {
+            ProblemCatalog.Entry entry = snapshot.get(summary.getId().getProblemId());
+            if (entry != null) {
+                progress.record(entry.getOrdinal(), entry.getDifficulty(), summary.getAccepted() > 0);
+            }
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,181 @@
+package com.codingplatform.service;
+
+import com.codingplatform.config.WarmupConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup warmup.
+ *
+ * Runs as an ApplicationRunner, i.e. after the web server has started but
+ * before the readiness state switches to ACCEPTING_TRAFFIC, so a deploy
+ * only receives traffic once the catalog, caches, connection pools and
+ * hot code paths are warm. Each step is best effort: a failure is logged
+ * and warmup moves on. Durations are recorded as app.warmup.* timers.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    private final WarmupConfig warmupConfig;
+    private final ProblemCatalog problemCatalog;
+    private final TestcaseCacheService testcaseCacheService;
+    private final JudgeService judgeService;
+    private final List<HikariDataSource> pools;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    public WarmupService(WarmupConfig warmupConfig,
+                         ProblemCatalog problemCatalog,
+                         TestcaseCacheService testcaseCacheService,
+                         JudgeService judgeService,
+                         List<HikariDataSource> pools,
+                         MeterRegistry meterRegistry,
+                         Environment environment) {
+        this.warmupConfig = warmupConfig;
+        this.problemCatalog = problemCatalog;
+        this.testcaseCacheService = testcaseCacheService;
+        this.judgeService = judgeService;
+        this.pools = pools;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmupConfig.isEnabled()) {
+            logger.info("Warmup disabled");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(warmupConfig.getTimeoutSeconds());
+        logger.info("Warmup started");
+
+        step("connections", this::openConnections);
+        step("catalog", problemCatalog::getSnapshot);
+        step("samples", () -> preloadSamples(deadline));
+        step("judge", judgeService::isJudgeHealthy);
+        step("endpoints", () -> exerciseEndpoints(deadline));
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("app.warmup.duration").record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Warmup finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void step(String name, Runnable action) {
+        Timer timer = Timer.builder("app.warmup.step").tag("step", name).register(meterRegistry);
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (Exception e) {
+            logger.warn("Warmup step '{}' failed: {}", name, e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Warmup step '{}' took {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Borrow connections from each workload pool one at a time, holding
+     * every one until the end so each pool has to open that many now, not
+     * on the first requests. The application DataSource hands out lazy
+     * connections, so the pools are used directly.
+     */
+    private void openConnections() {
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (HikariDataSource pool : pools) {
+                int count = Math.min(warmupConfig.getConnections(), pool.getMaximumPoolSize());
+                for (int i = 0; i < count; i++) {
+                    Connection connection = pool.getConnection();
+                    borrowed.add(connection);
+                    connection.isValid(5);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Opened {} connections before failing: {}", borrowed.size(), e.getMessage());
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // returning to the pool
+                }
+            }
+        }
+    }
+
+    /**
+     * Load sample testcases for the first problems in catalog order.
+     * Also initializes the S3 client and its connection pool.
+     */
+    private void preloadSamples(long deadline) {
+        List<ProblemCatalog.Entry> entries = problemCatalog.getSnapshot().getEntries();
+        int limit = Math.min(entries.size(), warmupConfig.getSampleProblems());
+        for (int i = 0; i < limit && System.nanoTime() < deadline; i++) {
+            testcaseCacheService.getSamples(entries.get(i).getId());
+        }
+    }
+
+    /**
+     * Replay the hot read endpoints over loopback so the whole path
+     * (filters, controllers, services, Jackson) gets JIT-compiled. The
+     * requests carry the warmup token, so the rate limiter lets them
+     * through and problem pages skip the hidden testcase prefetch; they
+     * cycle over a few problems, which is enough for the JIT. A failed
+     * request is logged and skipped.
+     */
+    private void exerciseEndpoints(long deadline) {
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            logger.warn("Server port unknown, skipping endpoint warmup");
+            return;
+        }
+        String base = "http://localhost:" + port + "/api";
+        RestTemplate client = new RestTemplate();
+        client.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set(WarmupConfig.TOKEN_HEADER, warmupConfig.getRequestToken());
+            return execution.execute(request, body);
+        });
+
+        List<ProblemCatalog.Entry> entries = problemCatalog.getSnapshot().getEntries();
+        int problems = Math.min(entries.size(), warmupConfig.getDetailProblems());
+        int requests = 0;
+        int failures = 0;
+        for (int i = 0; i < warmupConfig.getIterations() && System.nanoTime() < deadline; i++) {
+            List<String> paths = new ArrayList<>(List.of("/problems", "/problems/facets?difficulty=easy", "/stats"));
+            if (problems > 0) {
+                paths.add("/problems/" + entries.get(i % problems).getId());
+            }
+            for (String path : paths) {
+                requests++;
+                try {
+                    client.getForObject(base + path, String.class);
+                } catch (RestClientException e) {
+                    failures++;
+                    logger.debug("Warmup request {} failed: {}", path, e.getMessage());
+                }
+            }
+        }
+        if (failures > 0) {
+            logger.warn("{} of {} warmup requests failed", failures, requests);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.codingplatform.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Object store for archived submission partitions.
+ * Objects are written once from a local file and read by byte range.
+ */
+public interface ArchiveStore {
+
+    /**
+     * Upload a local file under the given key, replacing any existing object.
+     */
+    void put(String key, Path file);
+
+    /**
+     * Read {@code length} bytes of an object starting at {@code offset}.
+     */
+    byte[] readRange(String key, long offset, int length);
+}
@@ -0,0 +1,66 @@
+package com.codingplatform.storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * One submission row as written to a partition archive (one JSON object
+ * per line). Mirrors the submissions columns; code is referenced by hash.
+ */
+public class ArchivedSubmission {
+
+    private Long id;
+    private Long userId;
+    private String problemId;
+    private String language;
+    private String codeHash;
+    private String status;
+    private String verdict;
+    private Integer passedTests;
+    private Integer totalTests;
+    private Integer executionTimeMs;
+    private Integer memoryUsedKb;
+    private String errorMessage;
+    private LocalDateTime submittedAt;
+
+    public ArchivedSubmission() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getProblemId() { return problemId; }
+    public void setProblemId(String problemId) { this.problemId = problemId; }
+
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
+    public String getCodeHash() { return codeHash; }
+    public void setCodeHash(String codeHash) { this.codeHash = codeHash; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getVerdict() { return verdict; }
+    public void setVerdict(String verdict) { this.verdict = verdict; }
+
+    public Integer getPassedTests() { return passedTests; }
+    public void setPassedTests(Integer passedTests) { this.passedTests = passedTests; }
+
+    public Integer getTotalTests() { return totalTests; }
+    public void setTotalTests(Integer totalTests) { this.totalTests = totalTests; }
+
+    public Integer getExecutionTimeMs() { return executionTimeMs; }
+    public void setExecutionTimeMs(Integer executionTimeMs) { this.executionTimeMs = executionTimeMs; }
+
+    public Integer getMemoryUsedKb() { return memoryUsedKb; }
+    public void setMemoryUsedKb(Integer memoryUsedKb) { this.memoryUsedKb = memoryUsedKb; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+}
@@ -0,0 +1,125 @@
+package com.codingplatform.storage;
+
+import com.github.luben.zstd.Zstd;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding of submission code blobs.
+ *
+ * A blob is a small header followed by a zstd frame:
+ * <pre>
+ *   byte    format        1 = zstd, 2 = zstd delta
+ *   int     originalSize  size of the decoded code in bytes
+ *   byte    depth         delta chain length (0 for a full blob)
+ *   [64]    baseHash      delta blobs only: hash of the base code
+ *   ...     zstd frame
+ * </pre>
+ * A delta blob is compressed with the base code as a raw-content
+ * dictionary, so resubmissions that differ by a few lines cost a few
+ * bytes. Decoding a delta needs the decoded base.
+ */
+public final class CodeBlobCodec {
+
+    public static final byte FORMAT_ZSTD = 1;
+    public static final byte FORMAT_ZSTD_DELTA = 2;
+
+    private static final int HASH_LENGTH = 64;
+
+    private CodeBlobCodec() {
+    }
+
+    /**
+     * Encode code as a standalone blob.
+     */
+    public static byte[] encode(byte[] code, int level) {
+        byte[] frame = Zstd.compress(code, level);
+        return ByteBuffer.allocate(6 + frame.length)
+                .put(FORMAT_ZSTD)
+                .putInt(code.length)
+                .put((byte) 0)
+                .put(frame)
+                .array();
+    }
+
+    /**
+     * Encode code as a delta against a base.
+     *
+     * @param depth chain length of the new blob (base depth + 1)
+     */
+    public static byte[] encodeDelta(byte[] code, byte[] base, String baseHash, int depth, int level) {
+        byte[] frame = Zstd.compressUsingDict(code, base, level);
+        return ByteBuffer.allocate(6 + HASH_LENGTH + frame.length)
+                .put(FORMAT_ZSTD_DELTA)
+                .putInt(code.length)
+                .put((byte) depth)
+                .put(baseHash.getBytes(StandardCharsets.US_ASCII))
+                .put(frame)
+                .array();
+    }
+
+    /**
+     * Read a blob's header.
+     */
+    public static Header readHeader(byte[] blob) {
+        ByteBuffer buffer = ByteBuffer.wrap(blob);
+        byte format = buffer.get();
+        int originalSize = buffer.getInt();
+        int depth = buffer.get();
+        String baseHash = null;
+        if (format == FORMAT_ZSTD_DELTA) {
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            baseHash = new String(hash, StandardCharsets.US_ASCII);
+        } else if (format != FORMAT_ZSTD) {
+            throw new IllegalArgumentException("Unknown code blob format: " + format);
+        }
+        return new Header(format, originalSize, depth, baseHash, buffer.position());
+    }
+
+    /**
+     * Decode a blob.
+     *
+     * @param base decoded base code for delta blobs, ignored otherwise
+     */
+    public static byte[] decode(byte[] blob, byte[] base) {
+        Header header = readHeader(blob);
+        byte[] frame = new byte[blob.length - header.frameOffset];
+        System.arraycopy(blob, header.frameOffset, frame, 0, frame.length);
+        if (header.isDelta()) {
+            if (base == null) {
+                throw new IllegalArgumentException("Delta blob needs base " + header.baseHash);
+            }
+            return Zstd.decompress(frame, base, header.originalSize);
+        }
+        return Zstd.decompress(frame, header.originalSize);
+    }
+
+    /**
+     * Blob header fields.
+     */
+    public static final class Header {
+        private final byte format;
+        private final int originalSize;
+        private final int depth;
+        private final String baseHash;
+        private final int frameOffset;
+
+        Header(byte format, int originalSize, int depth, String baseHash, int frameOffset) {
+            this.format = format;
+            this.originalSize = originalSize;
+            this.depth = depth;
+            this.baseHash = baseHash;
+            this.frameOffset = frameOffset;
+        }
+
+        public boolean isDelta() { return format == FORMAT_ZSTD_DELTA; }
+
+        public int getOriginalSize() { return originalSize; }
+
+        public int getDepth() { return depth; }
+
+        public String getBaseHash() { return baseHash; }
+    }
+}
@@ -0,0 +1,30 @@
+package com.codingplatform.storage;
+
+/**
+ * Content-addressed store for encoded submission code.
+ *
+ * Keys are SHA-256 hex digests of the original source; values are the
+ * encoded blobs produced by {@link CodeBlobCodec}. Blobs are immutable,
+ * so writing an existing key is a no-op.
+ */
+public interface CodeBlobStore {
+
+    /**
+     * Store an encoded blob under its hash if not already present.
+     *
+     * @param hash         SHA-256 hex of the original code
+     * @param data         encoded blob
+     * @param originalSize size of the original code in bytes
+     */
+    void put(String hash, byte[] data, int originalSize);
+
+    /**
+     * Get an encoded blob, or null if the hash is unknown.
+     */
+    byte[] get(String hash);
+
+    /**
+     * Check whether a blob exists.
+     */
+    boolean exists(String hash);
+}
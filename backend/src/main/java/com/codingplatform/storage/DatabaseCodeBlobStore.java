@@ -0,0 +1,33 @@
+package com.codingplatform.storage;
+
+import com.codingplatform.entity.CodeBlob;
+import com.codingplatform.repository.CodeBlobRepository;
+
+/**
+ * Code blob store backed by the code_blobs table.
+ * Writes join the caller's transaction, so a submission and its code
+ * are committed together.
+ */
+public class DatabaseCodeBlobStore implements CodeBlobStore {
+
+    private final CodeBlobRepository codeBlobRepository;
+
+    public DatabaseCodeBlobStore(CodeBlobRepository codeBlobRepository) {
+        this.codeBlobRepository = codeBlobRepository;
+    }
+
+    @Override
+    public void put(String hash, byte[] data, int originalSize) {
+        codeBlobRepository.insertIfAbsent(hash, data, originalSize, data.length);
+    }
+
+    @Override
+    public byte[] get(String hash) {
+        return codeBlobRepository.findById(hash).map(CodeBlob::getData).orElse(null);
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return codeBlobRepository.existsById(hash);
+    }
+}
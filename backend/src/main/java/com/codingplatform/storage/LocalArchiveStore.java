@@ -0,0 +1,51 @@
+package com.codingplatform.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archive store on the local filesystem, using the object key as the
+ * relative path (the same layout as the S3 backend).
+ */
+public class LocalArchiveStore implements ArchiveStore {
+
+    private final Path root;
+
+    public LocalArchiveStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String key, Path file) {
+        Path target = root.resolve(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive " + key, e);
+        }
+    }
+
+    @Override
+    public byte[] readRange(String key, long offset, int length) {
+        try (FileChannel channel = FileChannel.open(root.resolve(key), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of archive " + key);
+                }
+            }
+            return buffer.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive " + key, e);
+        }
+    }
+}
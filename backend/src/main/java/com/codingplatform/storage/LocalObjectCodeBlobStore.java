@@ -0,0 +1,74 @@
+package com.codingplatform.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Code blob store on the local filesystem, laid out like an S3 bucket.
+ *
+ * Objects live at {@code <root>/code/<first two hex chars>/<hash>}, the
+ * same keys an S3 backend would use, so a directory can be synced to a
+ * bucket as is. Writes go to a temp file and are moved into place, so
+ * readers never see a partial object.
+ */
+public class LocalObjectCodeBlobStore implements CodeBlobStore {
+
+    private final Path root;
+
+    public LocalObjectCodeBlobStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Object key of a blob, relative to the bucket root.
+     */
+    public static String objectKey(String hash) {
+        return "code/" + hash.substring(0, 2) + "/" + hash;
+    }
+
+    @Override
+    public void put(String hash, byte[] data, int originalSize) {
+        Path target = root.resolve(objectKey(hash));
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Written concurrently; content is identical
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write code blob " + hash, e);
+        }
+    }
+
+    @Override
+    public byte[] get(String hash) {
+        try {
+            return Files.readAllBytes(root.resolve(objectKey(hash)));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read code blob " + hash, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(root.resolve(objectKey(hash)));
+    }
+}
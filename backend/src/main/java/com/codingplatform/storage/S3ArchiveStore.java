@@ -0,0 +1,45 @@
+package com.codingplatform.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.nio.file.Path;
+
+/**
+ * Archive store in the S3 bucket, under the archive/ prefix.
+ * Reads use ranged GETs, so a history page fetches only one user's bytes.
+ */
+public class S3ArchiveStore implements ArchiveStore {
+
+    private static final String PREFIX = "archive/";
+
+    private final S3Client s3Client;
+    private final String bucketName;
+
+    public S3ArchiveStore(S3Client s3Client, String bucketName) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public void put(String key, Path file) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(PREFIX + key)
+                        .contentType("application/gzip")
+                        .build(),
+                RequestBody.fromFile(file));
+    }
+
+    @Override
+    public byte[] readRange(String key, long offset, int length) {
+        return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(PREFIX + key)
+                        .range("bytes=" + offset + "-" + (offset + length - 1))
+                        .build())
+                .asByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+package com.codingplatform.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque continuation tokens.
+ *
+ * A cursor is the sort key of the last row on a page, joined and
+ * base64url-encoded. Clients pass it back unchanged to get the next page.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private CursorCodec() {}
+
+    /**
+     * Encode sort key components into a cursor token.
+     */
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token into its sort key components.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
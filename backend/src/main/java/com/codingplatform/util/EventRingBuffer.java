@@ -0,0 +1,162 @@
+package com.codingplatform.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, fixed-capacity ring of the most recent events.
+ *
+ * Every published event gets the next sequence number (starting at 1) and
+ * overwrites the slot of the event {@code capacity} positions older.
+ * Publishers claim a sequence with one atomic increment and then publish
+ * the slot; readers never block and stop at the first slot that is not
+ * yet published, so they always see a gap-free prefix.
+ */
+public class EventRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Slot<T>> slots;
+    private final AtomicLong lastClaimed = new AtomicLong();
+
+    /**
+     * @param capacity number of events kept; rounded up to a power of two
+     */
+    public EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Append an event and return its sequence number.
+     *
+     * The slot is only written if it holds an older sequence. A publisher
+     * that stalls after claiming may find its slot already taken by one a
+     * lap ahead; its event is then dropped as overwritten, rather than
+     * hiding the newer one (and everything after it) from readers.
+     */
+    public long publish(T event) {
+        long sequence = claim();
+        store(sequence, event);
+        return sequence;
+    }
+
+    long claim() {
+        return lastClaimed.incrementAndGet();
+    }
+
+    void store(long sequence, T event) {
+        int index = index(sequence);
+        Slot<T> slot = new Slot<>(sequence, event);
+        Slot<T> current = slots.get(index);
+        while (current == null || current.sequence < sequence) {
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+            current = slots.get(index);
+        }
+    }
+
+    /**
+     * Highest sequence handed out so far (0 if none).
+     * Its slot may still be in the middle of being published.
+     */
+    public long lastSequence() {
+        return lastClaimed.get();
+    }
+
+    /**
+     * Read up to {@code limit} events with sequence greater than {@code after}.
+     * If older events were already overwritten, reading starts at the oldest
+     * one still retained and {@link Batch#isGap()} is set. A cursor beyond
+     * the last sequence (e.g. from before a restart) also reads from the
+     * oldest retained event.
+     */
+    public Batch<T> readAfter(long after, int limit) {
+        long last = lastClaimed.get();
+        if (after > last) {
+            after = 0;
+        }
+        long oldest = Math.max(1, last - capacity + 1);
+        long from = Math.max(after + 1, oldest);
+        boolean gap = after + 1 < oldest;
+
+        List<Sequenced<T>> events = new ArrayList<>();
+        long sequence = from;
+        while (sequence <= last && events.size() < limit) {
+            Slot<T> slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence < sequence) {
+                break; // claimed but not yet published
+            }
+            if (slot.sequence > sequence) {
+                gap = true; // overwritten while reading; skip ahead
+                sequence = slot.sequence - capacity + 1;
+                continue;
+            }
+            events.add(new Sequenced<>(sequence, slot.event));
+            sequence++;
+        }
+        return new Batch<>(events, gap, events.isEmpty() ? Math.max(after, from - 1) : sequence - 1);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    private static final class Slot<T> {
+        private final long sequence;
+        private final T event;
+
+        Slot(long sequence, T event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    /**
+     * An event with its sequence number.
+     */
+    public static final class Sequenced<T> {
+        private final long sequence;
+        private final T event;
+
+        Sequenced(long sequence, T event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+
+        public long getSequence() { return sequence; }
+
+        public T getEvent() { return event; }
+    }
+
+    /**
+     * Result of a read: the events, whether some were lost to overwrite,
+     * and the cursor to pass as {@code after} next time.
+     */
+    public static final class Batch<T> {
+        private final List<Sequenced<T>> events;
+        private final boolean gap;
+        private final long cursor;
+
+        Batch(List<Sequenced<T>> events, boolean gap, long cursor) {
+            this.events = events;
+            this.gap = gap;
+            this.cursor = cursor;
+        }
+
+        public List<Sequenced<T>> getEvents() { return events; }
+
+        public boolean isGap() { return gap; }
+
+        public long getCursor() { return cursor; }
+    }
+}
@@ -0,0 +1,216 @@
+package com.codingplatform.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set with rank queries (a treap with subtree sizes).
+ *
+ * insert, remove, rank and select are O(log n) expected; reading k
+ * consecutive elements from a position is O(log n + k). Elements must be
+ * distinct under the comparator. Not thread-safe.
+ */
+public class OrderStatisticTree<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Insert an element; returns false if an equal element is present.
+     */
+    public boolean insert(T value) {
+        if (contains(value)) {
+            return false;
+        }
+        root = insert(root, new Node<>(value, ThreadLocalRandom.current().nextInt()));
+        return true;
+    }
+
+    /**
+     * Remove an element; returns false if it was not present.
+     */
+    public boolean remove(T value) {
+        if (!contains(value)) {
+            return false;
+        }
+        root = remove(root, value);
+        return true;
+    }
+
+    public boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Number of elements strictly smaller than the given value
+     * (its 0-based position if present).
+     */
+    public int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Element at a 0-based position.
+     *
+     * @throws IndexOutOfBoundsException if index is outside [0, size)
+     */
+    public T select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Up to count elements in order, starting at a 0-based position.
+     */
+    public List<T> range(int from, int count) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        collect(root, from, count, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, int from, int count, List<T> out) {
+        if (node == null || out.size() >= count) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (from < leftSize) {
+            collect(node.left, from, count, out);
+        }
+        if (out.size() < count && from <= leftSize) {
+            out.add(node.value);
+        }
+        if (out.size() < count) {
+            collect(node.right, Math.max(0, from - leftSize - 1), count, out);
+        }
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (fresh.priority > node.priority) {
+            Node<T>[] parts = split(node, fresh.value);
+            fresh.left = parts[0];
+            fresh.right = parts[1];
+            return update(fresh);
+        }
+        if (comparator.compare(fresh.value, node.value) < 0) {
+            node.left = insert(node.left, fresh);
+        } else {
+            node.right = insert(node.right, fresh);
+        }
+        return update(node);
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        int cmp = comparator.compare(value, node.value);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, value);
+        } else {
+            node.right = remove(node.right, value);
+        }
+        return update(node);
+    }
+
+    /**
+     * Split into (elements < value, elements >= value).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node<T>[] split(Node<T> node, T value) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (comparator.compare(node.value, value) < 0) {
+            Node<T>[] parts = split(node.right, value);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, value);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.codingplatform.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets: up to {@code limit} requests per window, refilled
+ * continuously.
+ *
+ * Each bucket is a single AtomicLong holding its theoretical arrival time
+ * (the generic cell rate algorithm, equivalent to a token bucket of size
+ * limit), updated with a CAS loop, so acquiring never locks. Buckets live in
+ * a Caffeine map and are dropped after a window without use; by then they
+ * would be full again, so eviction never changes a decision.
+ */
+public class RateLimiter {
+
+    private final int limit;
+    private final long windowNanos;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(int limit, Duration window, long maxKeys) {
+        this(limit, window, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int limit, Duration window, long maxKeys, LongSupplier clock) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.intervalNanos = windowNanos / limit;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    /**
+     * Take one token from the key's bucket if available.
+     */
+    public Decision tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = bucket.get();
+            long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long next = start + intervalNanos;
+            long backlog = next - now;
+            if (backlog > windowNanos) {
+                return new Decision(false, limit, 0, seconds(start - now), seconds(backlog - windowNanos));
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                int remaining = (int) Math.min(limit, (windowNanos - backlog) / intervalNanos);
+                return new Decision(true, limit, remaining, seconds(backlog), 0);
+            }
+        }
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Outcome of an acquire, with the values for RateLimit-* headers.
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long resetSeconds;
+        private final long retryAfterSeconds;
+
+        Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetSeconds = resetSeconds;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() { return allowed; }
+
+        public int getLimit() { return limit; }
+
+        /** Tokens left after this request. */
+        public int getRemaining() { return remaining; }
+
+        /** Seconds until the bucket is full again. */
+        public long getResetSeconds() { return resetSeconds; }
+
+        /** Seconds until the next request would be allowed (0 if allowed). */
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+}
@@ -0,0 +1,172 @@
+package com.codingplatform.datasource;
+
+import com.codingplatform.config.ReplicaConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read routing against two in-memory H2 databases standing in for the
+ * primary and one replica. Each database answers "which one am I" from a
+ * whoami table; the replica's lag is read from a replica_status table the
+ * tests update.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_SECONDS = 5;
+
+    private JdbcTemplate replicaStatus;
+    private ReplicaLagMonitor lagMonitor;
+    private ReadYourWritesTracker readYourWrites;
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaStatus = new JdbcTemplate(replica);
+        replicaStatus.execute("CREATE TABLE replica_status (seconds_behind BIGINT)");
+        replicaStatus.update("INSERT INTO replica_status VALUES (0)");
+
+        lagMonitor = new ReplicaLagMonitor(Map.of("replica-1", replica), MAX_LAG_SECONDS,
+                "SELECT seconds_behind AS Seconds_Behind_Source FROM replica_status",
+                "Seconds_Behind_Source", new SimpleMeterRegistry());
+        ReplicaConfig config = new ReplicaConfig();
+        ReflectionTestUtils.setField(config, "stickySeconds", 10L);
+        readYourWrites = new ReadYourWritesTracker(config);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, readYourWrites);
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, "replica-1", replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        lagMonitor.check();
+        assertThat(served(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsUseAReplicaWithinTheLagLimit() {
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheFirstLagCheck() {
+        assertThat(served(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackWhenTheReplicaLagsTooFar() {
+        setLag(MAX_LAG_SECONDS + 1);
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("primary");
+
+        setLag(MAX_LAG_SECONDS);
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsFallBackWhenTheLagIsUnknown() {
+        replicaStatus.update("UPDATE replica_status SET seconds_behind = NULL");
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackWhenTheLagCheckFails() {
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("replica");
+
+        replicaStatus.execute("DROP TABLE replica_status");
+        lagMonitor.check();
+        assertThat(served(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStickToThePrimaryAfterACommittedWrite() {
+        lagMonitor.check();
+        signIn(42L);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            readYourWrites.markWrite(42L);
+            assertThat(readYourWrites.isSticky(42L)).isFalse();
+        });
+        assertThat(served(true)).isEqualTo("primary");
+
+        signIn(7L);
+        assertThat(served(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotStick() {
+        lagMonitor.check();
+        signIn(42L);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            readYourWrites.markWrite(42L);
+            status.setRollbackOnly();
+        });
+        assertThat(served(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void backgroundAndPrimaryRequiredReadsUseThePrimary() {
+        lagMonitor.check();
+        assertThat(WorkloadContext.callAs(Workload.BACKGROUND, () -> served(true))).isEqualTo("primary");
+        assertThat(WorkloadContext.callOnPrimary(() -> served(true))).isEqualTo("primary");
+        assertThat(served(true)).isEqualTo("replica");
+    }
+
+    private String served(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private void setLag(long seconds) {
+        replicaStatus.update("UPDATE replica_status SET seconds_behind = ?", seconds);
+    }
+
+    private static void signIn(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(16))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,91 @@
+package com.codingplatform.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pool routing against one in-memory H2 database per workload, each
+ * answering "which pool am I" from a whoami table. Bulkhead methods are
+ * called through an AspectJ proxy with {@link BulkheadAspect}, as Spring
+ * would.
+ */
+class WorkloadRoutingDataSourceTest {
+
+    private Pools pools;
+
+    @BeforeEach
+    void setUp() {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                Workload.CATALOG, database("catalog"),
+                Workload.SUBMISSION, database("submission"),
+                Workload.BACKGROUND, database("background")));
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        Pools target = new Pools(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new BulkheadAspect());
+        pools = factory.getProxy();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheCatalogPool() {
+        assertThat(pools.served(true)).isEqualTo("catalog");
+    }
+
+    @Test
+    void readWriteTransactionsUseTheSubmissionPool() {
+        assertThat(pools.served(false)).isEqualTo("submission");
+    }
+
+    @Test
+    void backgroundWorkUsesTheBackgroundPool() {
+        assertThat(pools.servedInBackground(true)).isEqualTo("background");
+        assertThat(pools.servedInBackground(false)).isEqualTo("background");
+        assertThat(pools.served(true)).isEqualTo("catalog");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(16))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+
+    static class Pools {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final DataSourceTransactionManager transactionManager;
+
+        Pools(JdbcTemplate jdbcTemplate, DataSourceTransactionManager transactionManager) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.transactionManager = transactionManager;
+        }
+
+        public String served(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+        }
+
+        @Bulkhead(Workload.BACKGROUND)
+        public String servedInBackground(boolean readOnly) {
+            return served(readOnly);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.codingplatform.security;
+
+import com.codingplatform.config.RateLimitConfig;
+import com.codingplatform.config.WarmupConfig;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rate limiting behind a reverse proxy: requests go through an embedded
+ * Tomcat configured from the server block of application.yml, the way
+ * nginx forwards them, and must be counted per forwarded client. Only
+ * loopback requests with the warmup token bypass the limits.
+ */
+class RateLimitFilterTest {
+
+    private static final String WARMUP_TOKEN = "warmup-token";
+
+    private static final List<RateLimitConfig.Policy> POLICIES = List.of(
+            new RateLimitConfig.Policy("auth", List.of("/api/auth/**"), 2, Duration.ofSeconds(60)));
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private WebServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        for (PropertySource<?> source : new YamlPropertySourceLoader()
+                .load("application", new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+        ServerProperties serverProperties = Binder.get(environment)
+                .bind("server", ServerProperties.class)
+                .get();
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new TomcatWebServerFactoryCustomizer(environment, serverProperties).customize(factory);
+
+        RateLimitFilter filter = new RateLimitFilter(true, POLICIES, 1000, WARMUP_TOKEN);
+        server = factory.getWebServer(servletContext -> {
+            servletContext.addFilter("rateLimit", filter).addMappingForUrlPatterns(null, false, "/*");
+            servletContext.addServlet("ok", new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    response.setStatus(200);
+                }
+            }).addMapping("/");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void forwardedClientsGetSeparateBuckets() throws Exception {
+        assertThat(login("203.0.113.1")).isEqualTo(200);
+        assertThat(login("203.0.113.1")).isEqualTo(200);
+        assertThat(login("203.0.113.1")).isEqualTo(429);
+
+        assertThat(login("203.0.113.2")).isEqualTo(200);
+        assertThat(login("198.51.100.7, 203.0.113.3")).isEqualTo(200);
+    }
+
+    @Test
+    void requestsWithoutForwardingShareTheProxyBucket() throws Exception {
+        assertThat(login(null)).isEqualTo(200);
+        assertThat(login(null)).isEqualTo(200);
+        assertThat(login(null)).isEqualTo(429);
+        assertThat(login("203.0.113.1")).isEqualTo(200);
+    }
+
+    @Test
+    void loopbackWarmupRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(login(null, WARMUP_TOKEN)).isEqualTo(200);
+        }
+        assertThat(login(null, "guessed")).isEqualTo(200);
+        assertThat(login(null, "guessed")).isEqualTo(200);
+        assertThat(login(null, "guessed")).isEqualTo(429);
+    }
+
+    @Test
+    void forwardedRequestsWithTheWarmupTokenAreLimited() throws Exception {
+        assertThat(login("203.0.113.1", WARMUP_TOKEN)).isEqualTo(200);
+        assertThat(login("203.0.113.1", WARMUP_TOKEN)).isEqualTo(200);
+        assertThat(login("203.0.113.1", WARMUP_TOKEN)).isEqualTo(429);
+    }
+
+    private int login(String forwardedFor) throws Exception {
+        return login(forwardedFor, null);
+    }
+
+    private int login(String forwardedFor, String warmupToken) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + server.getPort() + "/api/auth/login"))
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        if (warmupToken != null) {
+            request.header(WarmupConfig.TOKEN_HEADER, warmupToken);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,190 @@
+package com.codingplatform.service;
+
+import com.codingplatform.dto.PaginatedResponse;
+import com.codingplatform.dto.SubmissionHistoryDTO;
+import com.codingplatform.entity.SubmissionArchiveSegment;
+import com.codingplatform.repository.ProblemRepository;
+import com.codingplatform.repository.ProblemTagRepository;
+import com.codingplatform.repository.SubmissionArchiveSegmentRepository;
+import com.codingplatform.repository.SubmissionRepository;
+import com.codingplatform.storage.ArchivedSubmission;
+import com.codingplatform.storage.LocalArchiveStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * History paging for a user whose submissions have all been moved to cold
+ * storage. The live repository is empty; archived rows are read from a
+ * local archive through a segment index that, like MySQL's DATETIME,
+ * rejects times after the year 9999.
+ */
+class SubmissionHistoryServiceTest {
+
+    private static final long USER_ID = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<SubmissionArchiveSegment> segments = new ArrayList<>();
+    private Path archiveRoot;
+    private SubmissionHistoryService historyService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archiveRoot = Files.createTempDirectory("archive");
+        writePartition("p202401", row(2, "two-sum", "2024-01-20T10:00"), row(1, "fizz-buzz", "2024-01-10T10:00"));
+        writePartition("p202402", row(4, "two-sum", "2024-02-20T10:00"), row(3, "fizz-buzz", "2024-02-10T10:00"));
+
+        SubmissionArchiveReader archiveReader = new SubmissionArchiveReader(
+                segmentRepository(), new LocalArchiveStore(archiveRoot), objectMapper);
+        ProblemRepository problemRepository = empty(ProblemRepository.class);
+        historyService = new SubmissionHistoryService(empty(SubmissionRepository.class), problemRepository,
+                new ProblemCatalog(problemRepository, empty(ProblemTagRepository.class)), archiveReader);
+    }
+
+    @AfterEach
+    void deleteArchive() throws IOException {
+        try (Stream<Path> paths = Files.walk(archiveRoot)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void pagesThroughArchivedRowsNewestFirst() {
+        PaginatedResponse<SubmissionHistoryDTO> first = historyService.getUserSubmissions(USER_ID, null, 3, true);
+        assertThat(ids(first)).containsExactly(4L, 3L, 2L);
+        assertThat(first.getTotalElements()).isEqualTo(4L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        PaginatedResponse<SubmissionHistoryDTO> second =
+                historyService.getUserSubmissions(USER_ID, first.getNextCursor(), 3, false);
+        assertThat(ids(second)).containsExactly(1L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pagesThroughArchivedRowsOfOneProblem() {
+        PaginatedResponse<SubmissionHistoryDTO> first =
+                historyService.getUserSubmissionsForProblem(USER_ID, "two-sum", null, 1, true);
+        assertThat(ids(first)).containsExactly(4L);
+        assertThat(first.getTotalElements()).isEqualTo(2L);
+
+        PaginatedResponse<SubmissionHistoryDTO> second =
+                historyService.getUserSubmissionsForProblem(USER_ID, "two-sum", first.getNextCursor(), 1, false);
+        assertThat(ids(second)).containsExactly(2L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private static List<Long> ids(PaginatedResponse<SubmissionHistoryDTO> page) {
+        return page.getContent().stream().map(SubmissionHistoryDTO::getId).toList();
+    }
+
+    private static ArchivedSubmission row(long id, String problemId, String submittedAt) {
+        ArchivedSubmission row = new ArchivedSubmission();
+        row.setId(id);
+        row.setUserId(USER_ID);
+        row.setProblemId(problemId);
+        row.setLanguage("python");
+        row.setStatus("ACCEPTED");
+        row.setPassedTests(3);
+        row.setTotalTests(3);
+        row.setSubmittedAt(LocalDateTime.parse(submittedAt));
+        return row;
+    }
+
+    /**
+     * Write one partition archive holding a single gzip member (the user's
+     * segment), rows newest first as the archive job writes them.
+     */
+    private void writePartition(String partitionName, ArchivedSubmission... rows) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(member)) {
+            for (ArchivedSubmission row : rows) {
+                gzip.write((objectMapper.writeValueAsString(row) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Path file = archiveRoot.resolve(SubmissionArchiveService.objectKey(partitionName));
+        Files.createDirectories(file.getParent());
+        Files.write(file, member.toByteArray());
+
+        SubmissionArchiveSegment segment = new SubmissionArchiveSegment();
+        segment.setId(new SubmissionArchiveSegment.Key(USER_ID, partitionName));
+        segment.setByteOffset(0L);
+        segment.setByteLength(member.size());
+        segment.setRowCount(rows.length);
+        segment.setMinId(rows[rows.length - 1].getId());
+        segment.setMaxId(rows[0].getId());
+        segment.setMinSubmittedAt(rows[rows.length - 1].getSubmittedAt());
+        segment.setMaxSubmittedAt(rows[0].getSubmittedAt());
+        segments.add(segment);
+    }
+
+    private SubmissionArchiveSegmentRepository segmentRepository() {
+        return (SubmissionArchiveSegmentRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {SubmissionArchiveSegmentRepository.class}, (proxy, method, args) -> {
+                    List<SubmissionArchiveSegment> newestFirst = segments.stream()
+                            .sorted(Comparator.comparing(SubmissionArchiveSegment::getMaxSubmittedAt).reversed())
+                            .toList();
+                    switch (method.getName()) {
+                        case "findByUserIdOrderByMaxSubmittedAtDesc":
+                            return newestFirst;
+                        case "findByUserIdStartingBefore": {
+                            LocalDateTime before = (LocalDateTime) args[1];
+                            if (before.getYear() > 9999) {
+                                throw new IllegalArgumentException("Outside the DATETIME range: " + before);
+                            }
+                            return newestFirst.stream().filter(s -> !s.getMinSubmittedAt().isAfter(before)).toList();
+                        }
+                        case "sumRowCountByUserId":
+                            return segments.stream().mapToLong(SubmissionArchiveSegment::getRowCount).sum();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * A repository with no rows: lists and optionals are empty, counts zero.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T empty(Class<T> repository) {
+        return (T) Proxy.newProxyInstance(SubmissionHistoryServiceTest.class.getClassLoader(),
+                new Class<?>[] {repository}, (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (Iterable.class.isAssignableFrom(type)) {
+                        return List.of();
+                    }
+                    if (type == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (type == long.class || type == Long.class) {
+                        return 0L;
+                    }
+                    if (type == boolean.class) {
+                        return false;
+                    }
+                    if (method.getName().equals("toString")) {
+                        return repository.getSimpleName();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
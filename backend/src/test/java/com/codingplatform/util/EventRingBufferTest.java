@@ -0,0 +1,89 @@
+package com.codingplatform.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRingBufferTest {
+
+    @Test
+    void readsFromTheOldestRetainedEventAfterWrapping() {
+        EventRingBuffer<String> buffer = new EventRingBuffer<>(4);
+        for (int i = 1; i <= 10; i++) {
+            buffer.publish("event-" + i);
+        }
+
+        EventRingBuffer.Batch<String> batch = buffer.readAfter(0, 100);
+        assertThat(batch.isGap()).isTrue();
+        assertThat(sequences(batch)).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(batch.getEvents().get(0).getEvent()).isEqualTo("event-7");
+        assertThat(batch.getCursor()).isEqualTo(10L);
+    }
+
+    @Test
+    void aStalledPublisherDoesNotHideNewerEvents() {
+        EventRingBuffer<String> buffer = new EventRingBuffer<>(4);
+        long stalled = buffer.claim();
+        for (int i = 2; i <= 6; i++) {
+            buffer.publish("event-" + i);
+        }
+        // sequence 5 took the stalled publisher's slot one lap ahead
+        buffer.store(stalled, "event-1");
+
+        EventRingBuffer.Batch<String> batch = buffer.readAfter(2, 100);
+        assertThat(sequences(batch)).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(batch.getEvents().get(2).getEvent()).isEqualTo("event-5");
+    }
+
+    /**
+     * Many publishers lapping a tiny ring: once they are done, the last
+     * {@code capacity} events must all be readable. A publisher that was
+     * descheduled between claiming and writing its slot must not replace
+     * the newer event a faster publisher already wrote there.
+     */
+    @Test
+    void concurrentPublishersWrappingTheRingLeaveTheNewestEventsReadable() throws Exception {
+        int threads = 8;
+        int eventsPerThread = 5_000;
+        for (int round = 0; round < 50; round++) {
+            EventRingBuffer<Integer> buffer = new EventRingBuffer<>(2);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> publishers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread publisher = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        buffer.publish(i);
+                    }
+                });
+                publisher.start();
+                publishers.add(publisher);
+            }
+            start.countDown();
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+
+            long last = buffer.lastSequence();
+            assertThat(last).isEqualTo((long) threads * eventsPerThread);
+            EventRingBuffer.Batch<Integer> batch = buffer.readAfter(last - buffer.capacity(), 100);
+            assertThat(sequences(batch)).containsExactly(last - 1, last);
+        }
+    }
+
+    private static List<Long> sequences(EventRingBuffer.Batch<?> batch) {
+        return batch.getEvents().stream().map(EventRingBuffer.Sequenced::getSequence).toList();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,7 +7,10 @@ import type {
   AuthRequest,
   AuthResponse,
   SubmissionHistory,
-  PaginatedResponse
+  PaginatedResponse,
+  UserProgress,
+  LeaderboardEntry,
+  VerdictStats
 } from './types';
 
 const API_BASE = '/api';
@@ -32,18 +35,23 @@ function getHeaders(): HeadersInit {
  */
 export const api = {
   /**
-   * Get all problems with optional filters.
+   * Get one page of problems with optional filters. Pass the previous
+   * page's nextCursor to get the following page.
    */
-  async getProblems(params?: {
+  async getProblemsPage(params?: {
     category?: string;
     difficulty?: string;
     search?: string;
-  }): Promise<ProblemListItem[]> {
+    cursor?: string;
+    limit?: number;
+  }): Promise<PaginatedResponse<ProblemListItem>> {
     const url = new URL(`${API_BASE}/problems`, window.location.origin);
     
     if (params?.category) url.searchParams.set('category', params.category);
     if (params?.difficulty) url.searchParams.set('difficulty', params.difficulty);
     if (params?.search) url.searchParams.set('search', params.search);
+    if (params?.cursor) url.searchParams.set('cursor', params.cursor);
+    if (params?.limit) url.searchParams.set('limit', String(params.limit));
     
     const response = await fetch(url.toString());
     if (!response.ok) throw new Error('Failed to fetch problems');
@@ -116,6 +124,16 @@ export const api = {
     return response.json();
   },
 
+  /**
+   * Revoke the current token on the server
+   */
+  async logout(): Promise<void> {
+    await fetch(`${API_BASE}/auth/logout`, {
+      method: 'POST',
+      headers: getHeaders()
+    });
+  },
+
   /**
    * Submit code for evaluation.
    */
@@ -137,8 +155,12 @@ export const api = {
   /**
    * Get my submissions
    */
-  async getMySubmissions(page: number = 0, size: number = 20): Promise<PaginatedResponse<SubmissionHistory>> {
-    const response = await fetch(`${API_BASE}/submissions/me?page=${page}&size=${size}`, {
+  async getMySubmissions(cursor?: string, size: number = 20): Promise<PaginatedResponse<SubmissionHistory>> {
+    const url = new URL(`${API_BASE}/submissions/me`, window.location.origin);
+    url.searchParams.set('size', String(size));
+    if (cursor) url.searchParams.set('cursor', cursor);
+    
+    const response = await fetch(url.toString(), {
       headers: getHeaders()
     });
     
@@ -164,6 +186,122 @@ export const api = {
     return response.json();
   },
 
+  /**
+   * Get my solved / attempted problems and per-difficulty counts
+   */
+  async getMyProgress(): Promise<UserProgress> {
+    const response = await fetch(`${API_BASE}/me/progress`, {
+      headers: getHeaders()
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to fetch progress');
+    }
+    
+    return response.json();
+  },
+
+  /**
+   * Get one page of the global leaderboard
+   */
+  async getLeaderboard(page: number = 0, size: number = 50): Promise<PaginatedResponse<LeaderboardEntry>> {
+    const response = await fetch(`${API_BASE}/leaderboard?page=${page}&size=${size}`);
+    
+    if (!response.ok) {
+      throw new Error('Failed to fetch leaderboard');
+    }
+    
+    return response.json();
+  },
+
+  /**
+   * Get my leaderboard standing (null until the first accepted solution)
+   */
+  async getMyStanding(): Promise<LeaderboardEntry | null> {
+    const response = await fetch(`${API_BASE}/leaderboard/me`, {
+      headers: getHeaders()
+    });
+    
+    if (response.status === 204) {
+      return null;
+    }
+    if (!response.ok) {
+      throw new Error('Failed to fetch standing');
+    }
+    
+    return response.json();
+  },
+
+  /**
+   * Download my full submission history as NDJSON or CSV (optionally gzipped)
+   */
+  async exportMySubmissions(
+    format: 'ndjson' | 'csv' = 'ndjson',
+    options: { gzip?: boolean; includeCode?: boolean; problemId?: string } = {}
+  ): Promise<Blob> {
+    const params = new URLSearchParams({ format });
+    if (options.gzip) params.set('gzip', 'true');
+    if (options.includeCode) params.set('includeCode', 'true');
+    if (options.problemId) params.set('problemId', options.problemId);
+    const response = await fetch(`${API_BASE}/submissions/me/export?${params}`, {
+      headers: getHeaders()
+    });
+    
+    if (response.status === 429) {
+      throw new Error('Too many exports in progress, try again shortly');
+    }
+    if (!response.ok) {
+      throw new Error('Failed to export submissions');
+    }
+    
+    return response.blob();
+  },
+
+  /**
+   * Get verdict counts per hour or day bucket in [from, to) (ISO local date-times)
+   */
+  async getVerdictSeries(
+    from: string,
+    to: string,
+    granularity: 'hour' | 'day' = 'day',
+    filters: { problemId?: string; language?: string } = {}
+  ): Promise<VerdictStats[]> {
+    const params = new URLSearchParams({ from, to, granularity });
+    if (filters.problemId) params.set('problemId', filters.problemId);
+    if (filters.language) params.set('language', filters.language);
+    const response = await fetch(`${API_BASE}/analytics/verdicts?${params}`, {
+      headers: getHeaders()
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to fetch verdict series');
+    }
+    
+    return response.json();
+  },
+
+  /**
+   * Get verdict counts per problem or per language in [from, to)
+   */
+  async getVerdictBreakdown(
+    by: 'problem' | 'language',
+    from: string,
+    to: string,
+    problemId?: string
+  ): Promise<VerdictStats[]> {
+    const params = new URLSearchParams({ by, from, to });
+    if (problemId) params.set('problemId', problemId);
+    const response = await fetch(`${API_BASE}/analytics/breakdown?${params}`, {
+      headers: getHeaders()
+    });
+    
+    if (!response.ok) {
+      throw new Error('Failed to fetch verdict breakdown');
+    }
+    
+    return response.json();
+  },
+
   /**
    * Health check.
    */
@@ -45,6 +45,8 @@ export function AuthProvider({ children }: { children: ReactNode }) {
   };
 
   const logout = () => {
+    // Revoke server-side; the local session ends either way
+    api.logout().catch(() => {});
     localStorage.removeItem('token');
     localStorage.removeItem('email');
     localStorage.removeItem('userId');
@@ -5,63 +5,96 @@ import type { ProblemListItem, Stats } from '../types';
 import { DifficultyBadge } from '../components/DifficultyBadge';
 import { LoadingSpinner } from '../components/LoadingSpinner';
 
+const PAGE_SIZE = 50;
+const SEARCH_DELAY_MS = 300;
+
 export function ProblemListPage() {
   const [problems, setProblems] = useState<ProblemListItem[]>([]);
+  // Cursor of the next page; undefined once the last page is loaded
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
   const [categories, setCategories] = useState<string[]>([]);
   const [stats, setStats] = useState<Stats | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
-  // Filters
+  // Filters (applied by the server, so paging covers the whole catalog)
   const [selectedCategory, setSelectedCategory] = useState<string>('');
   const [selectedDifficulty, setSelectedDifficulty] = useState<string>('');
   const [searchQuery, setSearchQuery] = useState('');
+  const [search, setSearch] = useState('');
+
+  const filters = useMemo(() => ({
+    category: selectedCategory || undefined,
+    difficulty: selectedDifficulty || undefined,
+    search: search || undefined,
+  }), [selectedCategory, selectedDifficulty, search]);
 
-  // Fetch data
+  // Debounce typing in the search box
   useEffect(() => {
-    async function fetchData() {
-      try {
-        setLoading(true);
-        const [problemsData, categoriesData, statsData] = await Promise.all([
-          api.getProblems(),
-          api.getCategories(),
-          api.getStats()
-        ]);
-        setProblems(problemsData);
+    const timer = setTimeout(() => setSearch(searchQuery.trim()), SEARCH_DELAY_MS);
+    return () => clearTimeout(timer);
+  }, [searchQuery]);
+
+  // Fetch categories and stats
+  useEffect(() => {
+    Promise.all([api.getCategories(), api.getStats()])
+      .then(([categoriesData, statsData]) => {
         setCategories(categoriesData);
         setStats(statsData);
+      })
+      .catch(err => console.error(err));
+  }, []);
+
+  // Fetch the first page whenever the filters change
+  useEffect(() => {
+    let cancelled = false;
+    async function fetchFirstPage() {
+      try {
+        setLoading(true);
+        const page = await api.getProblemsPage({ ...filters, limit: PAGE_SIZE });
+        if (cancelled) return;
+        setProblems(page.content);
+        setNextCursor(page.nextCursor);
         setError(null);
       } catch (err) {
+        if (cancelled) return;
         setError('Failed to load problems. Make sure the backend is running.');
         console.error(err);
       } finally {
-        setLoading(false);
+        if (!cancelled) setLoading(false);
       }
     }
-    fetchData();
-  }, []);
+    fetchFirstPage();
+    return () => { cancelled = true; };
+  }, [filters]);
 
-  // Filter problems
-  const filteredProblems = useMemo(() => {
-    return problems.filter(p => {
-      if (selectedCategory && p.category !== selectedCategory) return false;
-      if (selectedDifficulty && p.difficulty !== selectedDifficulty) return false;
-      if (searchQuery && !p.title.toLowerCase().includes(searchQuery.toLowerCase())) return false;
-      return true;
-    });
-  }, [problems, selectedCategory, selectedDifficulty, searchQuery]);
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    try {
+      setLoadingMore(true);
+      const page = await api.getProblemsPage({ ...filters, cursor: nextCursor, limit: PAGE_SIZE });
+      setProblems(prev => [...prev, ...page.content]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError('Failed to load problems. Make sure the backend is running.');
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
 
   // Group by category
   const groupedProblems = useMemo(() => {
     const groups: Record<string, ProblemListItem[]> = {};
-    filteredProblems.forEach(p => {
+    problems.forEach(p => {
       if (!groups[p.category]) groups[p.category] = [];
       groups[p.category].push(p);
     });
     return groups;
-  }, [filteredProblems]);
+  }, [problems]);
 
-  if (loading) {
+  if (loading && problems.length === 0 && !error) {
     return (
       <div className="flex items-center justify-center min-h-[60vh]">
         <LoadingSpinner size="lg" />
@@ -176,6 +209,18 @@ export function ProblemListPage() {
           ))}
         </div>
       )}
+
+      {nextCursor && (
+        <div className="mt-8 flex justify-center">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="px-4 py-2 bg-dark-800 border border-gray-700 rounded-lg text-gray-300 hover:bg-dark-700 disabled:opacity-50 disabled:cursor-not-allowed"
+          >
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
     </div>
   );
 }
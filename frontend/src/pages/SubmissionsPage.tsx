@@ -21,16 +21,18 @@ export function SubmissionsPage() {
   const [submissions, setSubmissions] = useState<PaginatedResponse<SubmissionHistory> | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
-  const [page, setPage] = useState(0);
+  // Cursors of the pages visited so far; the last one is the current page
+  const [cursors, setCursors] = useState<(string | undefined)[]>([undefined]);
+  const page = cursors.length - 1;
 
   useEffect(() => {
     fetchSubmissions();
-  }, [page]);
+  }, [cursors]);
 
   const fetchSubmissions = async () => {
     try {
       setLoading(true);
-      const data = await api.getMySubmissions(page, 20);
+      const data = await api.getMySubmissions(cursors[cursors.length - 1], 20);
       setSubmissions(data);
       setError(null);
     } catch (err) {
@@ -118,20 +120,20 @@ export function SubmissionsPage() {
             </table>
           </div>
 
-          {submissions && submissions.totalPages > 1 && (
+          {submissions && (submissions.hasNext || submissions.hasPrevious) && (
             <div className="mt-6 flex items-center justify-center gap-2">
               <button
-                onClick={() => setPage(p => Math.max(0, p - 1))}
+                onClick={() => setCursors(c => c.slice(0, -1))}
                 disabled={!submissions.hasPrevious}
                 className="px-4 py-2 bg-dark-800 border border-gray-700 rounded-lg text-gray-300 hover:bg-dark-700 disabled:opacity-50 disabled:cursor-not-allowed"
               >
                 Previous
               </button>
               <span className="px-4 py-2 text-gray-400">
-                Page {page + 1} of {submissions.totalPages}
+                Page {page + 1}
               </span>
               <button
-                onClick={() => setPage(p => p + 1)}
+                onClick={() => setCursors(c => [...c, submissions.nextCursor])}
                 disabled={!submissions.hasNext}
                 className="px-4 py-2 bg-dark-800 border border-gray-700 rounded-lg text-gray-300 hover:bg-dark-700 disabled:opacity-50 disabled:cursor-not-allowed"
               >
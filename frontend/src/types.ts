@@ -7,6 +7,10 @@ export interface ProblemListItem {
   difficulty: 'easy' | 'medium' | 'hard';
   timeLimit: number;
   memoryLimit: number;
+  totalSubmissions: number;
+  acceptedSubmissions: number;
+  acceptanceRate: number;
+  solvers: number;
 }
 
 export interface ProblemDetail {
@@ -88,14 +92,48 @@ export interface SubmissionHistory {
   submittedAt: string;
 }
 
+export interface DifficultyProgress {
+  total: number;
+  solved: number;
+  attempted: number;
+}
+
+export interface UserProgress {
+  totalProblems: number;
+  solvedCount: number;
+  attemptedCount: number;
+  byDifficulty: Record<string, DifficultyProgress>;
+  solved: string[];
+  attempted: string[];
+}
+
+export interface LeaderboardEntry {
+  rank: number;
+  userId: number;
+  name: string;
+  solved: number;
+  penalty: number;
+}
+
+export interface VerdictStats {
+  key: string;
+  total: number;
+  counts: Record<string, number>;
+  acceptanceRate: number;
+  tleRate: number;
+  ceRate: number;
+}
+
 export interface PaginatedResponse<T> {
   content: T[];
   page: number;
   size: number;
-  totalElements: number;
-  totalPages: number;
+  // Omitted on cursor (keyset) pages, which have no total count
+  totalElements?: number;
+  totalPages?: number;
   hasNext: boolean;
   hasPrevious: boolean;
+  nextCursor?: string;
 }
 
 export type Language = 'python' | 'cpp' | 'java' | 'javascript';
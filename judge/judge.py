@@ -25,6 +25,8 @@ import tempfile
 import os
 import shutil
 import logging
+import threading
+import time
 from flask import Flask, request, jsonify
 
 # Configure logging
@@ -50,6 +52,54 @@ class Verdict:
     COMPILATION_ERROR = "Compilation Error"
 
 
+def communicate_measured(process: subprocess.Popen, input_data: str, timeout: float):
+    """
+    Like process.communicate(), but reaps the child with os.wait4() to keep
+    its own resource usage: RUSAGE_CHILDREN would mix in every other child
+    of this worker, and its ru_maxrss never goes down. communicate() reaps
+    the child itself, so the pipes are fed and drained here instead. A child
+    still running after the timeout is killed.
+
+    Returns (stdout, stderr, usage, timed_out) and sets process.returncode.
+    usage holds CPU time in ms and peak RSS in KB (ru_maxrss is KB on Linux).
+    """
+    output = {}
+
+    def feed():
+        try:
+            process.stdin.write(input_data)
+            process.stdin.close()
+        except (BrokenPipeError, OSError):
+            pass
+
+    def drain(name, stream):
+        output[name] = stream.read()
+
+    threads = [
+        threading.Thread(target=feed, daemon=True),
+        threading.Thread(target=drain, args=("stdout", process.stdout), daemon=True),
+        threading.Thread(target=drain, args=("stderr", process.stderr), daemon=True),
+    ]
+    for thread in threads:
+        thread.start()
+
+    deadline = time.monotonic() + timeout
+    for thread in threads[1:]:
+        thread.join(max(0.0, deadline - time.monotonic()))
+    timed_out = any(thread.is_alive() for thread in threads[1:])
+    if timed_out:
+        process.kill()
+
+    _, status, rusage = os.wait4(process.pid, 0)
+    process.returncode = os.waitstatus_to_exitcode(status)
+    for thread in threads:
+        thread.join()
+
+    cpu_seconds = rusage.ru_utime + rusage.ru_stime
+    usage = {"time_ms": int(round(cpu_seconds * 1000)), "memory_kb": rusage.ru_maxrss}
+    return output.get("stdout", ""), output.get("stderr", ""), usage, timed_out
+
+
 class LanguageRunner:
     """Base class for language-specific code runners."""
     
@@ -63,6 +113,35 @@ class LanguageRunner:
     def run(self, input_data: str) -> dict:
         """Run the code with input. Returns execution result."""
         raise NotImplementedError
+    
+    def execute(self, command: list, input_data: str) -> dict:
+        """
+        Run a command against one input, measuring the child's CPU time
+        (user + system) and peak resident set size.
+        """
+        try:
+            with subprocess.Popen(
+                command,
+                cwd=self.temp_dir,
+                stdin=subprocess.PIPE,
+                stdout=subprocess.PIPE,
+                stderr=subprocess.PIPE,
+                text=True
+            ) as process:
+                stdout, stderr, usage, timed_out = communicate_measured(process, input_data, TIMEOUT_SECONDS)
+            if timed_out:
+                return {"success": False, "stdout": "", "stderr": "Time limit exceeded", "timeout": True,
+                        **usage}
+            return {
+                "success": process.returncode == 0,
+                "stdout": stdout[:MAX_OUTPUT_SIZE],
+                "stderr": stderr[:MAX_OUTPUT_SIZE],
+                "timeout": False,
+                **usage
+            }
+        except Exception as e:
+            return {"success": False, "stdout": "", "stderr": str(e), "timeout": False,
+                    "time_ms": None, "memory_kb": None}
 
 
 class PythonRunner(LanguageRunner):
@@ -75,25 +154,7 @@ class PythonRunner(LanguageRunner):
         return {"success": True, "error": None}
     
     def run(self, input_data: str) -> dict:
-        try:
-            process = subprocess.run(
-                ["python3", self.code_file],
-                cwd=self.temp_dir,
-                input=input_data,
-                capture_output=True,
-                text=True,
-                timeout=TIMEOUT_SECONDS
-            )
-            return {
-                "success": process.returncode == 0,
-                "stdout": process.stdout[:MAX_OUTPUT_SIZE],
-                "stderr": process.stderr[:MAX_OUTPUT_SIZE],
-                "timeout": False
-            }
-        except subprocess.TimeoutExpired:
-            return {"success": False, "stdout": "", "stderr": "Time limit exceeded", "timeout": True}
-        except Exception as e:
-            return {"success": False, "stdout": "", "stderr": str(e), "timeout": False}
+        return self.execute(["python3", self.code_file], input_data)
 
 
 class CppRunner(LanguageRunner):
@@ -123,25 +184,7 @@ class CppRunner(LanguageRunner):
             return {"success": False, "error": str(e)}
     
     def run(self, input_data: str) -> dict:
-        try:
-            process = subprocess.run(
-                [self.exe_file],
-                cwd=self.temp_dir,
-                input=input_data,
-                capture_output=True,
-                text=True,
-                timeout=TIMEOUT_SECONDS
-            )
-            return {
-                "success": process.returncode == 0,
-                "stdout": process.stdout[:MAX_OUTPUT_SIZE],
-                "stderr": process.stderr[:MAX_OUTPUT_SIZE],
-                "timeout": False
-            }
-        except subprocess.TimeoutExpired:
-            return {"success": False, "stdout": "", "stderr": "Time limit exceeded", "timeout": True}
-        except Exception as e:
-            return {"success": False, "stdout": "", "stderr": str(e), "timeout": False}
+        return self.execute([self.exe_file], input_data)
 
 
 class JavaRunner(LanguageRunner):
@@ -175,25 +218,7 @@ class JavaRunner(LanguageRunner):
             return {"success": False, "error": str(e)}
     
     def run(self, input_data: str) -> dict:
-        try:
-            process = subprocess.run(
-                ["java", "-Xmx256m", "Main"],
-                cwd=self.temp_dir,
-                input=input_data,
-                capture_output=True,
-                text=True,
-                timeout=TIMEOUT_SECONDS
-            )
-            return {
-                "success": process.returncode == 0,
-                "stdout": process.stdout[:MAX_OUTPUT_SIZE],
-                "stderr": process.stderr[:MAX_OUTPUT_SIZE],
-                "timeout": False
-            }
-        except subprocess.TimeoutExpired:
-            return {"success": False, "stdout": "", "stderr": "Time limit exceeded", "timeout": True}
-        except Exception as e:
-            return {"success": False, "stdout": "", "stderr": str(e), "timeout": False}
+        return self.execute(["java", "-Xmx256m", "Main"], input_data)
 
 
 class JavaScriptRunner(LanguageRunner):
@@ -206,25 +231,7 @@ class JavaScriptRunner(LanguageRunner):
         return {"success": True, "error": None}
     
     def run(self, input_data: str) -> dict:
-        try:
-            process = subprocess.run(
-                ["node", self.code_file],
-                cwd=self.temp_dir,
-                input=input_data,
-                capture_output=True,
-                text=True,
-                timeout=TIMEOUT_SECONDS
-            )
-            return {
-                "success": process.returncode == 0,
-                "stdout": process.stdout[:MAX_OUTPUT_SIZE],
-                "stderr": process.stderr[:MAX_OUTPUT_SIZE],
-                "timeout": False
-            }
-        except subprocess.TimeoutExpired:
-            return {"success": False, "stdout": "", "stderr": "Time limit exceeded", "timeout": True}
-        except Exception as e:
-            return {"success": False, "stdout": "", "stderr": str(e), "timeout": False}
+        return self.execute(["node", self.code_file], input_data)
 
 
 def get_runner(language: str, temp_dir: str) -> LanguageRunner:
@@ -254,7 +261,8 @@ def judge_code(language: str, code: str, testcases: list) -> dict:
         testcases: List of {"id": int, "input": str, "expectedOutput": str}
     
     Returns:
-        Verdict result dict
+        Verdict result dict. time_ms / memory_kb are the maxima over the
+        testcases that ran; testcase_results holds each one's measurements.
     """
     temp_dir = tempfile.mkdtemp(prefix="judge_")
     
@@ -274,65 +282,65 @@ def judge_code(language: str, code: str, testcases: list) -> dict:
         
         # Run each testcase
         passed = 0
+        measurements = []
+        
+        def verdict(name: str, failed_test=None) -> dict:
+            times = [m["time_ms"] for m in measurements if m["time_ms"] is not None]
+            memory = [m["memory_kb"] for m in measurements if m["memory_kb"] is not None]
+            return {
+                "verdict": name,
+                "passed": passed,
+                "total": len(testcases),
+                "failed_test": failed_test,
+                "time_ms": max(times) if times else None,
+                "memory_kb": max(memory) if memory else None,
+                "testcase_results": measurements
+            }
+        
         for tc in testcases:
             test_id = tc.get("id", passed + 1)
             input_data = tc.get("input", "")
             expected = tc.get("expectedOutput", "").strip()
             
             result = runner.run(input_data)
+            measurements.append({
+                "testId": test_id,
+                "time_ms": result.get("time_ms"),
+                "memory_kb": result.get("memory_kb")
+            })
             
             if result["timeout"]:
-                return {
-                    "verdict": Verdict.TIME_LIMIT_EXCEEDED,
-                    "passed": passed,
-                    "total": len(testcases),
-                    "failed_test": {
-                        "testId": test_id,
-                        "input": input_data[:500],
-                        "expected": expected[:500],
-                        "actual": "Execution timed out",
-                        "error": None
-                    }
-                }
+                return verdict(Verdict.TIME_LIMIT_EXCEEDED, {
+                    "testId": test_id,
+                    "input": input_data[:500],
+                    "expected": expected[:500],
+                    "actual": "Execution timed out",
+                    "error": None
+                })
             
             if not result["success"]:
-                return {
-                    "verdict": Verdict.RUNTIME_ERROR,
-                    "passed": passed,
-                    "total": len(testcases),
-                    "failed_test": {
-                        "testId": test_id,
-                        "input": input_data[:500],
-                        "expected": expected[:500],
-                        "actual": result["stdout"][:500],
-                        "error": result["stderr"][:500]
-                    }
-                }
+                return verdict(Verdict.RUNTIME_ERROR, {
+                    "testId": test_id,
+                    "input": input_data[:500],
+                    "expected": expected[:500],
+                    "actual": result["stdout"][:500],
+                    "error": result["stderr"][:500]
+                })
             
             actual = result["stdout"].strip()
             
             if actual != expected:
-                return {
-                    "verdict": Verdict.WRONG_ANSWER,
-                    "passed": passed,
-                    "total": len(testcases),
-                    "failed_test": {
-                        "testId": test_id,
-                        "input": input_data[:500],
-                        "expected": expected[:500],
-                        "actual": actual[:500],
-                        "error": None
-                    }
-                }
+                return verdict(Verdict.WRONG_ANSWER, {
+                    "testId": test_id,
+                    "input": input_data[:500],
+                    "expected": expected[:500],
+                    "actual": actual[:500],
+                    "error": None
+                })
             
             passed += 1
         
-        return {
-            "verdict": Verdict.ACCEPTED,
-            "passed": passed,
-            "total": len(testcases),
-            "failed_test": None
-        }
+        return verdict(Verdict.ACCEPTED)
         
     finally:
         shutil.rmtree(temp_dir, ignore_errors=True)
@@ -367,6 +375,17 @@ def judge_submission():
             ...
         ]
     }
+    
+    Response body:
+    {
+        "verdict": "Accepted",
+        "passed": 3,
+        "total": 3,
+        "failed_test": null,
+        "time_ms": 41,          # max CPU time (user + system) over testcases
+        "memory_kb": 9120,      # max peak RSS over testcases
+        "testcase_results": [{"testId": 1, "time_ms": 38, "memory_kb": 9040}, ...]
+    }
     """
     if not request.is_json:
         return jsonify({"error": "Request must be JSON"}), 400
@@ -389,7 +408,8 @@ def judge_submission():
     
     try:
         result = judge_code(language, code, testcases)
-        logger.info(f"Verdict: {result['verdict']} ({result['passed']}/{result['total']})")
+        logger.info(f"Verdict: {result['verdict']} ({result['passed']}/{result['total']}) "
+                    f"time={result.get('time_ms')}ms memory={result.get('memory_kb')}KB")
         return jsonify(result)
     except ValueError as e:
         return jsonify({"error": str(e)}), 400
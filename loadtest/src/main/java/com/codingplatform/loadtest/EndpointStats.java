@@ -0,0 +1,45 @@
+package com.codingplatform.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histogram and error count of one endpoint during one stage.
+ * Latency is recorded for every response, failed ones included.
+ */
+final class EndpointStats {
+
+    private final String endpoint;
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(120), 3);
+    private final AtomicLong errors = new AtomicLong();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long elapsedNanos, boolean error) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latency.getHighestTrackableValue()));
+        if (error) {
+            errors.incrementAndGet();
+        }
+    }
+
+    String getEndpoint() { return endpoint; }
+
+    long getCount() { return latency.getTotalCount(); }
+
+    long getErrors() { return errors.get(); }
+
+    double getErrorRate() { return getCount() == 0 ? 0 : (double) getErrors() / getCount(); }
+
+    double getPercentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double getMaxMillis() {
+        return latency.getMaxValue() / 1000.0;
+    }
+}
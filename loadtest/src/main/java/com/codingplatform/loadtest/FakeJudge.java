@@ -0,0 +1,140 @@
+package com.codingplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the judge service with the same API (POST /judge,
+ * GET /health). Each request is answered after a sampled latency with a
+ * verdict drawn from a weighted mix. Requests are handled by a fixed
+ * number of workers, so like the real judge it queues once every worker
+ * is busy.
+ */
+final class FakeJudge {
+
+    /** Verdict codes accepted in the --verdicts mix. */
+    static final Map<String, String> VERDICTS = Map.of(
+            "AC", "Accepted",
+            "WA", "Wrong Answer",
+            "TLE", "Time Limit Exceeded",
+            "RE", "Runtime Error",
+            "CE", "Compilation Error");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyDistribution latency;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private HttpServer server;
+
+    FakeJudge(LatencyDistribution latency, Map<String, Integer> mix) {
+        for (String code : mix.keySet()) {
+            if (!VERDICTS.containsKey(code)) {
+                throw new IllegalArgumentException("Unknown verdict " + code + ", expected one of " + VERDICTS.keySet());
+            }
+        }
+        this.latency = latency;
+        this.mix = new LinkedHashMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Verdict weights must add up to more than 0");
+        }
+    }
+
+    void start(int port, int workers) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/judge", this::judge);
+        server.createContext("/health", this::health);
+        server.setExecutor(Executors.newFixedThreadPool(workers));
+        server.start();
+        System.out.printf("Fake judge on http://localhost:%d with %d workers, verdicts %s%n", port, workers, mix);
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void judge(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = mapper.readTree(in);
+            }
+            int total = Math.max(1, request.path("testcases").size());
+            latency.sleep();
+            send(exchange, 200, result(pick(), total, request.path("testcases")));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ObjectNode body = mapper.createObjectNode().put("status", "healthy").put("service", "fake-judge");
+            send(exchange, 200, body);
+        }
+    }
+
+    private String pick() {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private ObjectNode result(String code, int total, JsonNode testcases) {
+        ObjectNode result = mapper.createObjectNode().put("verdict", VERDICTS.get(code)).put("total", total);
+        if (!code.equals("CE")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            result.put("time_ms", 20 + random.nextInt(200)).put("memory_kb", 8000 + random.nextInt(40000));
+        }
+        switch (code) {
+            case "AC" -> result.put("passed", total).putNull("failed_test");
+            case "CE" -> result.put("passed", 0).putNull("failed_test")
+                    .put("error", "main.py:1: SyntaxError: invalid syntax");
+            default -> {
+                int passed = ThreadLocalRandom.current().nextInt(total);
+                JsonNode failed = testcases.path(passed);
+                ObjectNode failedTest = result.put("passed", passed).putObject("failed_test");
+                failedTest.put("testId", passed + 1)
+                        .put("input", truncate(failed.path("input").asText("")))
+                        .put("expected", truncate(failed.path("expectedOutput").asText("")))
+                        .put("actual", code.equals("TLE") ? "Execution timed out" : "0");
+                if (code.equals("RE")) {
+                    failedTest.put("error", "Traceback (most recent call last): IndexError: list index out of range");
+                } else {
+                    failedTest.putNull("error");
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String truncate(String text) {
+        return text.length() > 500 ? text.substring(0, 500) : text;
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
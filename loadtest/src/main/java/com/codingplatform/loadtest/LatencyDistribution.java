@@ -0,0 +1,49 @@
+package com.codingplatform.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal service time given by its median and 99th percentile, the
+ * usual shape of remote-call latency: most calls near the median, a long
+ * right tail.
+ */
+final class LatencyDistribution {
+
+    // 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final double mu;
+    private final double sigma;
+
+    private LatencyDistribution(double medianMs, double p99Ms) {
+        this.mu = Math.log(medianMs);
+        this.sigma = medianMs > 0 && p99Ms > medianMs ? Math.log(p99Ms / medianMs) / Z_99 : 0;
+    }
+
+    /**
+     * Parse "median,p99" in milliseconds, e.g. "200,1500"; "0" disables.
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split(",");
+        double median = Double.parseDouble(parts[0].trim());
+        double p99 = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : median;
+        if (median < 0 || p99 < median) {
+            throw new IllegalArgumentException("Expected 0 <= median <= p99: " + spec);
+        }
+        return new LatencyDistribution(median, p99);
+    }
+
+    long sampleMillis() {
+        if (Double.isInfinite(mu)) {
+            return 0;
+        }
+        return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    void sleep() throws InterruptedException {
+        long millis = sampleMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
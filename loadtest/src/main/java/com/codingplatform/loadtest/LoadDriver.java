@@ -0,0 +1,312 @@
+package com.codingplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop traffic against a running backend.
+ *
+ * Each virtual user signs up, then loops: pick an action from the weighted
+ * mix, run its requests, wait the think time. Actions:
+ * - browse: a problem list page, then one problem's details
+ * - submit: POST /api/submit (judged synchronously)
+ * - poll: the user's latest submission, then their history page
+ *
+ * Stages run one after another with increasing user counts, so the report
+ * shows where throughput stops growing and latency takes off. A closed
+ * loop slows down with the server, so p99 under saturation is a lower
+ * bound on what an open stream of users would see.
+ */
+final class LoadDriver {
+
+    private static final String CODE = "import sys\n"
+            + "data = sys.stdin.read().split()\n"
+            + "print(sum(int(x) for x in data[1:]))\n";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private final Duration think;
+    private final List<String> problemIds = new ArrayList<>();
+
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean running;
+
+    LoadDriver(String baseUrl, Map<String, Integer> mix, Duration think) {
+        for (String action : mix.keySet()) {
+            if (!List.of("browse", "submit", "poll").contains(action)) {
+                throw new IllegalArgumentException("Unknown action " + action + ", expected browse, submit or poll");
+            }
+        }
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.think = think;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Run each stage for warmup plus duration and return the per-stage
+     * results, measured after warmup.
+     */
+    List<StageResult> run(List<Integer> userCounts, Duration warmup, Duration duration) throws Exception {
+        loadProblemIds();
+        List<StageResult> results = new ArrayList<>();
+        List<VirtualUser> users = new ArrayList<>();
+        for (int stage = 0; stage < userCounts.size(); stage++) {
+            int target = userCounts.get(stage);
+            while (users.size() < target) {
+                users.add(signUp(users.size()));
+            }
+
+            stats = new ConcurrentHashMap<>();
+            recording = false;
+            running = true;
+            List<Thread> threads = new ArrayList<>();
+            for (VirtualUser user : users.subList(0, target)) {
+                Thread thread = new Thread(() -> loop(user), "vu-" + user.index);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+
+            System.out.printf("Stage %d: %d users, %ds warmup + %ds%n",
+                    stage + 1, target, warmup.toSeconds(), duration.toSeconds());
+            Thread.sleep(warmup.toMillis());
+            stats = new ConcurrentHashMap<>();
+            recording = true;
+            long start = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            Map<String, EndpointStats> measured = stats;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            recording = false;
+            running = false;
+            for (Thread thread : threads) {
+                thread.join(30_000);
+            }
+
+            StageResult result = new StageResult(target, seconds, measured);
+            result.print();
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void loop(VirtualUser user) {
+        while (running) {
+            try {
+                switch (pick()) {
+                    case "browse" -> browse(user);
+                    case "submit" -> submit(user);
+                    default -> poll(user);
+                }
+                if (!think.isZero()) {
+                    Thread.sleep(think.toMillis());
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void browse(VirtualUser user) throws InterruptedException {
+        call("GET /api/problems", get("/api/problems?limit=20", user));
+        String id = problemIds.get(ThreadLocalRandom.current().nextInt(problemIds.size()));
+        call("GET /api/problems/{id}", get("/api/problems/" + encode(id), user));
+    }
+
+    private void submit(VirtualUser user) throws InterruptedException {
+        ObjectNode body = mapper.createObjectNode()
+                .put("problemId", problemIds.get(ThreadLocalRandom.current().nextInt(problemIds.size())))
+                .put("language", "python")
+                .put("code", CODE);
+        HttpRequest request = authorized(HttpRequest.newBuilder(URI.create(baseUrl + "/api/submit")), user)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        JsonNode response = call("POST /api/submit", request);
+        if (response != null && response.hasNonNull("submissionId")) {
+            user.lastSubmissionId = response.get("submissionId").asLong();
+        }
+    }
+
+    private void poll(VirtualUser user) throws InterruptedException {
+        if (user.lastSubmissionId != null) {
+            call("GET /api/submissions/{id}", get("/api/submissions/" + user.lastSubmissionId, user));
+        }
+        call("GET /api/submissions/me", get("/api/submissions/me?size=20", user));
+    }
+
+    /**
+     * Send a request, record it, and return the JSON body of a successful
+     * response (null otherwise).
+     */
+    private JsonNode call(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean error = true;
+        JsonNode body = null;
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            error = response.statusCode() >= 400;
+            if (!error && response.body().length > 0) {
+                body = mapper.readTree(response.body());
+            }
+        } catch (IOException e) {
+            // counted as an error below
+        }
+        long elapsed = System.nanoTime() - start;
+        if (recording) {
+            stats.computeIfAbsent(endpoint, EndpointStats::new).record(elapsed, error);
+        }
+        return body;
+    }
+
+    private HttpRequest get(String path, VirtualUser user) {
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + path)), user).GET().build();
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder builder, VirtualUser user) {
+        return builder.timeout(Duration.ofSeconds(60)).header("Authorization", "Bearer " + user.token);
+    }
+
+    private String pick() {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void loadProblemIds() throws Exception {
+        String cursor = null;
+        do {
+            String path = "/api/problems?limit=100" + (cursor != null ? "&cursor=" + encode(cursor) : "");
+            JsonNode page = send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+            page.path("content").forEach(problem -> problemIds.add(problem.path("id").asText()));
+            cursor = page.path("nextCursor").isTextual() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        if (problemIds.isEmpty()) {
+            throw new IllegalStateException("Backend has no problems; was it started with the seed?");
+        }
+        System.out.printf("Backend at %s has %d problems%n", baseUrl, problemIds.size());
+    }
+
+    private VirtualUser signUp(int index) throws Exception {
+        String email = "loadtest-" + ProcessHandle.current().pid() + "-" + index + "@loadtest.local";
+        ObjectNode body = mapper.createObjectNode().put("email", email).put("password", "loadtest-password");
+        JsonNode auth = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build());
+        return new VirtualUser(index, auth.path("token").asText());
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write all stage results as JSON.
+     */
+    void writeReport(List<StageResult> results, Path file) throws IOException {
+        ArrayNode stages = mapper.createArrayNode();
+        for (StageResult result : results) {
+            ObjectNode stage = stages.addObject()
+                    .put("users", result.users)
+                    .put("seconds", result.seconds);
+            ArrayNode endpoints = stage.putArray("endpoints");
+            for (EndpointStats s : result.sorted()) {
+                endpoints.addObject()
+                        .put("endpoint", s.getEndpoint())
+                        .put("requests", s.getCount())
+                        .put("throughput", s.getCount() / result.seconds)
+                        .put("p50Ms", s.getPercentileMillis(50))
+                        .put("p99Ms", s.getPercentileMillis(99))
+                        .put("maxMs", s.getMaxMillis())
+                        .put("errors", s.getErrors())
+                        .put("errorRate", s.getErrorRate());
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), stages);
+        System.out.println("Report written to " + file);
+    }
+
+    private static final class VirtualUser {
+        final int index;
+        final String token;
+        volatile Long lastSubmissionId;
+
+        VirtualUser(int index, String token) {
+            this.index = index;
+            this.token = token;
+        }
+    }
+
+    static final class StageResult {
+        final int users;
+        final double seconds;
+        final Map<String, EndpointStats> endpoints;
+
+        StageResult(int users, double seconds, Map<String, EndpointStats> endpoints) {
+            this.users = users;
+            this.seconds = seconds;
+            this.endpoints = endpoints;
+        }
+
+        List<EndpointStats> sorted() {
+            return endpoints.values().stream()
+                    .sorted((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()))
+                    .toList();
+        }
+
+        void print() {
+            System.out.printf("%-28s %9s %9s %9s %9s %9s %8s%n",
+                    "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            long total = 0;
+            for (EndpointStats s : sorted()) {
+                total += s.getCount();
+                System.out.printf("%-28s %9d %9.1f %9.1f %9.1f %9.1f %7.2f%%%n",
+                        s.getEndpoint(), s.getCount(), s.getCount() / seconds,
+                        s.getPercentileMillis(50), s.getPercentileMillis(99), s.getMaxMillis(),
+                        100 * s.getErrorRate());
+            }
+            System.out.printf("%-28s %9d %9.1f%n%n", "total", total, total / seconds);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.codingplatform.loadtest;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point: {@code seed}, {@code stubs} and {@code drive}. See
+ * loadtest/README.md for a full run.
+ */
+public final class LoadTest {
+
+    private static final String USAGE = """
+            Usage: LoadTest <command> [--name=value ...]
+
+              seed    Write seed SQL for the backend's loadtest profile
+                        --questions=../questions  --out=target/seed.sql
+              stubs   Run the S3 stub and the fake judge until interrupted
+                        --questions=../questions
+                        --s3-port=9090  --s3-latency=20,80          (median,p99 ms)
+                        --judge-port=5000  --judge-workers=8
+                        --judge-latency=300,2000                    (median,p99 ms)
+                        --verdicts=AC:60,WA:25,TLE:8,RE:4,CE:3
+              drive   Replay traffic against a running backend
+                        --base-url=http://localhost:8080
+                        --users=10,20,40          (one stage per count)
+                        --warmup=10s  --duration=30s  --think=0ms
+                        --mix=browse:70,poll:20,submit:10
+                        --report=target/loadtest-report.json
+            """;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "help";
+        Options options = new Options(args, Math.min(1, args.length));
+        switch (command) {
+            case "seed" -> seed(options);
+            case "stubs" -> stubs(options);
+            case "drive" -> drive(options);
+            default -> System.out.print(USAGE);
+        }
+    }
+
+    private static void seed(Options options) throws Exception {
+        QuestionSet questions = QuestionSet.load(Path.of(options.get("questions", "../questions")));
+        Path out = Path.of(options.get("out", "target/seed.sql"));
+        questions.writeSeed(out);
+        System.out.printf("Wrote %d problems to %s%n", questions.getQuestions().size(), out);
+    }
+
+    private static void stubs(Options options) throws Exception {
+        QuestionSet questions = QuestionSet.load(Path.of(options.get("questions", "../questions")));
+
+        S3Stub s3 = new S3Stub(questions, LatencyDistribution.parse(options.get("s3-latency", "20,80")));
+        s3.start(options.getInt("s3-port", 9090), 64);
+
+        FakeJudge judge = new FakeJudge(LatencyDistribution.parse(options.get("judge-latency", "300,2000")),
+                options.getWeights("verdicts", "AC:60,WA:25,TLE:8,RE:4,CE:3"));
+        judge.start(options.getInt("judge-port", 5000), options.getInt("judge-workers", 8));
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            s3.stop();
+            judge.stop();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    private static void drive(Options options) throws Exception {
+        LoadDriver driver = new LoadDriver(
+                options.get("base-url", "http://localhost:8080"),
+                options.getWeights("mix", "browse:70,poll:20,submit:10"),
+                options.getDuration("think", "0ms"));
+        List<LoadDriver.StageResult> results = driver.run(
+                options.getIntList("users", "10,20,40"),
+                options.getDuration("warmup", "10s"),
+                options.getDuration("duration", "30s"));
+        driver.writeReport(results, Path.of(options.get("report", "target/loadtest-report.json")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.codingplatform.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the form --name=value.
+ */
+final class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    Options(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * A duration such as 500ms, 30s or 5m.
+     */
+    Duration getDuration(String name, String defaultValue) {
+        String value = get(name, defaultValue).trim();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Bad duration for --" + name + ": " + value);
+        };
+    }
+
+    List<Integer> getIntList(String name, String defaultValue) {
+        List<Integer> list = new ArrayList<>();
+        for (String part : get(name, defaultValue).split(",")) {
+            list.add(Integer.parseInt(part.trim()));
+        }
+        return list;
+    }
+
+    /**
+     * Weights such as AC:60,WA:25 in the order given.
+     */
+    Map<String, Integer> getWeights(String name, String defaultValue) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : get(name, defaultValue).split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad weight for --" + name + ": " + part);
+            }
+            weights.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
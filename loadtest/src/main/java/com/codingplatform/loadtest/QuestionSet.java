@@ -0,0 +1,154 @@
+package com.codingplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Problems and testcases read from the questions/ tree, laid out the way
+ * scripts/migrate_questions.py uploads them: testcase N of a problem is
+ * stored at problems/{id}/inputN.txt and problems/{id}/outputN.txt.
+ */
+final class QuestionSet {
+
+    private static final Pattern INPUT_FILE = Pattern.compile("input(\\d+)\\.txt");
+
+    private final List<Question> questions = new ArrayList<>();
+    private final Map<String, Path> objects = new HashMap<>();
+
+    private QuestionSet() {}
+
+    static QuestionSet load(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Questions directory not found: " + root.toAbsolutePath());
+        }
+        QuestionSet set = new QuestionSet();
+        ObjectMapper mapper = new ObjectMapper();
+        List<Path> problemFiles;
+        try (Stream<Path> files = Files.walk(root)) {
+            problemFiles = files.filter(p -> p.getFileName().toString().equals("problem.json")).sorted().toList();
+        }
+        for (Path problemFile : problemFiles) {
+            JsonNode json = mapper.readTree(problemFile.toFile());
+            Question question = new Question(json);
+            Path testcases = problemFile.resolveSibling("testcases");
+            if (Files.isDirectory(testcases)) {
+                try (Stream<Path> files = Files.list(testcases)) {
+                    files.forEach(input -> {
+                        Matcher m = INPUT_FILE.matcher(input.getFileName().toString());
+                        Path output = input.resolveSibling("output" + (m.matches() ? m.group(1) : "") + ".txt");
+                        if (m.matches() && Files.exists(output)) {
+                            int number = Integer.parseInt(m.group(1));
+                            question.testcases.add(number);
+                            set.objects.put(inputKey(question.id, number), input);
+                            set.objects.put(outputKey(question.id, number), output);
+                        }
+                    });
+                }
+            }
+            question.testcases.sort(null);
+            set.questions.add(question);
+        }
+        return set;
+    }
+
+    List<Question> getQuestions() {
+        return questions;
+    }
+
+    /**
+     * Object key to local file, for the S3 stub.
+     */
+    Map<String, Path> getObjects() {
+        return objects;
+    }
+
+    /**
+     * Write INSERT statements for problems, tags and testcases. Plain SQL
+     * accepted by H2 (MySQL mode) and by MySQL with NO_BACKSLASH_ESCAPES.
+     */
+    void writeSeed(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Question q : questions) {
+                out.write("INSERT INTO problems (id, title, category, difficulty, statement, input_format, "
+                        + "output_format, constraints, time_limit, memory_limit) VALUES ("
+                        + String.join(", ", quote(q.id), quote(q.title), quote(q.category), quote(q.difficulty),
+                        quote(q.statement), quote(q.inputFormat), quote(q.outputFormat), quote(q.constraints),
+                        String.valueOf(q.timeLimit), String.valueOf(q.memoryLimit)) + ");\n");
+                for (String tag : q.tags) {
+                    out.write("INSERT INTO problem_tags (problem_id, tag) VALUES ("
+                            + quote(q.id) + ", " + quote(tag) + ");\n");
+                }
+                for (int n : q.testcases) {
+                    out.write("INSERT INTO testcases (problem_id, testcase_number, s3_input_key, s3_output_key, "
+                            + "is_sample) VALUES (" + quote(q.id) + ", " + n + ", " + quote(inputKey(q.id, n)) + ", "
+                            + quote(outputKey(q.id, n)) + ", " + (n <= 2 ? "TRUE" : "FALSE") + ");\n");
+                }
+            }
+        }
+    }
+
+    static String inputKey(String problemId, int number) {
+        return "problems/" + problemId + "/input" + number + ".txt";
+    }
+
+    static String outputKey(String problemId, int number) {
+        return "problems/" + problemId + "/output" + number + ".txt";
+    }
+
+    private static String quote(String value) {
+        return value == null ? "NULL" : "'" + value.replace("'", "''") + "'";
+    }
+
+    static final class Question {
+        final String id;
+        final String title;
+        final String category;
+        final String difficulty;
+        final String statement;
+        final String inputFormat;
+        final String outputFormat;
+        final String constraints;
+        final int timeLimit;
+        final int memoryLimit;
+        final List<String> tags = new ArrayList<>();
+        final List<Integer> testcases = new ArrayList<>();
+
+        Question(JsonNode json) {
+            this.id = json.path("id").asText();
+            this.title = json.path("title").asText("");
+            this.category = json.path("category").asText("misc");
+            this.difficulty = json.path("difficulty").asText("easy").toLowerCase(Locale.ROOT);
+            this.statement = json.path("statement").asText("");
+            this.inputFormat = json.path("input_format").asText("");
+            this.outputFormat = json.path("output_format").asText("");
+            this.constraints = text(json.path("constraints"));
+            this.timeLimit = json.path("time_limit").asInt(1);
+            this.memoryLimit = json.path("memory_limit").asInt(256);
+            json.path("tags").forEach(tag -> tags.add(tag.asText()));
+        }
+
+        private static String text(JsonNode node) {
+            if (node.isArray()) {
+                List<String> lines = new ArrayList<>();
+                node.forEach(line -> lines.add(line.asText()));
+                return String.join("\n", lines);
+            }
+            return node.asText("");
+        }
+    }
+}
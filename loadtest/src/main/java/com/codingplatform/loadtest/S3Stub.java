@@ -0,0 +1,101 @@
+package com.codingplatform.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Read-only, path-style S3 endpoint serving testcase files from the
+ * questions/ tree: GET and HEAD /{bucket}/{key}. Any bucket name is
+ * accepted and requests are not authenticated. Objects are read into
+ * memory on first access.
+ */
+final class S3Stub {
+
+    private final Map<String, Path> objects;
+    private final Map<String, byte[]> contents = new ConcurrentHashMap<>();
+    private final LatencyDistribution latency;
+    private HttpServer server;
+
+    S3Stub(QuestionSet questions, LatencyDistribution latency) {
+        this.objects = questions.getObjects();
+        this.latency = latency;
+    }
+
+    void start(int port, int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.start();
+        System.out.printf("S3 stub on http://localhost:%d serving %d objects%n", port, objects.size());
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                error(exchange, 405, "MethodNotAllowed");
+                return;
+            }
+            // Path-style: /{bucket}/{key}
+            String path = exchange.getRequestURI().getPath();
+            int slash = path.indexOf('/', 1);
+            String key = slash > 0 ? path.substring(slash + 1) : "";
+            Path file = objects.get(key);
+            if (file == null) {
+                error(exchange, 404, "NoSuchKey");
+                return;
+            }
+
+            latency.sleep();
+            byte[] body = contents.computeIfAbsent(key, k -> read(file));
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            if (method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + file, e);
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String code) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code></Error>")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
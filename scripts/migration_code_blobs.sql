@@ -0,0 +1,41 @@
+-- ============================================
+-- Migration Script: Content-Addressed Submission Code
+-- Moves submission source out of submissions.code into code_blobs
+-- Run this on existing databases created before code_blobs
+-- ============================================
+
+-- Step 1: blob table
+CREATE TABLE IF NOT EXISTS code_blobs (
+    hash CHAR(64) PRIMARY KEY,
+    data MEDIUMBLOB NOT NULL,
+    original_size INT NOT NULL,
+    stored_size INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Step 2: code_hash column; inline code becomes nullable
+SET @col_exists = (
+    SELECT COUNT(*)
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE()
+    AND TABLE_NAME = 'submissions'
+    AND COLUMN_NAME = 'code_hash'
+);
+
+SET @sql = IF(@col_exists = 0,
+    'ALTER TABLE submissions ADD COLUMN code_hash CHAR(64) NULL AFTER language, MODIFY COLUMN code TEXT NULL',
+    'SELECT "code_hash already exists" AS message'
+);
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Step 3: move existing code into code_blobs.
+-- Start the backend once with CODE_STORAGE_MIGRATION_ENABLED=true; it
+-- stores each row's code, sets code_hash and clears the inline column.
+-- Progress is logged as "Code blob migration: N rows moved".
+
+-- Step 4 (after the job reports finished): check nothing is left, then drop the column
+-- SELECT COUNT(*) FROM submissions WHERE code IS NOT NULL;
+-- ALTER TABLE submissions DROP COLUMN code;
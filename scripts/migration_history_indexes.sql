@@ -0,0 +1,41 @@
+-- ============================================
+-- Migration Script: Submission History Indexes
+-- Composite indexes for keyset pagination of /api/submissions/me
+-- Run this on existing databases created before these indexes
+-- ============================================
+
+-- idx_user_submitted: WHERE user_id = ? AND (submitted_at, id) < (?, ?)
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+    AND TABLE_NAME = 'submissions'
+    AND INDEX_NAME = 'idx_user_submitted'
+);
+
+SET @sql = IF(@idx_exists = 0,
+    'CREATE INDEX idx_user_submitted ON submissions (user_id, submitted_at, id)',
+    'SELECT "idx_user_submitted already exists" AS message'
+);
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- idx_user_problem_submitted: same seek, filtered by problem
+SET @idx_exists = (
+    SELECT COUNT(*)
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE()
+    AND TABLE_NAME = 'submissions'
+    AND INDEX_NAME = 'idx_user_problem_submitted'
+);
+
+SET @sql = IF(@idx_exists = 0,
+    'CREATE INDEX idx_user_problem_submitted ON submissions (user_id, problem_id, submitted_at, id)',
+    'SELECT "idx_user_problem_submitted already exists" AS message'
+);
+
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,127 @@
+-- ============================================
+-- Migration Script: Monthly Partitioning of Submissions
+-- Converts an existing submissions table to RANGE partitions by month
+-- and creates the archive metadata tables.
+--
+-- Run migration_code_blobs.sql (and let its job finish) first.
+-- Partitioning rebuilds the table: run it in a maintenance window, or
+-- with an online schema change tool on large tables.
+-- Partitioned tables cannot have foreign keys, so the user/problem
+-- foreign keys are dropped; deleting a user no longer cascades to their
+-- submissions.
+-- ============================================
+
+DELIMITER //
+
+DROP PROCEDURE IF EXISTS partition_submissions //
+
+CREATE PROCEDURE partition_submissions()
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE fk_name VARCHAR(64);
+    DECLARE month_start DATE;
+    DECLARE last_month DATE;
+    DECLARE parts TEXT DEFAULT '';
+    DECLARE fks CURSOR FOR
+        SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+        WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'submissions';
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    IF (SELECT COUNT(*) FROM information_schema.PARTITIONS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'submissions'
+        AND PARTITION_NAME IS NOT NULL) > 0 THEN
+        SELECT 'submissions already partitioned' AS message;
+    ELSE
+        -- Step 1: drop foreign keys
+        OPEN fks;
+        drop_fks: LOOP
+            FETCH fks INTO fk_name;
+            IF done THEN
+                LEAVE drop_fks;
+            END IF;
+            SET @sql = CONCAT('ALTER TABLE submissions DROP FOREIGN KEY ', fk_name);
+            PREPARE stmt FROM @sql;
+            EXECUTE stmt;
+            DEALLOCATE PREPARE stmt;
+        END LOOP;
+        CLOSE fks;
+
+        -- Step 2: drop low-selectivity indexes nothing seeks on
+        IF EXISTS (SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE()
+                   AND TABLE_NAME = 'submissions' AND INDEX_NAME = 'idx_status') THEN
+            ALTER TABLE submissions DROP INDEX idx_status;
+        END IF;
+        IF EXISTS (SELECT 1 FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE()
+                   AND TABLE_NAME = 'submissions' AND INDEX_NAME = 'idx_verdict') THEN
+            ALTER TABLE submissions DROP INDEX idx_verdict;
+        END IF;
+
+        -- Step 3: partition key must be NOT NULL and part of the primary key
+        UPDATE submissions SET submitted_at = '1970-01-02 00:00:00' WHERE submitted_at IS NULL;
+        ALTER TABLE submissions
+            MODIFY COLUMN submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            DROP PRIMARY KEY,
+            ADD PRIMARY KEY (id, submitted_at);
+
+        -- Step 4: one partition per month from the oldest row to 3 months ahead
+        SET month_start = DATE_FORMAT(COALESCE((SELECT MIN(submitted_at) FROM submissions), NOW()), '%Y-%m-01');
+        SET last_month = DATE_FORMAT(NOW() + INTERVAL 3 MONTH, '%Y-%m-01');
+        WHILE month_start <= last_month DO
+            SET parts = CONCAT(parts,
+                'PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                ' VALUES LESS THAN (UNIX_TIMESTAMP(''', month_start + INTERVAL 1 MONTH, ' 00:00:00'')), ');
+            SET month_start = month_start + INTERVAL 1 MONTH;
+        END WHILE;
+
+        SET @sql = CONCAT('ALTER TABLE submissions PARTITION BY RANGE (UNIX_TIMESTAMP(submitted_at)) (',
+                          parts, 'PARTITION pmax VALUES LESS THAN MAXVALUE)');
+        PREPARE stmt FROM @sql;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL partition_submissions();
+DROP PROCEDURE partition_submissions;
+
+-- Archive metadata
+CREATE TABLE IF NOT EXISTS submission_archives (
+    partition_name VARCHAR(16) PRIMARY KEY,
+    object_key VARCHAR(255) NOT NULL,
+    range_end TIMESTAMP NOT NULL,
+    row_count BIGINT NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS submission_archive_segments (
+    user_id BIGINT NOT NULL,
+    partition_name VARCHAR(16) NOT NULL,
+    byte_offset BIGINT NOT NULL,
+    byte_length INT NOT NULL,
+    row_count INT NOT NULL,
+    min_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    min_submitted_at TIMESTAMP NOT NULL,
+    max_submitted_at TIMESTAMP NOT NULL,
+    
+    PRIMARY KEY (user_id, partition_name),
+    FOREIGN KEY (partition_name) REFERENCES submission_archives(partition_name) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Judged counts of archived rows, per user, problem and language ('all' across languages)
+CREATE TABLE IF NOT EXISTS submission_archive_summaries (
+    user_id BIGINT NOT NULL,
+    problem_id VARCHAR(120) NOT NULL,
+    language VARCHAR(20) NOT NULL,
+    judged BIGINT NOT NULL,
+    accepted BIGINT NOT NULL,
+    first_accepted_id BIGINT,
+    failed_before_accept BIGINT NOT NULL,
+    
+    PRIMARY KEY (user_id, problem_id, language),
+    -- Per-problem stats reconcile
+    INDEX idx_problem (problem_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
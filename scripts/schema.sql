@@ -74,16 +74,32 @@ CREATE TABLE IF NOT EXISTS users (
     INDEX idx_email (email)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ============================================
+-- Table: code_blobs
+-- Content-addressed submission code (zstd, optionally delta-encoded)
+-- ============================================
+CREATE TABLE IF NOT EXISTS code_blobs (
+    hash CHAR(64) PRIMARY KEY,
+    data MEDIUMBLOB NOT NULL,
+    original_size INT NOT NULL,
+    stored_size INT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ============================================
 -- Table: submissions
 -- User submission history
+-- Range-partitioned by month on submitted_at (partitions named pYYYYMM hold
+-- rows before the first of the following month). The backend adds future
+-- partitions and archives old ones. Partitioned InnoDB tables cannot have
+-- foreign keys, and the primary key must include submitted_at.
 -- ============================================
 CREATE TABLE IF NOT EXISTS submissions (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT,
     user_id BIGINT NULL,
     problem_id VARCHAR(120) NOT NULL,
     language ENUM('python', 'cpp', 'java', 'javascript') NOT NULL,
-    code TEXT NOT NULL,
+    code_hash CHAR(64) NULL,
     status ENUM('QUEUED','RUNNING','ACCEPTED','WRONG_ANSWER','TLE','RE','CE') DEFAULT 'QUEUED',
     verdict VARCHAR(50),
     passed_tests INT DEFAULT 0,
@@ -91,14 +107,122 @@ CREATE TABLE IF NOT EXISTS submissions (
     execution_time_ms INT,
     memory_used_kb INT,
     error_message TEXT,
-    submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    FOREIGN KEY (problem_id) REFERENCES problems(id) ON DELETE CASCADE,
+    PRIMARY KEY (id, submitted_at),
     INDEX idx_user_id (user_id),
     INDEX idx_problem_id (problem_id),
     INDEX idx_submitted_at (submitted_at),
-    INDEX idx_status (status),
-    INDEX idx_verdict (verdict)
+    -- Keyset pagination of history: seek on (submitted_at, id) per user / per user+problem
+    INDEX idx_user_submitted (user_id, submitted_at, id),
+    INDEX idx_user_problem_submitted (user_id, problem_id, submitted_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+PARTITION BY RANGE (UNIX_TIMESTAMP(submitted_at)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- ============================================
+-- Table: submission_archives
+-- Monthly submission partitions moved to cold storage (gzip NDJSON)
+-- ============================================
+CREATE TABLE IF NOT EXISTS submission_archives (
+    partition_name VARCHAR(16) PRIMARY KEY,
+    object_key VARCHAR(255) NOT NULL,
+    range_end TIMESTAMP NOT NULL,
+    row_count BIGINT NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: submission_archive_segments
+-- Per-user byte ranges inside an archive file (one gzip member per user,
+-- rows newest first), so history can read one user's rows directly
+-- ============================================
+CREATE TABLE IF NOT EXISTS submission_archive_segments (
+    user_id BIGINT NOT NULL,
+    partition_name VARCHAR(16) NOT NULL,
+    byte_offset BIGINT NOT NULL,
+    byte_length INT NOT NULL,
+    row_count INT NOT NULL,
+    min_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    min_submitted_at TIMESTAMP NOT NULL,
+    max_submitted_at TIMESTAMP NOT NULL,
+    
+    PRIMARY KEY (user_id, partition_name),
+    FOREIGN KEY (partition_name) REFERENCES submission_archives(partition_name) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: submission_archive_summaries
+-- Judged counts per user, problem and language (language = 'all' across
+-- languages) of archived partitions, written before a partition is
+-- dropped, so stats, leaderboard and progress rebuilds still count them.
+-- Anonymous submissions are summarized under user id 0
+-- ============================================
+CREATE TABLE IF NOT EXISTS submission_archive_summaries (
+    user_id BIGINT NOT NULL,
+    problem_id VARCHAR(120) NOT NULL,
+    language VARCHAR(20) NOT NULL,
+    judged BIGINT NOT NULL,
+    accepted BIGINT NOT NULL,
+    first_accepted_id BIGINT,
+    failed_before_accept BIGINT NOT NULL,
+    
+    PRIMARY KEY (user_id, problem_id, language),
+    -- Per-problem stats reconcile
+    INDEX idx_problem (problem_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+
+-- ============================================
+-- Table: problem_stats
+-- Incrementally maintained submission counters per problem and language
+-- (language = 'all' aggregates every language); reconciled nightly
+-- ============================================
+CREATE TABLE IF NOT EXISTS problem_stats (
+    problem_id VARCHAR(120) NOT NULL,
+    language VARCHAR(20) NOT NULL,
+    submissions BIGINT NOT NULL DEFAULT 0,
+    accepted BIGINT NOT NULL DEFAULT 0,
+    solvers BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    
+    PRIMARY KEY (problem_id, language),
+    FOREIGN KEY (problem_id) REFERENCES problems(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: submission_rollups
+-- Judged submission counts per hour and per day (granularity 'hour' / 'day')
+-- keyed by problem, language and status; maintained from verdict events,
+-- rebuilt for a time range by the backfill job. Hourly rows are purged
+-- after analytics.hourly-retention-days.
+-- ============================================
+CREATE TABLE IF NOT EXISTS submission_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    problem_id VARCHAR(120) NOT NULL,
+    language VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    submissions BIGINT NOT NULL DEFAULT 0,
+    
+    PRIMARY KEY (granularity, bucket_start, problem_id, language, status),
+    INDEX idx_rollup_problem (problem_id, granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- Table: revoked_tokens
+-- JWT denylist by jti (logout, compromised sessions); rows are purged once
+-- the token itself has expired
+-- ============================================
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti CHAR(36) PRIMARY KEY,
+    user_id BIGINT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    
+    INDEX idx_revoked_expires (expires_at),
+    INDEX idx_revoked_at (revoked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;